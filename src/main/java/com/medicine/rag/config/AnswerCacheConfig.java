@@ -0,0 +1,22 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 답변 캐시 설정
+ */
+@Configuration
+@Getter
+public class AnswerCacheConfig {
+
+    @Value("${answer-cache.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${answer-cache.similarity-threshold:0.95}")
+    private Double similarityThreshold; // 같은 질문으로 판단할 코사인 유사도
+
+    @Value("${answer-cache.max-entries:1000}")
+    private Integer maxEntries;
+}
@@ -1,5 +1,6 @@
 package com.medicine.rag.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,12 +25,15 @@ public class ChromaConfig {
     @Value("${chroma.timeout}")
     private Integer timeout;
 
+    @Value("${chroma.normalize-stored-embeddings:false}")
+    private Boolean normalizeStoredEmbeddings; // 시작 시 정규화되지 않은 기존 벡터를 길이 1로 변환 (업그레이드 직후 한 번만 사용)
+
     @Bean(name = "chromaHttpClient")
-    public OkHttpClient chromaHttpClient() {
-        return new OkHttpClient.Builder()
-                .connectTimeout(Duration.ofSeconds(timeout))
-                .readTimeout(Duration.ofSeconds(timeout))
-                .writeTimeout(Duration.ofSeconds(timeout))
-                .build();
+    public OkHttpClient chromaHttpClient(HttpClientConfig httpClientConfig, MeterRegistry meterRegistry) {
+        return httpClientConfig.newOkHttpClient("chroma", Duration.ofSeconds(timeout),
+                httpClientConfig.getChromaMaxConnections(),
+                httpClientConfig.getChromaKeepAliveMs(),
+                httpClientConfig.getChromaGzip(),
+                meterRegistry);
     }
 }
@@ -0,0 +1,25 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 청크 분할 및 토큰 수 추정 설정
+ */
+@Configuration
+@Getter
+public class ChunkingConfig {
+
+    @Value("${chunking.max-tokens:512}")
+    private Integer maxTokens; // 청크당 최대 토큰 수 (추정치)
+
+    @Value("${chunking.overlap-tokens:64}")
+    private Integer overlapTokens; // 이전 청크에서 이어 붙이는 문장의 최대 토큰 수
+
+    @Value("${chunking.chars-per-token:4.0}")
+    private Double charsPerToken; // 영문/숫자 기준 토큰당 문자 수
+
+    @Value("${chunking.tokens-per-hangul:1.5}")
+    private Double tokensPerHangul; // 한글 음절(및 한자) 한 글자당 토큰 수
+}
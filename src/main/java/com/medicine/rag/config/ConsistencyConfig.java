@@ -0,0 +1,46 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 저장소 간 정합성 설정
+ * MySQL, 벡터 저장소, OpenSearch, 파일 저장소에 반영할 삭제 작업(아웃박스)의 재시도와
+ * 주기적인 고아 데이터 정리를 설정합니다.
+ */
+@Configuration
+@Getter
+public class ConsistencyConfig {
+
+    @Value("${consistency.outbox.interval-ms:10000}")
+    private Long outboxIntervalMs; // 대기 중인 작업 처리 주기 (첫 재시도 간격)
+
+    @Value("${consistency.outbox.batch-size:100}")
+    private Integer outboxBatchSize; // 한 번에 처리할 작업 수
+
+    @Value("${consistency.outbox.max-attempts:20}")
+    private Integer outboxMaxAttempts; // 이 횟수만큼 실패하면 FAILED로 남김
+
+    @Value("${consistency.outbox.max-backoff-ms:3600000}")
+    private Long outboxMaxBackoffMs; // 재시도 간격 상한
+
+    @Value("${consistency.reconcile.interval-ms:3600000}")
+    private Long reconcileIntervalMs; // 고아 데이터 정리 주기 (0이면 사용 안 함)
+
+    @Value("${consistency.reconcile.batch-size:500}")
+    private Integer reconcileBatchSize; // 저장소를 훑는 단위
+
+    @Bean(name = "consistencyScheduler", destroyMethod = "shutdown")
+    public ScheduledExecutorService consistencyScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "store-consistency");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 임베딩 캐시 설정
+ */
+@Configuration
+@Getter
+public class EmbeddingCacheConfig {
+
+    @Value("${embedding-cache.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${embedding-cache.max-memory-bytes:268435456}")
+    private Long maxMemoryBytes; // 메모리 캐시 최대 크기 (바이트)
+
+    @Value("${embedding-cache.disk-enabled:false}")
+    private Boolean diskEnabled; // 디스크 캐시 사용 여부
+
+    @Value("${embedding-cache.dir:./cache/embeddings}")
+    private String dir;
+}
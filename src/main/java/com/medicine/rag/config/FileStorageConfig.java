@@ -23,6 +23,9 @@ public class FileStorageConfig {
     @Value("${file.temp-dir}")
     private String tempDir;
 
+    @Value("${file.blob-dir:./uploads/blobs}")
+    private String blobDir; // 내용 해시(SHA-256) 기반 원본/추출 텍스트 저장 위치
+
     @PostConstruct
     public void init() {
         try {
@@ -0,0 +1,25 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 답변 생성 동시 실행 제한 설정
+ */
+@Configuration
+@Getter
+public class GenerationConfig {
+
+    @Value("${generation.max-concurrent:4}")
+    private Integer maxConcurrent; // Ollama에 동시에 보내는 답변 생성 요청 수
+
+    @Value("${generation.queue-capacity:32}")
+    private Integer queueCapacity; // 대기열 크기 (가득 차면 즉시 429 응답)
+
+    @Value("${generation.max-queue-wait-ms:60000}")
+    private Long maxQueueWaitMs; // 대기열에서 기다리는 최대 시간
+
+    @Value("${generation.priority-step-ms:2000}")
+    private Long priorityStepMs; // 프롬프트 방식 우선순위 한 단계가 앞당기는 대기 시간
+}
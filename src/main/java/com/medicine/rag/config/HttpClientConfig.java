@@ -0,0 +1,85 @@
+package com.medicine.rag.config;
+
+import com.medicine.rag.util.ConcurrencyLimitInterceptor;
+import com.medicine.rag.util.GzipRequestInterceptor;
+import com.medicine.rag.util.HttpClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 HTTP 클라이언트 공통 설정
+ * 백엔드별 연결 풀 크기, 동시 요청 수, keep-alive, 요청 본문 압축을 한곳에서 관리합니다.
+ */
+@Configuration
+@Getter
+public class HttpClientConfig {
+
+    @Value("${http.gzip-min-bytes:16384}")
+    private Long gzipMinBytes; // 이 크기 이상의 요청 본문만 압축
+
+    @Value("${http.ollama.max-connections:16}")
+    private Integer ollamaMaxConnections; // 답변 생성 동시 요청 수
+
+    @Value("${http.ollama.keep-alive-ms:300000}")
+    private Long ollamaKeepAliveMs;
+
+    @Value("${http.ollama.gzip:false}")
+    private Boolean ollamaGzip; // Ollama는 압축된 요청 본문을 해제하지 않음
+
+    @Value("${http.ollama-embedding.max-connections:8}")
+    private Integer ollamaEmbeddingMaxConnections; // 임베딩 동시 요청 수
+
+    @Value("${http.ollama-embedding.keep-alive-ms:300000}")
+    private Long ollamaEmbeddingKeepAliveMs;
+
+    @Value("${http.ollama-embedding.gzip:false}")
+    private Boolean ollamaEmbeddingGzip;
+
+    @Value("${http.chroma.max-connections:16}")
+    private Integer chromaMaxConnections;
+
+    @Value("${http.chroma.keep-alive-ms:300000}")
+    private Long chromaKeepAliveMs;
+
+    @Value("${http.chroma.gzip:false}")
+    private Boolean chromaGzip; // 서버 앞단에서 압축 해제를 지원할 때만 사용
+
+    @Value("${http.opensearch.max-connections:32}")
+    private Integer openSearchMaxConnections;
+
+    @Value("${http.opensearch.keep-alive-ms:300000}")
+    private Long openSearchKeepAliveMs;
+
+    @Value("${http.opensearch.gzip:true}")
+    private Boolean openSearchGzip; // 요청 본문 전체 압축 (크기 기준 없음)
+
+    /**
+     * 백엔드별 OkHttp 클라이언트 생성
+     * 유휴 연결 수를 동시 요청 수와 같게 두어 부하가 몰릴 때 연결을 다시 맺지 않도록 하고,
+     * 연결 풀 메트릭을 등록합니다.
+     */
+    public OkHttpClient newOkHttpClient(String client, Duration timeout, int maxConnections,
+                                        long keepAliveMs, boolean gzip, MeterRegistry meterRegistry) {
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(maxConnections);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(timeout)
+                .readTimeout(timeout)
+                .writeTimeout(timeout)
+                .connectionPool(new ConnectionPool(maxConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+                .addInterceptor(limiter);
+        if (gzip) {
+            builder.addInterceptor(new GzipRequestInterceptor(gzipMinBytes));
+        }
+
+        OkHttpClient httpClient = builder.build();
+        HttpClientMetrics.bind(meterRegistry, client, httpClient, limiter);
+        return httpClient;
+    }
+}
@@ -0,0 +1,128 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 문서 수집 작업 설정
+ */
+@Configuration
+@Getter
+public class IngestionConfig {
+
+    @Value("${ingestion.worker-threads:2}")
+    private Integer workerThreads;
+
+    @Value("${ingestion.queue-capacity:100}")
+    private Integer queueCapacity;
+
+    @Value("${ingestion.streaming-extraction:true}")
+    private Boolean streamingExtraction; // 페이지 단위 추출 및 점진적 청크 임베딩 사용 여부
+
+    @Value("${ingestion.deduplicate-uploads:true}")
+    private Boolean deduplicateUploads; // 같은 내용의 문서가 있으면 처리하지 않고 기존 벡터/인덱스 재사용
+
+    @Value("${ingestion.pdf.parallelism:0}")
+    private Integer pdfParallelism; // PDF 병렬 추출 스레드 수 (0이면 CPU 코어 수)
+
+    @Value("${ingestion.pdf.parallel-min-pages:64}")
+    private Integer pdfParallelMinPages; // 이 페이지 수 이상인 PDF만 구간 단위로 나누어 (병렬) 추출
+
+    @Value("${ingestion.pdf.pages-per-task:16}")
+    private Integer pdfPagesPerTask; // 작업 하나가 처리하는 최소 페이지 수
+
+    @Value("${ingestion.pipeline.parse-threads:0}")
+    private Integer pipelineParseThreads; // 일괄 수집 텍스트 추출/청크 분할 스레드 수 (0이면 CPU 코어 수)
+
+    @Value("${ingestion.pipeline.embed-threads:4}")
+    private Integer pipelineEmbedThreads; // 일괄 수집 임베딩/벡터 저장 스레드 수
+
+    @Value("${ingestion.pipeline.index-threads:2}")
+    private Integer pipelineIndexThreads; // 일괄 수집 인덱싱/문서 저장 스레드 수
+
+    @Value("${ingestion.pipeline.queue-capacity:8}")
+    private Integer pipelineQueueCapacity; // 단계별 대기열 크기 (추출된 청크를 메모리에 보관하므로 작게 유지)
+
+    @Value("${ingestion.bulk.import-root:}")
+    private String bulkImportRoot; // 서버 디렉토리 가져오기를 허용할 최상위 경로 (비우면 사용 안 함)
+
+    @Value("${ingestion.bulk.max-entry-bytes:104857600}")
+    private Long bulkMaxEntryBytes; // 압축 파일/디렉토리에서 가져올 파일 하나의 최대 크기
+
+    @Value("${ingestion.bulk.max-entries:10000}")
+    private Integer bulkMaxEntries; // 압축 파일 하나의 최대 항목 수 (넘으면 일괄 작업 중단)
+
+    @Value("${ingestion.bulk.max-total-bytes:2147483648}")
+    private Long bulkMaxTotalBytes; // 압축 파일 하나를 풀었을 때의 최대 전체 크기 (넘으면 일괄 작업 중단)
+
+    @Bean(name = "ingestionExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor ingestionExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ingestion-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * 일괄 수집 파일을 파이프라인에 넣는 스레드
+     * 파이프라인 대기열이 가득 차면 이 스레드가 기다리므로 요청 스레드는 막히지 않습니다.
+     */
+    @Bean(name = "bulkImportExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService bulkImportExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(name = "pdfExtractionPool", destroyMethod = "shutdown")
+    public ForkJoinPool pdfExtractionPool() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ForkJoinPool(
+                getEffectivePdfParallelism(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("pdf-extract-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null,
+                false
+        );
+    }
+
+    /**
+     * 실제 적용되는 일괄 수집 추출 스레드 수
+     */
+    public int getEffectivePipelineParseThreads() {
+        return pipelineParseThreads > 0 ? pipelineParseThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 실제 적용되는 PDF 병렬 추출 스레드 수
+     */
+    public int getEffectivePdfParallelism() {
+        return pdfParallelism > 0 ? pdfParallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
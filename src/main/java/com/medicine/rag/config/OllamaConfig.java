@@ -1,5 +1,7 @@
 package com.medicine.rag.config;
 
+import com.medicine.rag.service.OllamaEndpointPool;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +9,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Ollama 설정
@@ -24,12 +33,93 @@ public class OllamaConfig {
     @Value("${ollama.timeout}")
     private Integer timeout;
 
+    @Value("${ollama.stream-threads:16}")
+    private Integer streamThreads; // 스트리밍 답변 전송 스레드 수
+
+    @Value("${ollama.stream-queue-capacity:32}")
+    private Integer streamQueueCapacity; // 스트리밍 스레드를 기다리는 요청 수 (가득 차면 429 응답)
+
+    @Value("${ollama.generation-urls:}")
+    private List<String> generationUrls; // 답변 생성 서버 목록 (비우면 base-url 사용)
+
+    @Value("${ollama.embedding-urls:}")
+    private List<String> embeddingUrls; // 임베딩 서버 목록 (비우면 base-url 사용)
+
+    @Value("${ollama.health-check-interval-ms:10000}")
+    private Long healthCheckIntervalMs; // 서버 상태 확인 주기
+
+    @Value("${ollama.circuit.failure-threshold:3}")
+    private Integer circuitFailureThreshold; // 회로를 여는 연속 실패 횟수
+
+    @Value("${ollama.circuit.open-ms:30000}")
+    private Long circuitOpenMs; // 회로가 열린 서버를 제외하는 시간
+
     @Bean(name = "ollamaHttpClient")
-    public OkHttpClient ollamaHttpClient() {
-        return new OkHttpClient.Builder()
-                .connectTimeout(Duration.ofSeconds(timeout))
-                .readTimeout(Duration.ofSeconds(timeout))
-                .writeTimeout(Duration.ofSeconds(timeout))
-                .build();
+    public OkHttpClient ollamaHttpClient(HttpClientConfig httpClientConfig, MeterRegistry meterRegistry) {
+        return httpClientConfig.newOkHttpClient("ollama", Duration.ofSeconds(timeout),
+                httpClientConfig.getOllamaMaxConnections(),
+                httpClientConfig.getOllamaKeepAliveMs(),
+                httpClientConfig.getOllamaGzip(),
+                meterRegistry);
+    }
+
+    @Bean(name = "ollamaEmbeddingHttpClient")
+    public OkHttpClient ollamaEmbeddingHttpClient(HttpClientConfig httpClientConfig, MeterRegistry meterRegistry) {
+        return httpClientConfig.newOkHttpClient("ollama-embedding", Duration.ofSeconds(timeout),
+                httpClientConfig.getOllamaEmbeddingMaxConnections(),
+                httpClientConfig.getOllamaEmbeddingKeepAliveMs(),
+                httpClientConfig.getOllamaEmbeddingGzip(),
+                meterRegistry);
+    }
+
+    @Bean(name = "ollamaGenerationPool")
+    public OllamaEndpointPool ollamaGenerationPool() {
+        return new OllamaEndpointPool("생성", resolveUrls(generationUrls),
+                circuitFailureThreshold, circuitOpenMs);
+    }
+
+    @Bean(name = "ollamaEmbeddingPool")
+    public OllamaEndpointPool ollamaEmbeddingPool() {
+        return new OllamaEndpointPool("임베딩", resolveUrls(embeddingUrls),
+                circuitFailureThreshold, circuitOpenMs);
+    }
+
+    @Bean(name = "ollamaHealthScheduler", destroyMethod = "shutdown")
+    public ScheduledExecutorService ollamaHealthScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ollama-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(name = "streamingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor streamingExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                streamThreads,
+                streamThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(streamQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ollama-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * 서버 목록 정리 (비어 있으면 base-url 하나만 사용)
+     */
+    private List<String> resolveUrls(List<String> urls) {
+        List<String> resolved = urls == null ? List.of() : urls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .distinct()
+                .toList();
+        return resolved.isEmpty() ? List.of(baseUrl) : resolved;
     }
 }
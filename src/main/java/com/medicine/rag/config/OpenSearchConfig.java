@@ -1,7 +1,13 @@
 package com.medicine.rag.config;
 
+import com.medicine.rag.util.HttpClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.opensearch.client.RestClient;
 import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.transport.rest_client.RestClientTransport;
@@ -29,11 +35,54 @@ public class OpenSearchConfig {
     @Value("${opensearch.index-name}")
     private String indexName;
 
+    @Value("${opensearch.shards:1}")
+    private Integer shards;
+
+    @Value("${opensearch.replicas:1}")
+    private Integer replicas;
+
+    @Value("${opensearch.refresh-interval:30s}")
+    private String refreshInterval; // 수집 작업은 완료 시 직접 새로고침하므로 길게 설정
+
+    @Value("${opensearch.analyzer:nori}")
+    private String analyzer; // nori(한국어 형태소 분석 플러그인 필요) 또는 standard
+
+    @Value("${opensearch.mapping-version:1}")
+    private Integer mappingVersion; // 매핑/분석기/샤드 설정 변경 시 올리면 재인덱싱 후 별칭 교체
+
+    @Value("${opensearch.reindex-poll-ms:5000}")
+    private Long reindexPollMs; // 재인덱싱 작업 진행 상태 확인 주기
+
+    @Value("${opensearch.bulk-size:200}")
+    private Integer bulkSize; // _bulk 요청 하나에 담는 청크 수
+
+    @Value("${opensearch.snippet-size:300}")
+    private Integer snippetSize; // 검색 결과 발췌문 길이 (문자)
+
+    @Value("${opensearch.snippet-count:2}")
+    private Integer snippetCount; // 검색 결과당 발췌문 수
+
     @Bean
-    public OpenSearchClient openSearchClient() {
+    public OpenSearchClient openSearchClient(HttpClientConfig httpClientConfig, MeterRegistry meterRegistry)
+            throws IOReactorException {
+        // 단일 호스트이므로 라우트당 연결 수와 전체 연결 수를 같게 설정
+        int maxConnections = httpClientConfig.getOpenSearchMaxConnections();
+        long keepAliveMs = httpClientConfig.getOpenSearchKeepAliveMs();
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                        .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                        .build()));
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        HttpClientMetrics.bind(meterRegistry, "opensearch", connectionManager);
+
         RestClient restClient = RestClient.builder(
                 new HttpHost(host, port, scheme)
-        ).build();
+        ).setCompressionEnabled(httpClientConfig.getOpenSearchGzip())
+                .setHttpClientConfigCallback(builder -> builder
+                        .setConnectionManager(connectionManager)
+                        .setKeepAliveStrategy((response, context) -> keepAliveMs))
+                .build();
 
         RestClientTransport transport = new RestClientTransport(
                 restClient,
@@ -46,4 +95,40 @@ public class OpenSearchConfig {
     public String getIndexName() {
         return indexName;
     }
+
+    public Integer getShards() {
+        return shards;
+    }
+
+    public Integer getReplicas() {
+        return replicas;
+    }
+
+    public String getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public String getAnalyzer() {
+        return analyzer;
+    }
+
+    public Integer getMappingVersion() {
+        return mappingVersion;
+    }
+
+    public Long getReindexPollMs() {
+        return reindexPollMs;
+    }
+
+    public Integer getBulkSize() {
+        return bulkSize;
+    }
+
+    public Integer getSnippetSize() {
+        return snippetSize;
+    }
+
+    public Integer getSnippetCount() {
+        return snippetCount;
+    }
 }
@@ -0,0 +1,19 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 프롬프트 토큰 예산 설정
+ */
+@Configuration
+@Getter
+public class PromptConfig {
+
+    @Value("${prompt.context-window:4096}")
+    private Integer contextWindow; // 생성 모델의 컨텍스트 길이 (토큰)
+
+    @Value("${prompt.min-passage-tokens:64}")
+    private Integer minPassageTokens; // 남은 예산이 이보다 적으면 발췌문을 잘라 넣지 않음
+}
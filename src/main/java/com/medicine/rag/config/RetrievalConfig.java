@@ -0,0 +1,43 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 하이브리드 검색 설정
+ */
+@Configuration
+@Getter
+public class RetrievalConfig {
+
+    @Value("${retrieval.vector-timeout-ms:10000}")
+    private Long vectorTimeoutMs; // 벡터 검색(임베딩 포함) 제한 시간
+
+    @Value("${retrieval.fulltext-timeout-ms:5000}")
+    private Long fullTextTimeoutMs; // 전문 검색 제한 시간
+
+    @Value("${retrieval.threads:16}")
+    private Integer threads;
+
+    @Value("${retrieval.rrf-k:60}")
+    private Integer rrfK; // RRF 순위 상수 (클수록 하위 순위 결과의 비중이 커짐)
+
+    @Value("${retrieval.context-max-tokens:2048}")
+    private Integer contextMaxTokens; // 프롬프트 컨텍스트에 넣을 발췌문의 최대 토큰 수
+
+    @Bean(name = "retrievalExecutor", destroyMethod = "shutdown")
+    public ExecutorService retrievalExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "retrieval-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
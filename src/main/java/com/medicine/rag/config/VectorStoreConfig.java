@@ -0,0 +1,40 @@
+package com.medicine.rag.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 벡터 저장소 설정
+ */
+@Configuration
+@Getter
+public class VectorStoreConfig {
+
+    @Value("${vector-store.type:chroma}")
+    private String type; // chroma 또는 local
+
+    @Value("${vector-store.batch-size:32}")
+    private Integer batchSize; // 임베딩 생성 및 저장 배치 크기
+
+    @Value("${vector-store.local.dir:vector-index}")
+    private String localDir; // file.upload-dir 하위 인덱스 디렉토리
+
+    @Value("${vector-store.local.m:16}")
+    private Integer m; // HNSW 노드당 최대 이웃 수
+
+    @Value("${vector-store.local.ef-construction:200}")
+    private Integer efConstruction;
+
+    @Value("${vector-store.local.ef-search:64}")
+    private Integer efSearch;
+
+    @Value("${vector-store.local.compact-deleted-ratio:0.3}")
+    private Double compactDeletedRatio; // 삭제된 노드 비율이 이 값 이상이면 인덱스 정리(재구성)
+
+    @Value("${vector-store.local.compact-min-deleted:1000}")
+    private Integer compactMinDeleted; // 인덱스 정리를 시작할 최소 삭제 노드 수
+
+    @Value("${vector-store.local.graph-snapshot-interval:10000}")
+    private Integer graphSnapshotInterval; // 이 개수만큼 노드가 추가될 때마다 그래프 스냅샷 저장
+}
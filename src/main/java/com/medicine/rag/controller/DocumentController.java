@@ -1,17 +1,42 @@
 package com.medicine.rag.controller;
 
-import com.medicine.rag.dto.DocumentUploadRequest;
+import com.medicine.rag.dto.DocumentSummary;
+import com.medicine.rag.dto.IngestionBatchResponse;
+import com.medicine.rag.dto.IngestionJobResponse;
 import com.medicine.rag.model.Document;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.service.BulkIngestionService;
 import com.medicine.rag.service.DocumentService;
+import com.medicine.rag.service.IngestionJobService;
+import com.medicine.rag.service.StoreReconciler;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 문서 관리 컨트롤러
@@ -23,33 +48,150 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class DocumentController {
 
+    // Tomcat sendfile 요청 속성
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final DocumentService documentService;
+    private final IngestionJobService ingestionJobService;
+    private final BulkIngestionService bulkIngestionService;
+    private final StoreReconciler storeReconciler;
 
     /**
      * 문서 업로드
+     * 파일 저장 후 즉시 작업 ID를 반환하며, 인덱싱은 백그라운드에서 진행됩니다.
      */
     @PostMapping("/upload")
-    public ResponseEntity<DocumentUploadRequest> uploadDocument(
+    public ResponseEntity<IngestionJobResponse> uploadDocument(
             @RequestParam("file") MultipartFile file) {
         try {
-            DocumentUploadRequest response = documentService.uploadDocument(file);
-            return ResponseEntity.ok(response);
+            IngestionJobResponse response = ingestionJobService.submit(file);
+            // 같은 내용의 문서를 재사용한 경우 이미 완료된 작업을 반환
+            HttpStatus status = response.getStatus() == IngestionJob.Status.COMPLETED
+                    ? HttpStatus.OK : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
         } catch (IOException e) {
             log.error("문서 업로드 실패", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         } catch (IllegalArgumentException e) {
             log.error("잘못된 파일", e);
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("문서 업로드 거부: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * 여러 문서 일괄 업로드
+     * 지원하지 않는 형식의 파일은 건너뛰며, 처리 상황은 일괄 작업 상태 조회로 확인합니다.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<IngestionBatchResponse> uploadDocuments(
+            @RequestParam("files") List<MultipartFile> files) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkIngestionService.submitFiles(files));
+        } catch (IOException e) {
+            log.error("일괄 업로드 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * ZIP 압축 파일 일괄 업로드
+     */
+    @PostMapping("/bulk/zip")
+    public ResponseEntity<IngestionBatchResponse> uploadArchive(
+            @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkIngestionService.submitZip(file));
+        } catch (IOException e) {
+            log.error("압축 파일 업로드 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("압축 파일 거부: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * 서버 디렉토리 일괄 가져오기 (ingestion.bulk.import-root 하위 경로만 허용)
+     */
+    @PostMapping("/bulk/directory")
+    public ResponseEntity<IngestionBatchResponse> importDirectory(
+            @RequestParam("path") String path) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkIngestionService.submitDirectory(path));
+        } catch (IOException e) {
+            log.error("디렉토리 가져오기 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("디렉토리 가져오기 거부: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("디렉토리 가져오기 거부: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    /**
+     * 일괄 수집 작업 상태 조회 (처리량 및 단계별 대기 상황 포함)
+     */
+    @GetMapping("/batches/{id}")
+    public ResponseEntity<IngestionBatchResponse> getBatch(@PathVariable Long id) {
+        return bulkIngestionService.getBatch(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 문서 갱신 (새 버전 업로드)
+     * 이전 버전과 내용이 같은 청크는 재사용하고, 바뀐 청크만 백그라운드에서 다시 임베딩합니다.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<IngestionJobResponse> updateDocument(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            return ingestionJobService.submitRevision(id, file)
+                    .map(response -> ResponseEntity.status(HttpStatus.ACCEPTED).body(response))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            log.error("문서 갱신 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (IllegalArgumentException e) {
+            log.error("잘못된 파일", e);
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("문서 갱신 거부: {}", e.getMessage());
+            // 대기열이 가득 찬 경우와 같은 문서의 갱신이 이미 진행 중인 경우를 구분
+            HttpStatus status = e.getCause() instanceof RejectedExecutionException
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status).build();
         }
     }
 
     /**
-     * 문서 목록 조회
+     * 문서 수집 작업 상태 조회
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<IngestionJobResponse> getJob(@PathVariable Long id) {
+        return ingestionJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 문서 목록 조회 (페이징)
      */
     @GetMapping
-    public ResponseEntity<List<Document>> getAllDocuments() {
-        List<Document> documents = documentService.getAllDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<Page<DocumentSummary>> getDocuments(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(documentService.getDocuments(pageable));
     }
 
     /**
@@ -62,6 +204,111 @@ public class DocumentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 문서 추출 텍스트 조회
+     * 클라이언트가 gzip을 받을 수 있으면 저장된 압축 파일을 해제하지 않고 그대로 전송합니다.
+     */
+    @GetMapping("/{id}/text")
+    public void getDocumentText(@PathVariable Long id,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            Optional<Path> compressed = documentService.getCompressedTextPath(id);
+            if (compressed.isPresent()) {
+                response.setContentType("text/plain;charset=UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                transferFile(request, response, compressed.get());
+                return;
+            }
+        }
+
+        Optional<String> text = documentService.getDocumentText(id);
+        if (text.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(text.get());
+    }
+
+    /**
+     * 원본 파일 다운로드/미리보기
+     * inline=true이면 브라우저에서 바로 열리도록 전송합니다.
+     */
+    @GetMapping("/{id}/file")
+    public void getDocumentFile(@PathVariable Long id,
+                                @RequestParam(defaultValue = "false") boolean inline,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        Optional<Document> documentOpt = documentService.getDocument(id);
+        if (documentOpt.isEmpty() || !Files.isRegularFile(Paths.get(documentOpt.get().getFilePath()))) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Document document = documentOpt.get();
+        ContentDisposition disposition = (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(document.getOriginalFileName(), StandardCharsets.UTF_8)
+                .build();
+        response.setContentType(contentTypeOf(document.getFileType()));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        transferFile(request, response, Paths.get(document.getFilePath()));
+    }
+
+    /**
+     * 파일 본문 전송
+     * 서블릿 컨테이너가 sendfile을 지원하면 커널에서 바로 전송하고,
+     * 아니면 FileChannel.transferTo로 사용자 영역 버퍼 복사 없이 전송합니다.
+     */
+    private void transferFile(HttpServletRequest request, HttpServletResponse response, Path path) throws IOException {
+        long size = Files.size(path);
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static String contentTypeOf(String fileType) {
+        if (fileType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        return switch (fileType.toLowerCase()) {
+            case "pdf" -> MediaType.APPLICATION_PDF_VALUE;
+            case "txt" -> "text/plain;charset=UTF-8";
+            case "doc" -> "application/msword";
+            case "docx" -> "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            case "hwp" -> "application/x-hwp";
+            default -> MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        };
+    }
+
+    /**
+     * 저장소 간 고아 데이터 즉시 정리 (주기 실행과 같은 작업)
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<Map<String, Integer>> reconcile() {
+        try {
+            return ResponseEntity.ok(storeReconciler.reconcile());
+        } catch (IOException e) {
+            log.error("고아 데이터 정리 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * 문서 삭제
      */
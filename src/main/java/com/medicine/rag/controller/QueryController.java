@@ -1,8 +1,12 @@
 package com.medicine.rag.controller;
 
+import com.medicine.rag.config.OllamaConfig;
+import com.medicine.rag.dto.QueryHistorySummary;
 import com.medicine.rag.dto.QueryRequest;
 import com.medicine.rag.dto.QueryResponse;
 import com.medicine.rag.model.QueryHistory;
+import com.medicine.rag.service.GenerationAdmission;
+import com.medicine.rag.service.GenerationRejectedException;
 import com.medicine.rag.service.QueryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,11 +14,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 질문-답변 컨트롤러
@@ -27,30 +38,109 @@ import java.io.IOException;
 public class QueryController {
 
     private final QueryService queryService;
+    private final GenerationAdmission generationAdmission;
+    private final OllamaConfig ollamaConfig;
+    private final ThreadPoolExecutor streamingExecutor;
 
     /**
      * 질문 처리
      */
     @PostMapping
-    public ResponseEntity<QueryResponse> processQuery(@Valid @RequestBody QueryRequest request) {
+    public ResponseEntity<?> processQuery(@Valid @RequestBody QueryRequest request) {
         try {
+            // 대기열이 가득 차 있으면 검색/임베딩을 수행하기 전에 거절
+            generationAdmission.checkCapacity();
             QueryResponse response = queryService.processQuery(request);
             return ResponseEntity.ok(response);
+        } catch (GenerationRejectedException e) {
+            return tooManyRequests(e).body(Map.of(
+                    "message", e.getMessage(),
+                    "retryAfterSeconds", e.getRetryAfterSeconds()));
         } catch (IOException e) {
             log.error("질문 처리 실패", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 질문 처리 (Server-Sent Events 스트리밍)
+     * token 이벤트로 답변 조각을, done 이벤트로 저장된 최종 응답을 전송합니다.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> processQueryStream(@Valid @RequestBody QueryRequest request) {
+        // 대기열이 가득 차 있으면 스트림을 열기 전에 거절 (이벤트 스트림 형식이므로 본문 없이 헤더만 전송)
+        try {
+            generationAdmission.checkCapacity();
+        } catch (GenerationRejectedException e) {
+            return tooManyRequests(e).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(ollamaConfig.getTimeout() * 1000L);
+
+        try {
+            streamingExecutor.execute(() -> stream(request, emitter));
+        } catch (RejectedExecutionException e) {
+            // 스트리밍 스레드와 대기 자리가 모두 차 있으면 생성 대기열 초과와 같이 429로 응답
+            return tooManyRequests(generationAdmission.overloaded("스트리밍 요청이 많아 대기열이 가득 찼습니다."))
+                    .build();
+        }
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 스트리밍 질문 처리 (스트리밍 스레드에서 실행)
+     */
+    private void stream(QueryRequest request, SseEmitter emitter) {
+        try {
+            QueryResponse response = queryService.processQueryStream(request, token -> {
+                try {
+                    emitter.send(SseEmitter.event().name("token").data(Map.of("token", token)));
+                } catch (IOException e) {
+                    // 클라이언트 연결이 끊어지면 생성을 중단합니다.
+                    throw new UncheckedIOException(e);
+                }
+            });
+            emitter.send(SseEmitter.event().name("done").data(response));
+            emitter.complete();
+        } catch (GenerationRejectedException e) {
+            try {
+                emitter.send(SseEmitter.event().name("error").data(Map.of(
+                        "message", e.getMessage(),
+                        "retryAfterSeconds", e.getRetryAfterSeconds())));
+                emitter.complete();
+            } catch (IOException | IllegalStateException sendError) {
+                emitter.completeWithError(e);
+            }
+        } catch (Exception e) {
+            log.error("스트리밍 질문 처리 실패", e);
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(Map.of("message", "답변 생성 중 오류가 발생했습니다.")));
+                emitter.complete();
+            } catch (IOException | IllegalStateException sendError) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * 답변 생성 대기열 초과 응답 (429, Retry-After)
+     */
+    private ResponseEntity.BodyBuilder tooManyRequests(GenerationRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
+
     /**
      * 질문 이력 조회
      */
     @GetMapping("/history")
-    public ResponseEntity<Page<QueryHistory>> getQueryHistory(
+    public ResponseEntity<Page<QueryHistorySummary>> getQueryHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<QueryHistory> history = queryService.getQueryHistory(pageable);
+        Page<QueryHistorySummary> history = queryService.getQueryHistory(pageable);
         return ResponseEntity.ok(history);
     }
 
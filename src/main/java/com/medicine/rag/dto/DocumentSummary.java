@@ -5,19 +5,21 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 /**
- * 문서 업로드 응답 DTO
+ * 문서 목록 항목 DTO (추출 텍스트 제외)
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class DocumentUploadRequest {
-    private Long documentId;
-    private String fileName;
+public class DocumentSummary {
+    private Long id;
+    private String originalFileName;
     private String fileType;
     private Long fileSize;
-    private String vectorId;
     private Integer chunkCount;
-    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,40 @@
+package com.medicine.rag.dto;
+
+import com.medicine.rag.model.IngestionBatch;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 일괄 문서 수집 작업 상태 응답 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionBatchResponse {
+    private Long batchId;
+    private IngestionBatch.SourceType sourceType;
+    private String source;
+    private Boolean scanCompleted;
+    private Boolean finished; // 모든 파일 처리 완료 여부
+    private Integer totalFiles;
+    private Integer skippedFiles;
+    private Long queuedFiles;
+    private Long runningFiles;
+    private Long completedFiles;
+    private Long failedFiles;
+    private Long duplicateFiles; // 같은 내용의 기존 문서를 재사용한 파일 수 (완료에 포함)
+    private Long processedChunks;
+    private Double elapsedSeconds;
+    private Double filesPerMinute; // 처리(완료+실패) 파일 기준 처리량
+    private Double chunksPerSecond;
+    private List<PipelineStageStatus> stages; // 파이프라인 전체의 현재 단계별 상태
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.medicine.rag.dto;
+
+import com.medicine.rag.model.IngestionJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 수집 작업 상태 응답 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionJobResponse {
+    private Long jobId;
+    private Long documentId;
+    private Long duplicateOfDocumentId; // 같은 내용의 기존 문서를 재사용한 경우 그 문서 ID
+    private Long batchId;
+    private String fileName;
+    private String fileType;
+    private Long fileSize;
+    private IngestionJob.Status status;
+    private IngestionJob.Stage stage;
+    private String stageDescription;
+    private Integer totalChunks;
+    private Integer processedChunks;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
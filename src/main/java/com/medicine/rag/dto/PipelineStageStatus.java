@@ -0,0 +1,25 @@
+package com.medicine.rag.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 수집 파이프라인 단계 상태 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStageStatus {
+    private String stage;
+    private Integer threads;
+    private Integer active; // 처리 중인 작업 수
+    private Integer queued; // 대기열에 있는 작업 수
+    private Integer capacity; // 대기열 크기
+    private Long processed;
+    private Long failed;
+    private Long blockedMs; // 대기열이 가득 차 앞 단계가 기다린 누적 시간 (역압)
+    private Boolean saturated; // 대기열이 가득 찼는지 여부
+}
@@ -0,0 +1,26 @@
+package com.medicine.rag.dto;
+
+import com.medicine.rag.model.QueryHistory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 질문 이력 목록 항목 DTO (답변과 검색 컨텍스트 제외)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryHistorySummary {
+    private Long id;
+    private String question;
+    private QueryHistory.PromptType promptType;
+    private Integer responseTime;
+    private Integer relevantDocuments;
+    private Boolean cacheHit;
+    private LocalDateTime createdAt;
+}
@@ -24,5 +24,8 @@ public class QueryResponse {
     private Integer responseTime;
     private Integer relevantDocuments;
     private List<String> sources;
+    private Integer promptTokens; // 프롬프트 추정 토큰 수
+    private Integer promptTokenBudget; // 프롬프트 방식별 토큰 예산
+    private Boolean cached; // 캐시된 답변 여부
     private LocalDateTime timestamp;
 }
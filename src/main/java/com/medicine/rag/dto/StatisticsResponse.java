@@ -22,6 +22,9 @@ public class StatisticsResponse {
     // 프롬프트 사용 통계
     private PromptUsageStats promptUsageStats;
 
+    // 캐시 통계
+    private CacheStats cacheStats;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -42,4 +45,19 @@ public class StatisticsResponse {
         private Map<String, Long> usageByPromptType;
         private Map<String, Double> avgResponseTimeByPromptType;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheStats {
+        private Long embeddingCacheHits;
+        private Long embeddingCacheMisses;
+        private Double embeddingCacheHitRate;
+        private Long embeddingCacheEntries;
+        private Long embeddingCacheBytes;
+        private Long answerCacheHits;
+        private Double answerCacheHitRate;
+        private Long answerCacheEntries;
+    }
 }
@@ -15,7 +15,12 @@ import java.time.LocalDateTime;
  * 업로드된 문서 정보 엔티티
  */
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_content_hash", columnList = "contentHash, embeddingModel"),
+        @Index(name = "idx_documents_file_path", columnList = "filePath"),
+        @Index(name = "idx_documents_vector_id", columnList = "vectorId"),
+        @Index(name = "idx_documents_search_index_id", columnList = "searchIndexId")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,14 +47,17 @@ public class Document {
     @Column(nullable = false)
     private String filePath;
 
-    @Column(columnDefinition = "TEXT")
-    private String extractedText;
+    @Column(length = 64)
+    private String contentHash; // 원본 파일 SHA-256 (내용 주소 저장소 키, 이전 방식으로 저장된 문서는 null)
+
+    @Column(length = 100)
+    private String embeddingModel; // 청크 임베딩에 사용한 모델 (이전 방식으로 저장된 문서는 null)
 
     @Column(nullable = false)
-    private String vectorId; // Chroma Vector DB ID
+    private String vectorId; // Chroma Vector DB ID (같은 내용의 문서끼리 공유할 수 있음)
 
     @Column(nullable = false)
-    private String searchIndexId; // OpenSearch Index ID
+    private String searchIndexId; // OpenSearch Index ID (vectorId와 함께 공유)
 
     @Column(nullable = false)
     private Integer chunkCount; // 문서 청크 개수
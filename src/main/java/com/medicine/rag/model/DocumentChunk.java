@@ -0,0 +1,47 @@
+package com.medicine.rag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 청크 지문 엔티티
+ * 문서 갱신 시 이전 버전과 청크 내용 해시를 비교하여 변경된 청크만 다시 임베딩하는 데 사용합니다.
+ */
+@Entity
+@Table(name = "document_chunks", indexes = {
+        @Index(name = "idx_document_chunks_vector_id", columnList = "vectorId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class DocumentChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String vectorId; // 소속 문서의 Vector DB ID
+
+    @Column(nullable = false)
+    private String chunkId; // Vector DB에 저장된 청크 ID
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint; // 청크 내용의 SHA-256 해시
+
+    @Column(nullable = false)
+    private Integer chunkIndex; // 최신 버전에서의 청크 순서
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.medicine.rag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 추출 텍스트 엔티티
+ * 목록/상세 조회 시 함께 읽히지 않도록 문서 정보와 분리합니다.
+ * 텍스트 본문은 파일 저장소에 gzip으로 압축해 두고 원문 해시만 기록합니다.
+ */
+@Entity
+@Table(name = "document_texts", indexes = {
+        @Index(name = "idx_document_texts_text_hash", columnList = "textHash")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class DocumentText {
+
+    @Id
+    private Long documentId; // 문서 ID (documents.id)
+
+    @Column(length = 64)
+    private String textHash; // 추출 텍스트 SHA-256 (파일 저장소 키)
+
+    @Lob
+    @Column(columnDefinition = "LONGBLOB")
+    private byte[] content; // 이전 방식: DB에 직접 저장한 gzip 압축 텍스트
+
+    @Column(nullable = false)
+    private Integer textLength; // 원문 문자 수
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
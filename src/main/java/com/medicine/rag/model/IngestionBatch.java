@@ -0,0 +1,63 @@
+package com.medicine.rag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 일괄 문서 수집 작업 엔티티
+ * 파일마다 수집 작업(IngestionJob)이 생성되며, batchId로 이 작업에 묶입니다.
+ */
+@Entity
+@Table(name = "ingestion_batches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class IngestionBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SourceType sourceType;
+
+    @Column(length = 1000)
+    private String source; // 압축 파일 이름 또는 서버 디렉토리 경로
+
+    @Column(nullable = false)
+    private Integer totalFiles; // 등록된 파일 수
+
+    @Column(nullable = false)
+    private Integer skippedFiles; // 지원하지 않는 형식이거나 크기 제한을 넘어 건너뛴 파일 수
+
+    @Column(nullable = false)
+    private Boolean scanCompleted; // 모든 파일 등록 완료 여부
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum SourceType {
+        FILES,
+        ZIP,
+        DIRECTORY
+    }
+}
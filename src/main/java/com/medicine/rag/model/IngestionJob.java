@@ -0,0 +1,112 @@
+package com.medicine.rag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 수집(인덱싱) 작업 엔티티
+ */
+@Entity
+@Table(name = "ingestion_jobs", indexes = {
+        @Index(name = "idx_ingestion_jobs_file_path", columnList = "filePath, status"),
+        @Index(name = "idx_ingestion_jobs_status", columnList = "status, createdAt"),
+        @Index(name = "idx_ingestion_jobs_batch_id", columnList = "batchId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class IngestionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String originalFileName;
+
+    @Column(nullable = false)
+    private String fileType;
+
+    @Column(nullable = false)
+    private Long fileSize;
+
+    @Column(nullable = false)
+    private String filePath;
+
+    @Column(length = 64)
+    private String contentHash; // 원본 파일 SHA-256
+
+    @Column(nullable = false)
+    private String vectorId; // 재시작 시에도 동일한 ID로 upsert
+
+    @Column(nullable = false)
+    private String searchIndexId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Enumerated(EnumType.STRING)
+    private Stage stage;
+
+    private Integer totalChunks;
+
+    private Integer processedChunks; // 처리(임베딩 또는 기존 청크 재사용) 완료된 청크 수
+
+    private Long documentId; // 갱신 대상 문서 ID 또는 완료 시 생성된 문서 ID
+
+    private Integer legacyChunkCount; // 지문 기록 없이 저장된 갱신 대상 문서의 순번 청크 수 (작업 생성 시 결정, 해당 없으면 0)
+
+    private Long duplicateOfDocumentId; // 같은 내용의 기존 문서를 재사용한 경우 그 문서 ID
+
+    private Long batchId; // 일괄 수집으로 등록된 경우 일괄 작업 ID
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public enum Stage {
+        PARSING("텍스트 추출"),
+        CHUNKING("청크 분할"),
+        EMBEDDING("임베딩 및 벡터 저장"),
+        INDEXING("전문 검색 인덱싱"),
+        SAVING("문서 정보 저장");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
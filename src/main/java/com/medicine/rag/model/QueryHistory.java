@@ -45,6 +45,12 @@ public class QueryHistory {
     @Column(nullable = false)
     private Integer relevantDocuments; // 관련 문서 수
 
+    private Integer vectorSearchTime; // 벡터 검색 시간 (ms)
+
+    private Integer fullTextSearchTime; // 전문 검색 시간 (ms)
+
+    private Boolean cacheHit; // 캐시된 답변 사용 여부
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
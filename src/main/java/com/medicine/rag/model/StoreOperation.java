@@ -0,0 +1,83 @@
+package com.medicine.rag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * 외부 저장소에 반영할 작업 (아웃박스)
+ * 문서 정보 변경과 같은 트랜잭션에서 기록되고, 커밋 후 별도로 반영됩니다.
+ * 모든 작업은 여러 번 실행해도 결과가 같으며, 반영이 끝나면 삭제됩니다.
+ */
+@Entity
+@Table(name = "store_operations", indexes = {
+        @Index(name = "idx_store_operations_due", columnList = "status, nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class StoreOperation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(nullable = false, length = 1000)
+    private String targetId; // vectorId, searchIndexId, 파일 경로 또는 텍스트 해시
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Type {
+        DELETE_VECTORS("벡터 저장소 청크 삭제"),
+        DELETE_SEARCH_DOCUMENT("OpenSearch 문서 삭제"),
+        RELEASE_FILE("원본 파일 정리"),
+        RELEASE_TEXT("추출 텍스트 정리");
+
+        private final String description;
+
+        Type(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        FAILED // 최대 재시도 횟수 초과 (확인 필요)
+    }
+}
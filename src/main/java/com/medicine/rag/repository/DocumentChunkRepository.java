@@ -0,0 +1,35 @@
+package com.medicine.rag.repository;
+
+import com.medicine.rag.model.DocumentChunk;
+import com.medicine.rag.model.IngestionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 문서 청크 지문 리포지토리
+ */
+@Repository
+public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, Long> {
+
+    List<DocumentChunk> findByVectorId(String vectorId);
+
+    boolean existsByVectorId(String vectorId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DocumentChunk c WHERE c.vectorId = :vectorId")
+    void deleteByVectorId(String vectorId);
+
+    // 문서도 진행 중인 작업도 없는 청크 지문의 vectorId
+    @Query("SELECT DISTINCT c.vectorId FROM DocumentChunk c "
+            + "WHERE NOT EXISTS (SELECT d.id FROM Document d WHERE d.vectorId = c.vectorId) "
+            + "AND NOT EXISTS (SELECT j.id FROM IngestionJob j WHERE j.vectorId = c.vectorId AND j.status IN :statuses)")
+    List<String> findOrphanVectorIds(Collection<IngestionJob.Status> statuses, Pageable pageable);
+}
@@ -1,10 +1,16 @@
 package com.medicine.rag.repository;
 
+import com.medicine.rag.dto.DocumentSummary;
 import com.medicine.rag.model.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +20,29 @@ import java.util.Optional;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
-    Optional<Document> findByVectorId(String vectorId);
+    Optional<Document> findFirstByVectorIdOrderByIdAsc(String vectorId);
+
+    Optional<Document> findFirstByContentHashAndEmbeddingModelOrderByIdAsc(String contentHash, String embeddingModel);
+
+    long countByVectorId(String vectorId);
+
+    boolean existsBySearchIndexId(String searchIndexId);
+
+    @Query("SELECT DISTINCT d.vectorId FROM Document d WHERE d.vectorId IN :vectorIds")
+    List<String> findVectorIdsIn(Collection<String> vectorIds);
+
+    @Query("SELECT DISTINCT d.searchIndexId FROM Document d WHERE d.searchIndexId IN :searchIndexIds")
+    List<String> findSearchIndexIdsIn(Collection<String> searchIndexIds);
+
+    boolean existsByFilePath(String filePath);
 
     List<Document> findByFileTypeOrderByCreatedAtDesc(String fileType);
 
+    @Query(value = "SELECT new com.medicine.rag.dto.DocumentSummary(d.id, d.originalFileName, d.fileType, "
+            + "d.fileSize, d.chunkCount, d.createdAt, d.updatedAt) FROM Document d ORDER BY d.createdAt DESC, d.id DESC",
+            countQuery = "SELECT COUNT(d) FROM Document d")
+    Page<DocumentSummary> findSummaries(Pageable pageable);
+
     @Query("SELECT COUNT(d) FROM Document d")
     Long countTotalDocuments();
 
@@ -26,4 +51,20 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
 
     @Query("SELECT d.fileType, COUNT(d) FROM Document d GROUP BY d.fileType")
     List<Object[]> countByFileType();
+
+    // 이전 스키마의 documents.extracted_text 컬럼 이전용
+    @Query(value = "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() "
+            + "AND table_name = 'documents' AND column_name = 'extracted_text'", nativeQuery = true)
+    Long countLegacyTextColumn();
+
+    @Query(value = "SELECT id FROM documents WHERE extracted_text IS NOT NULL", nativeQuery = true)
+    List<Long> findIdsWithLegacyText();
+
+    @Query(value = "SELECT extracted_text FROM documents WHERE id = :id", nativeQuery = true)
+    String findLegacyText(Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE documents SET extracted_text = NULL WHERE id = :id", nativeQuery = true)
+    void clearLegacyText(Long id);
 }
@@ -0,0 +1,14 @@
+package com.medicine.rag.repository;
+
+import com.medicine.rag.model.DocumentText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 문서 추출 텍스트 리포지토리
+ */
+@Repository
+public interface DocumentTextRepository extends JpaRepository<DocumentText, Long> {
+
+    boolean existsByTextHash(String textHash);
+}
@@ -0,0 +1,16 @@
+package com.medicine.rag.repository;
+
+import com.medicine.rag.model.IngestionBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 일괄 문서 수집 작업 리포지토리
+ */
+@Repository
+public interface IngestionBatchRepository extends JpaRepository<IngestionBatch, Long> {
+
+    List<IngestionBatch> findByScanCompletedFalse();
+}
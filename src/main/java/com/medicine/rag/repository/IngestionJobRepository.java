@@ -0,0 +1,40 @@
+package com.medicine.rag.repository;
+
+import com.medicine.rag.model.IngestionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 문서 수집 작업 리포지토리
+ */
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+    List<IngestionJob> findByStatusInOrderByCreatedAtAsc(Collection<IngestionJob.Status> statuses);
+
+    boolean existsByDocumentIdAndStatusIn(Long documentId, Collection<IngestionJob.Status> statuses);
+
+    boolean existsByFilePathAndStatusIn(String filePath, Collection<IngestionJob.Status> statuses);
+
+    boolean existsByVectorIdAndStatusIn(String vectorId, Collection<IngestionJob.Status> statuses);
+
+    boolean existsBySearchIndexIdAndStatusIn(String searchIndexId, Collection<IngestionJob.Status> statuses);
+
+    @Query("SELECT DISTINCT j.vectorId FROM IngestionJob j WHERE j.vectorId IN :vectorIds AND j.status IN :statuses")
+    List<String> findVectorIdsIn(Collection<String> vectorIds, Collection<IngestionJob.Status> statuses);
+
+    @Query("SELECT DISTINCT j.searchIndexId FROM IngestionJob j "
+            + "WHERE j.searchIndexId IN :searchIndexIds AND j.status IN :statuses")
+    List<String> findSearchIndexIdsIn(Collection<String> searchIndexIds, Collection<IngestionJob.Status> statuses);
+
+    // 일괄 작업의 상태별 파일 수, 처리한 청크 수(재사용 문서 제외), 재사용 문서 수, 마지막 갱신 시각
+    @Query("SELECT j.status, COUNT(j), "
+            + "SUM(CASE WHEN j.duplicateOfDocumentId IS NULL THEN COALESCE(j.processedChunks, 0) ELSE 0 END), "
+            + "SUM(CASE WHEN j.duplicateOfDocumentId IS NOT NULL THEN 1 ELSE 0 END), MAX(j.updatedAt) "
+            + "FROM IngestionJob j WHERE j.batchId = :batchId GROUP BY j.status")
+    List<Object[]> summarizeBatch(Long batchId);
+}
@@ -1,5 +1,6 @@
 package com.medicine.rag.repository;
 
+import com.medicine.rag.dto.QueryHistorySummary;
 import com.medicine.rag.model.QueryHistory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +19,12 @@ public interface QueryHistoryRepository extends JpaRepository<QueryHistory, Long
 
     Page<QueryHistory> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
+    @Query(value = "SELECT new com.medicine.rag.dto.QueryHistorySummary(q.id, q.question, q.promptType, "
+            + "q.responseTime, q.relevantDocuments, q.cacheHit, q.createdAt) FROM QueryHistory q "
+            + "ORDER BY q.createdAt DESC, q.id DESC",
+            countQuery = "SELECT COUNT(q) FROM QueryHistory q")
+    Page<QueryHistorySummary> findSummaries(Pageable pageable);
+
     List<QueryHistory> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
     @Query("SELECT q.promptType, COUNT(q) FROM QueryHistory q GROUP BY q.promptType")
@@ -28,4 +35,7 @@ public interface QueryHistoryRepository extends JpaRepository<QueryHistory, Long
 
     @Query("SELECT COUNT(q) FROM QueryHistory q")
     Long countTotalQueries();
+
+    @Query("SELECT COUNT(q) FROM QueryHistory q WHERE q.cacheHit = true")
+    Long countCacheHits();
 }
@@ -0,0 +1,23 @@
+package com.medicine.rag.repository;
+
+import com.medicine.rag.model.StoreOperation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 외부 저장소 반영 작업 리포지토리
+ */
+@Repository
+public interface StoreOperationRepository extends JpaRepository<StoreOperation, Long> {
+
+    List<StoreOperation> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            StoreOperation.Status status, LocalDateTime now, Pageable pageable);
+
+    boolean existsByTypeAndTargetIdAndStatus(StoreOperation.Type type, String targetId, StoreOperation.Status status);
+
+    long countByStatus(StoreOperation.Status status);
+}
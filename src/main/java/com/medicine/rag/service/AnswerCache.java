@@ -0,0 +1,139 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.AnswerCacheConfig;
+import com.medicine.rag.model.QueryHistory.PromptType;
+import com.medicine.rag.util.VectorMath;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 의미 기반 답변 캐시
+ * 질문 임베딩의 코사인 유사도가 임계값 이상이고 프롬프트 방식이 같은 이전 답변을 재사용합니다.
+ * 답변 생성에 사용된 문서가 삭제되거나 교체되면 해당 답변은 무효화됩니다.
+ * 검색 시작 후 답변을 저장하기 전에 무효화가 있었으면, 이전 내용으로 만든 답변일 수 있으므로 저장하지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerCache {
+
+    private final AnswerCacheConfig answerCacheConfig;
+
+    // 오래된 항목이 앞에 위치
+    private final LinkedList<CachedAnswer> entries = new LinkedList<>();
+    private long epoch = 0; // 무효화할 때마다 증가 (entries 잠금으로 보호)
+
+    /**
+     * 유사한 질문의 캐시된 답변 조회
+     */
+    public Optional<CachedAnswer> lookup(PromptType promptType, float[] questionEmbedding) {
+        if (!answerCacheConfig.getEnabled()) {
+            return Optional.empty();
+        }
+
+        float[] normalized = VectorMath.normalize(questionEmbedding);
+        CachedAnswer best = null;
+        double bestSimilarity = answerCacheConfig.getSimilarityThreshold();
+
+        synchronized (entries) {
+            for (CachedAnswer entry : entries) {
+                if (entry.promptType() != promptType || entry.embedding().length != normalized.length) {
+                    continue;
+                }
+                double similarity = VectorMath.dot(entry.embedding(), normalized);
+                if (similarity >= bestSimilarity) {
+                    best = entry;
+                    bestSimilarity = similarity;
+                }
+            }
+
+            if (best != null) {
+                // 최근 사용 항목으로 이동
+                entries.remove(best);
+                entries.addLast(best);
+            }
+        }
+
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * 현재 무효화 세대 (검색 시작 전에 기록해 두었다가 {@link #put}에 전달)
+     */
+    public long currentEpoch() {
+        synchronized (entries) {
+            return epoch;
+        }
+    }
+
+    /**
+     * 답변 저장 (검색 시작 후 무효화가 있었으면 저장하지 않음)
+     *
+     * @param documentKeys 답변 컨텍스트에 사용된 문서 식별자 (vectorId, searchIndexId)
+     * @param startEpoch   검색 시작 전에 기록한 {@link #currentEpoch()}
+     */
+    public void put(PromptType promptType, float[] questionEmbedding, String answer, String context,
+                    List<String> sources, int relevantDocuments, Set<String> documentKeys, long startEpoch) {
+        if (!answerCacheConfig.getEnabled()) {
+            return;
+        }
+
+        CachedAnswer entry = new CachedAnswer(promptType, VectorMath.normalize(questionEmbedding), answer, context,
+                List.copyOf(sources), relevantDocuments, Set.copyOf(documentKeys));
+
+        synchronized (entries) {
+            if (epoch != startEpoch) {
+                log.debug("답변 생성 중 문서가 변경되어 캐시에 저장하지 않습니다.");
+                return;
+            }
+            entries.addLast(entry);
+            while (entries.size() > answerCacheConfig.getMaxEntries()) {
+                entries.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * 문서가 삭제되거나 교체될 때 해당 문서를 참조한 답변 무효화
+     * 진행 중인 질문이 이전 내용으로 답변을 만들고 있을 수 있으므로 무효화 세대도 올립니다.
+     */
+    public void invalidateDocument(String... documentKeys) {
+        List<String> keys = Arrays.asList(documentKeys);
+        int removed = 0;
+
+        synchronized (entries) {
+            epoch++;
+            Iterator<CachedAnswer> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                CachedAnswer entry = iterator.next();
+                if (keys.stream().anyMatch(entry.documentKeys()::contains)) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+
+        if (removed > 0) {
+            log.info("문서 변경으로 캐시된 답변 {}건 무효화", removed);
+        }
+    }
+
+    /**
+     * 캐시된 답변 수
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 캐시된 답변
+     */
+    public record CachedAnswer(PromptType promptType, float[] embedding, String answer, String context,
+                               List<String> sources, int relevantDocuments, Set<String> documentKeys) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.FileStorageConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 내용 주소 기반 파일 저장소
+ * 원본 파일과 추출 텍스트를 내용의 SHA-256 해시로 저장하므로 같은 내용은 한 번만 저장됩니다.
+ * 경로는 {blob-dir}/{해시 앞 2자}/{다음 2자}/{해시}이며, 추출 텍스트는 gzip으로 압축해 .txt.gz로 저장합니다.
+ * 여러 문서가 같은 파일을 가리킬 수 있으므로 삭제 전 참조 여부는 호출하는 쪽에서 확인해야 합니다.
+ * 원본 파일은 해시별 잠금 안에서 저장과 참조 등록, 참조 확인과 삭제를 하므로,
+ * 이미 있는 파일을 재사용하기로 한 직후 다른 스레드가 참조가 없다고 보고 삭제하는 일이 없습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlobStore {
+
+    private static final String TEXT_SUFFIX = ".txt.gz";
+    private static final int LOCK_STRIPES = 64; // 원본 파일 해시별 잠금 수
+
+    private final FileStorageConfig fileStorageConfig;
+
+    private Path root;
+    private Path stagingDir;
+    private final ReentrantLock[] originalLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @PostConstruct
+    public void init() {
+        try {
+            root = Paths.get(fileStorageConfig.getBlobDir()).toAbsolutePath().normalize();
+            stagingDir = root.resolve("tmp");
+            Files.createDirectories(stagingDir);
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                originalLocks[i] = new ReentrantLock();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("파일 저장소 디렉토리를 생성할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 원본 파일 저장 (같은 내용이 이미 있으면 기존 파일 사용)
+     * 파일을 최종 경로에 둔 뒤 같은 해시 잠금 안에서 registration으로 참조(수집 작업 등)를 저장합니다.
+     */
+    public <T> T storeOriginal(InputStream in, Registration<T> registration) throws IOException {
+        Path temp = Files.createTempFile(stagingDir, "upload_", ".part");
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream digesting = new DigestInputStream(in, digest);
+             OutputStream out = Files.newOutputStream(temp)) {
+            size = digesting.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Path target = originalPath(hash);
+        ReentrantLock lock = lockOf(target);
+        lock.lock();
+        try {
+            boolean existed = commit(temp, target);
+            return registration.register(new StoredBlob(hash, target, size, existed));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 참조가 없으면 원본 파일 삭제 (참조 확인과 삭제는 저장과 같은 해시 잠금 안에서 수행)
+     * @return 삭제 여부
+     */
+    public boolean deleteOriginal(Path path, BooleanSupplier referenced) throws IOException {
+        ReentrantLock lock = lockOf(path);
+        lock.lock();
+        try {
+            if (referenced.getAsBoolean()) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * UTF-8 텍스트 파일을 압축 저장하고 원문 해시 반환 (파일 내용을 메모리에 올리지 않음)
+     */
+    public String storeText(Path textFile) throws IOException {
+        try (InputStream in = Files.newInputStream(textFile)) {
+            return storeText(in);
+        }
+    }
+
+    /**
+     * 텍스트를 압축 저장하고 원문 해시 반환
+     */
+    public String storeText(String text) throws IOException {
+        return storeText(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String storeText(InputStream in) throws IOException {
+        Path temp = Files.createTempFile(stagingDir, "text_", ".part");
+        MessageDigest digest = sha256();
+        try (InputStream digesting = new DigestInputStream(in, digest);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 8192)) {
+            digesting.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        commit(temp, textPath(hash));
+        return hash;
+    }
+
+    /**
+     * 압축 저장된 텍스트 읽기
+     */
+    public String readText(String hash) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(textPath(hash)), 8192)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public Path originalPath(String hash) {
+        return directoryOf(hash).resolve(hash);
+    }
+
+    /**
+     * 압축된 텍스트 파일 경로 (gzip 그대로 전송할 때 사용)
+     */
+    public Path textPath(String hash) {
+        return directoryOf(hash).resolve(hash + TEXT_SUFFIX);
+    }
+
+    public void deleteText(String hash) throws IOException {
+        Files.deleteIfExists(textPath(hash));
+    }
+
+    private ReentrantLock lockOf(Path path) {
+        return originalLocks[Math.floorMod(path.getFileName().toString().hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path directoryOf(String hash) {
+        if (!hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("잘못된 파일 해시입니다: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+    }
+
+    /**
+     * 임시 파일을 최종 경로로 이동 (이미 있으면 임시 파일 삭제 후 true)
+     */
+    private boolean commit(Path temp, Path target) throws IOException {
+        if (Files.exists(target)) {
+            Files.deleteIfExists(temp);
+            return true;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temp);
+            return true;
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 저장된 원본 파일 정보
+     * @param existed 같은 내용의 파일이 이미 저장되어 있었는지 여부
+     */
+    public record StoredBlob(String hash, Path path, long size, boolean existed) {
+    }
+
+    /**
+     * 저장된 원본 파일의 참조 등록 (원본 파일 잠금 안에서 호출)
+     */
+    @FunctionalInterface
+    public interface Registration<T> {
+        T register(StoredBlob blob) throws IOException;
+    }
+}
@@ -0,0 +1,405 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.IngestionConfig;
+import com.medicine.rag.dto.IngestionBatchResponse;
+import com.medicine.rag.model.IngestionBatch;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.repository.IngestionBatchRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 일괄 문서 수집 서비스
+ * 여러 파일, ZIP 압축 파일, 서버 디렉토리의 문서를 한 번에 등록하고 수집 파이프라인으로 처리합니다.
+ * 업로드된 파일은 요청 안에서 저장하고, 파이프라인에 넣는 일은 별도 스레드가 맡습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIngestionService {
+
+    private final DocumentService documentService;
+    private final IngestionPipeline ingestionPipeline;
+    private final IngestionBatchRepository ingestionBatchRepository;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final IngestionConfig ingestionConfig;
+    private final ExecutorService bulkImportExecutor;
+
+    /**
+     * 여러 파일 일괄 업로드
+     */
+    public IngestionBatchResponse submitFiles(List<MultipartFile> files) throws IOException {
+        IngestionBatch batch = createBatch(IngestionBatch.SourceType.FILES, files.size() + "개 파일");
+        List<IngestionJob> jobs = new ArrayList<>();
+        for (MultipartFile file : files) {
+            String fileName = file.getOriginalFilename();
+            if (file.isEmpty() || fileName == null || !documentService.isSupportedFileType(fileName)) {
+                batch.setSkippedFiles(batch.getSkippedFiles() + 1);
+                continue;
+            }
+            jobs.add(documentService.storeBatchFile(fileName, file, batch.getId()));
+        }
+        return startBatch(batch, jobs);
+    }
+
+    /**
+     * ZIP 압축 파일 일괄 업로드 (지원하는 형식의 파일만 등록)
+     * 항목 수나 압축을 푼 전체 크기가 제한을 넘으면 일괄 작업을 중단하고, 그때까지 등록한 작업도 처리하지 않습니다.
+     */
+    public IngestionBatchResponse submitZip(MultipartFile archive) throws IOException {
+        IngestionBatch batch = createBatch(IngestionBatch.SourceType.ZIP, archive.getOriginalFilename());
+        List<IngestionJob> jobs = new ArrayList<>();
+        try (ZipInputStream zip = new LimitedZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                // 경로는 버리고 파일 이름만 사용 (저장 위치는 내용 해시로 정해짐)
+                String fileName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                if (fileName.startsWith(".") || !documentService.isSupportedFileType(fileName)) {
+                    batch.setSkippedFiles(batch.getSkippedFiles() + 1);
+                    continue;
+                }
+                try {
+                    jobs.add(documentService.storeBatchFile(fileName, () -> new EntryInputStream(zip),
+                            batch.getId()));
+                } catch (EntryTooLargeException e) {
+                    log.warn("크기 제한을 넘는 압축 파일 항목을 건너뜁니다: {}", entry.getName());
+                    batch.setSkippedFiles(batch.getSkippedFiles() + 1);
+                }
+            }
+        } catch (ArchiveLimitExceededException e) {
+            abortBatch(batch, jobs, e.getMessage());
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return startBatch(batch, jobs);
+    }
+
+    /**
+     * 서버 디렉토리 일괄 가져오기 (하위 디렉토리 포함)
+     * 파일 저장과 파이프라인 등록을 백그라운드에서 진행하므로 바로 일괄 작업 ID를 반환합니다.
+     * 가져오기 경로 밖을 읽지 않도록 심볼릭 링크는 디렉토리와 파일 모두 따라가지 않습니다.
+     */
+    public IngestionBatchResponse submitDirectory(String directory) throws IOException {
+        String importRoot = ingestionConfig.getBulkImportRoot();
+        if (importRoot == null || importRoot.isBlank()) {
+            throw new IllegalStateException("서버 디렉토리 가져오기가 설정되지 않았습니다.");
+        }
+        Path root = Paths.get(importRoot).toRealPath();
+        Path target = root.resolve(directory).normalize();
+        if (!Files.isDirectory(target) || !target.toRealPath().startsWith(root)) {
+            throw new IllegalArgumentException("가져올 수 없는 디렉토리입니다: " + directory);
+        }
+        Path realTarget = target.toRealPath();
+
+        IngestionBatch batch = createBatch(IngestionBatch.SourceType.DIRECTORY, realTarget.toString());
+        bulkImportExecutor.execute(() -> importDirectory(batch, realTarget));
+        return toResponse(batch);
+    }
+
+    /**
+     * 일괄 작업 상태 조회
+     */
+    public Optional<IngestionBatchResponse> getBatch(Long id) {
+        return ingestionBatchRepository.findById(id).map(this::toResponse);
+    }
+
+    /**
+     * 재시작으로 중단된 디렉토리 가져오기 정리
+     * 이미 등록된 파일의 작업은 수집 작업 서비스가 재개합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void closeInterruptedScans() {
+        for (IngestionBatch batch : ingestionBatchRepository.findByScanCompletedFalse()) {
+            batch.setScanCompleted(true);
+            batch.setErrorMessage("애플리케이션 재시작으로 파일 등록이 중단되었습니다.");
+            ingestionBatchRepository.save(batch);
+            log.warn("중단된 일괄 수집 작업: {} (등록된 파일: {}개)", batch.getId(), batch.getTotalFiles());
+        }
+    }
+
+    private IngestionBatch createBatch(IngestionBatch.SourceType sourceType, String source) {
+        return ingestionBatchRepository.save(IngestionBatch.builder()
+                .sourceType(sourceType)
+                .source(source)
+                .totalFiles(0)
+                .skippedFiles(0)
+                .scanCompleted(false)
+                .build());
+    }
+
+    /**
+     * 등록 중 중단된 일괄 작업 정리 (등록한 작업은 실패 처리하고 원본 파일 해제)
+     */
+    private void abortBatch(IngestionBatch batch, List<IngestionJob> jobs, String reason) throws IOException {
+        for (IngestionJob job : jobs) {
+            if (job.getStatus() == IngestionJob.Status.QUEUED) {
+                job.setStatus(IngestionJob.Status.FAILED);
+                job.setErrorMessage(reason);
+                ingestionJobRepository.save(job);
+                documentService.releaseFile(job.getFilePath());
+            }
+        }
+        batch.setTotalFiles(jobs.size());
+        batch.setScanCompleted(true);
+        batch.setErrorMessage(reason);
+        ingestionBatchRepository.save(batch);
+        log.warn("일괄 수집 작업 중단: {} ({}, 등록 취소: {}개)", batch.getId(), reason, jobs.size());
+    }
+
+    /**
+     * 등록이 끝난 일괄 작업의 파일들을 백그라운드에서 파이프라인에 넣음
+     */
+    private IngestionBatchResponse startBatch(IngestionBatch batch, List<IngestionJob> jobs) {
+        batch.setTotalFiles(jobs.size());
+        batch.setScanCompleted(true);
+        IngestionBatch saved = ingestionBatchRepository.save(batch);
+
+        List<IngestionJob> pending = jobs.stream()
+                .filter(job -> job.getStatus() == IngestionJob.Status.QUEUED)
+                .toList();
+        bulkImportExecutor.execute(() -> {
+            for (IngestionJob job : pending) {
+                if (!feed(job)) {
+                    return;
+                }
+            }
+        });
+        log.info("일괄 수집 작업 등록: {} (파일: {}개, 건너뜀: {}개)",
+                saved.getId(), saved.getTotalFiles(), saved.getSkippedFiles());
+        return toResponse(saved);
+    }
+
+    private void importDirectory(IngestionBatch batch, Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            Iterator<Path> iterator = paths
+                    .filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS))
+                    .iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                String fileName = path.getFileName().toString();
+                if (fileName.startsWith(".") || !documentService.isSupportedFileType(fileName)
+                        || Files.size(path) > ingestionConfig.getBulkMaxEntryBytes()) {
+                    batch.setSkippedFiles(batch.getSkippedFiles() + 1);
+                    continue;
+                }
+
+                IngestionJob job;
+                try {
+                    // 확인 후 심볼릭 링크로 바뀐 파일은 열지 않음
+                    job = documentService.storeBatchFile(fileName,
+                            () -> Files.newInputStream(path, LinkOption.NOFOLLOW_LINKS), batch.getId());
+                } catch (IOException e) {
+                    log.warn("파일을 가져올 수 없어 건너뜁니다: {} ({})", path, e.getMessage());
+                    batch.setSkippedFiles(batch.getSkippedFiles() + 1);
+                    continue;
+                }
+                batch.setTotalFiles(batch.getTotalFiles() + 1);
+                ingestionBatchRepository.save(batch);
+                if (job.getStatus() == IngestionJob.Status.QUEUED && !feed(job)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("디렉토리 가져오기 실패 (일괄 작업 ID: {})", batch.getId(), e);
+            batch.setErrorMessage(e.getMessage());
+        }
+        batch.setScanCompleted(true);
+        ingestionBatchRepository.save(batch);
+        log.info("디렉토리 가져오기 등록 완료: {} (파일: {}개, 건너뜀: {}개)",
+                directory, batch.getTotalFiles(), batch.getSkippedFiles());
+    }
+
+    /**
+     * 작업을 파이프라인에 넣음 (종료 중이면 false, 남은 작업은 재시작 시 재개)
+     */
+    private boolean feed(IngestionJob job) {
+        try {
+            ingestionPipeline.submit(job);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 일괄 작업 상태와 처리량 계산
+     */
+    private IngestionBatchResponse toResponse(IngestionBatch batch) {
+        long queued = 0;
+        long running = 0;
+        long completed = 0;
+        long failed = 0;
+        long duplicates = 0;
+        long chunks = 0;
+        LocalDateTime lastUpdate = batch.getCreatedAt();
+        for (Object[] row : ingestionJobRepository.summarizeBatch(batch.getId())) {
+            IngestionJob.Status status = (IngestionJob.Status) row[0];
+            long count = ((Number) row[1]).longValue();
+            switch (status) {
+                case QUEUED -> queued = count;
+                case RUNNING -> running = count;
+                case COMPLETED -> completed = count;
+                case FAILED -> failed = count;
+            }
+            chunks += row[2] != null ? ((Number) row[2]).longValue() : 0;
+            duplicates += row[3] != null ? ((Number) row[3]).longValue() : 0;
+            LocalDateTime updatedAt = (LocalDateTime) row[4];
+            if (updatedAt != null && (lastUpdate == null || updatedAt.isAfter(lastUpdate))) {
+                lastUpdate = updatedAt;
+            }
+        }
+
+        boolean finished = batch.getScanCompleted() && queued == 0 && running == 0;
+        LocalDateTime end = finished && lastUpdate != null ? lastUpdate : LocalDateTime.now();
+        double elapsedSeconds = batch.getCreatedAt() != null
+                ? Math.max(Duration.between(batch.getCreatedAt(), end).toMillis(), 1) / 1000.0
+                : 0;
+        long processedFiles = completed + failed;
+
+        return IngestionBatchResponse.builder()
+                .batchId(batch.getId())
+                .sourceType(batch.getSourceType())
+                .source(batch.getSource())
+                .scanCompleted(batch.getScanCompleted())
+                .finished(finished)
+                .totalFiles(batch.getTotalFiles())
+                .skippedFiles(batch.getSkippedFiles())
+                .queuedFiles(queued)
+                .runningFiles(running)
+                .completedFiles(completed)
+                .failedFiles(failed)
+                .duplicateFiles(duplicates)
+                .processedChunks(chunks)
+                .elapsedSeconds(elapsedSeconds)
+                .filesPerMinute(elapsedSeconds > 0 ? processedFiles * 60 / elapsedSeconds : 0)
+                .chunksPerSecond(elapsedSeconds > 0 ? chunks / elapsedSeconds : 0)
+                .stages(ingestionPipeline.getStatus())
+                .errorMessage(batch.getErrorMessage())
+                .createdAt(batch.getCreatedAt())
+                .updatedAt(batch.getUpdatedAt())
+                .build();
+    }
+
+    private static class EntryTooLargeException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        EntryTooLargeException() {
+            super("압축 파일 항목이 크기 제한을 넘습니다.");
+        }
+    }
+
+    private static class ArchiveLimitExceededException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        ArchiveLimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 항목 수와 압축을 푼 전체 크기를 제한하는 ZIP 스트림
+     * 건너뛰는 항목도 다음 항목으로 넘어갈 때 read()로 압축을 풀며 읽으므로 전체 크기에 포함됩니다.
+     */
+    private class LimitedZipInputStream extends ZipInputStream {
+
+        private int entries;
+        private long totalBytes;
+
+        LimitedZipInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public ZipEntry getNextEntry() throws IOException {
+            ZipEntry entry = super.getNextEntry();
+            if (entry != null && ++entries > ingestionConfig.getBulkMaxEntries()) {
+                throw new ArchiveLimitExceededException(
+                        "압축 파일 항목 수가 제한(" + ingestionConfig.getBulkMaxEntries() + "개)을 넘습니다.");
+            }
+            return entry;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                totalBytes += read;
+                if (totalBytes > ingestionConfig.getBulkMaxTotalBytes()) {
+                    throw new ArchiveLimitExceededException(
+                            "압축 파일을 푼 전체 크기가 제한(" + ingestionConfig.getBulkMaxTotalBytes() + "바이트)을 넘습니다.");
+                }
+            }
+            return read;
+        }
+    }
+
+    /**
+     * 현재 ZIP 항목만 읽는 스트림 (닫아도 ZIP 스트림은 유지, 크기 제한 초과 시 예외)
+     */
+    private class EntryInputStream extends FilterInputStream {
+
+        private long remaining = ingestionConfig.getBulkMaxEntryBytes();
+
+        EntryInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                consume(read);
+            }
+            return read;
+        }
+
+        private void consume(long bytes) throws EntryTooLargeException {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new EntryTooLargeException();
+            }
+        }
+
+        @Override
+        public void close() {
+            // ZIP 스트림은 다음 항목을 위해 열어 둠
+        }
+    }
+}
@@ -1,25 +1,36 @@
 package com.medicine.rag.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medicine.rag.config.ChromaConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.util.EmbeddingJson;
+import com.medicine.rag.util.VectorMath;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Chroma 벡터 DB 서비스
  */
 @Service
+@ConditionalOnProperty(name = "vector-store.type", havingValue = "chroma", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
-public class ChromaService {
+public class ChromaService implements VectorStore {
 
     private final ChromaConfig chromaConfig;
+    private final VectorStoreConfig vectorStoreConfig;
     private final OkHttpClient chromaHttpClient;
     private final OllamaService ollamaService;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -51,48 +62,373 @@ public class ChromaService {
      * 문서 벡터 추가
      */
     public String addDocument(String documentId, String text, Map<String, String> metadata) throws IOException {
+        addDocuments(Collections.singletonList(documentId),
+                Collections.singletonList(text),
+                Collections.singletonList(metadata));
+        return documentId;
+    }
+
+    /**
+     * 여러 문서 벡터를 배치 단위로 추가
+     * 배치마다 임베딩을 한 번에 생성하고 Chroma /upsert를 한 번 호출합니다.
+     * 같은 ID로 다시 호출해도 중복 없이 덮어쓰므로 중단된 작업의 재처리에 안전합니다.
+     */
+    @Override
+    public void addDocuments(List<String> documentIds, List<String> texts,
+                             List<Map<String, String>> metadatas) throws IOException {
+        int batchSize = vectorStoreConfig.getBatchSize();
+        for (int from = 0; from < documentIds.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, documentIds.size());
+            addBatch(documentIds.subList(from, to), texts.subList(from, to), metadatas.subList(from, to));
+        }
+    }
+
+    /**
+     * 단일 배치 추가
+     */
+    private void addBatch(List<String> documentIds, List<String> texts,
+                          List<Map<String, String>> metadatas) throws IOException {
         // Ollama를 통해 임베딩 생성
-        double[] embedding = ollamaService.generateEmbedding(text);
+        List<float[]> embeddings = ollamaService.generateEmbeddings(texts);
 
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("ids", Collections.singletonList(documentId));
-        requestBody.put("embeddings", Collections.singletonList(embedding));
-        requestBody.put("documents", Collections.singletonList(text));
-        requestBody.put("metadatas", Collections.singletonList(metadata));
+        // 중간 맵 없이 요청 본문을 바로 직렬화
+        ByteArrayOutputStream jsonBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = EmbeddingJson.factory().createGenerator(jsonBody)) {
+            generator.writeStartObject();
 
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
+            generator.writeArrayFieldStart("ids");
+            for (String documentId : documentIds) {
+                generator.writeString(documentId);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("embeddings");
+            for (float[] embedding : embeddings) {
+                EmbeddingJson.writeFloatArray(generator, embedding);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("documents");
+            for (String text : texts) {
+                generator.writeString(text);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("metadatas");
+            for (Map<String, String> metadata : metadatas) {
+                generator.writeStartObject();
+                for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                    generator.writeStringField(entry.getKey(), entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
 
         Request request = new Request.Builder()
                 .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
-                        chromaConfig.getCollectionName() + "/add")
-                .post(RequestBody.create(jsonBody, JSON))
+                        chromaConfig.getCollectionName() + "/upsert")
+                .post(RequestBody.create(jsonBody.toByteArray(), JSON))
                 .build();
 
         try (Response response = chromaHttpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Chroma에 문서 추가 실패: " + response);
             }
-            return documentId;
+        }
+    }
+
+    /**
+     * 문서 벡터 삭제
+     */
+    @Override
+    public void deleteDocuments(List<String> documentIds) throws IOException {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream jsonBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = EmbeddingJson.factory().createGenerator(jsonBody)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("ids");
+            for (String documentId : documentIds) {
+                generator.writeString(documentId);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        Request request = new Request.Builder()
+                .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                        chromaConfig.getCollectionName() + "/delete")
+                .post(RequestBody.create(jsonBody.toByteArray(), JSON))
+                .build();
+
+        try (Response response = chromaHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Chroma 문서 삭제 실패: " + response);
+            }
+        }
+    }
+
+    /**
+     * 문서의 모든 청크 벡터 삭제
+     * 메타데이터 vectorId 조건으로 지운 뒤, vectorId 메타데이터가 없는 기존 청크("{vectorId}_chunk_{번호}")를
+     * 번호 순서대로 찾아 지웁니다. 기존 청크 번호는 0부터 연속이므로 비어 있는 묶음이 나오면 멈춥니다.
+     */
+    @Override
+    public void deleteByVectorId(String vectorId) throws IOException {
+        ByteArrayOutputStream jsonBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = EmbeddingJson.factory().createGenerator(jsonBody)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("where");
+            generator.writeObjectFieldStart("vectorId");
+            generator.writeStringField("$eq", vectorId);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+
+        Request request = new Request.Builder()
+                .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                        chromaConfig.getCollectionName() + "/delete")
+                .post(RequestBody.create(jsonBody.toByteArray(), JSON))
+                .build();
+
+        try (Response response = chromaHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Chroma 문서 삭제 실패: " + response);
+            }
+        }
+
+        int batchSize = vectorStoreConfig.getBatchSize();
+        for (int from = 0; ; from += batchSize) {
+            List<String> candidates = new ArrayList<>(batchSize);
+            for (int i = from; i < from + batchSize; i++) {
+                candidates.add(vectorId + CHUNK_ID_SEPARATOR + i);
+            }
+            List<String> existing = getExistingIds(candidates);
+            deleteDocuments(existing);
+            if (existing.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 주어진 ID 중 저장되어 있는 ID 조회
+     */
+    private List<String> getExistingIds(List<String> documentIds) throws IOException {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("ids", documentIds);
+        requestBody.put("include", List.of());
+
+        Request request = new Request.Builder()
+                .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                        chromaConfig.getCollectionName() + "/get")
+                .post(RequestBody.create(objectMapper.writeValueAsString(requestBody), JSON))
+                .build();
+
+        try (Response response = chromaHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Chroma 문서 조회 실패: " + response);
+            }
+            JsonNode ids = objectMapper.readTree(response.body().byteStream()).get("ids");
+            List<String> existing = new ArrayList<>();
+            if (ids != null) {
+                ids.forEach(id -> existing.add(id.asText()));
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * 저장된 청크의 vectorId 순회 (메타데이터만 페이지 단위로 조회)
+     * vectorId 메타데이터가 없는 기존 청크는 "{vectorId}_chunk_{번호}" ID에서 vectorId를 추출합니다.
+     */
+    @Override
+    public void scanVectorIds(int batchSize, Consumer<Set<String>> consumer) throws IOException {
+        for (int offset = 0; ; offset += batchSize) {
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("limit", batchSize);
+            requestBody.put("offset", offset);
+            requestBody.put("include", List.of("metadatas"));
+
+            Request request = new Request.Builder()
+                    .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                            chromaConfig.getCollectionName() + "/get")
+                    .post(RequestBody.create(objectMapper.writeValueAsString(requestBody), JSON))
+                    .build();
+
+            JsonNode page;
+            try (Response response = chromaHttpClient.newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Chroma 문서 조회 실패: " + response);
+                }
+                page = objectMapper.readTree(response.body().byteStream());
+            }
+            JsonNode ids = page.get("ids");
+            JsonNode metadatas = page.get("metadatas");
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+
+            Set<String> vectorIds = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                JsonNode metadata = metadatas != null ? metadatas.get(i) : null;
+                if (metadata != null && metadata.hasNonNull("vectorId")) {
+                    vectorIds.add(metadata.get("vectorId").asText());
+                } else {
+                    String id = ids.get(i).asText();
+                    int separator = id.lastIndexOf(CHUNK_ID_SEPARATOR);
+                    vectorIds.add(separator > 0 ? id.substring(0, separator) : id);
+                }
+            }
+            consumer.accept(vectorIds);
+            if (ids.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 애플리케이션 시작 후 기존 벡터 정규화 (백그라운드, 명시적으로 켠 경우에만)
+     * 컬렉션 전체의 벡터를 읽으므로 정규화 이전 버전에서 올린 직후 한 번만 켜고, 완료 후에는 끄도록 안내합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeStoredEmbeddingsOnStartup() {
+        if (!chromaConfig.getNormalizeStoredEmbeddings()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                int updated = normalizeStoredEmbeddings(vectorStoreConfig.getBatchSize());
+                log.info("Chroma 기존 벡터 정규화 완료: {}건 변환 - chroma.normalize-stored-embeddings 설정을 꺼 주세요.",
+                        updated);
+            } catch (Exception e) {
+                log.warn("Chroma 기존 벡터 정규화 실패 - 다음 기동 시 다시 시도합니다: {}", e.getMessage());
+            }
+        }, "chroma-normalize");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 정규화되지 않은 저장 벡터를 길이 1로 변환
+     * 단건 임베딩 API로 만든 이전 청크 벡터를 질문 임베딩과 같은 크기로 맞춰 L2 거리 순위가 섞이지 않게 합니다.
+     * 벡터 방향은 그대로이므로 다시 임베딩할 필요가 없으며, 이미 정규화된 벡터는 건너뜁니다.
+     * @return 변환한 벡터 수
+     */
+    public int normalizeStoredEmbeddings(int batchSize) throws IOException {
+        int updated = 0;
+        for (int offset = 0; ; offset += batchSize) {
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("limit", batchSize);
+            requestBody.put("offset", offset);
+            requestBody.put("include", List.of("embeddings"));
+
+            Request request = new Request.Builder()
+                    .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                            chromaConfig.getCollectionName() + "/get")
+                    .post(RequestBody.create(objectMapper.writeValueAsString(requestBody), JSON))
+                    .build();
+
+            // 페이지를 트리로 만들지 않고 float 배열로 바로 읽음
+            EmbeddingJson.EmbeddingPage page;
+            try (Response response = chromaHttpClient.newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Chroma 문서 조회 실패: " + response);
+                }
+                page = EmbeddingJson.readEmbeddingPage(response.body().byteStream(), "ids", "embeddings");
+            }
+            List<String> ids = page.ids();
+            List<float[]> embeddings = page.embeddings();
+            if (ids.isEmpty() || embeddings.size() != ids.size()) {
+                return updated;
+            }
+
+            List<String> updateIds = new ArrayList<>();
+            List<float[]> updateEmbeddings = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                float[] embedding = embeddings.get(i);
+                if (embedding != null && embedding.length > 0 && !VectorMath.isUnit(embedding)) {
+                    updateIds.add(ids.get(i));
+                    updateEmbeddings.add(VectorMath.normalize(embedding));
+                }
+            }
+            if (!updateIds.isEmpty()) {
+                updateEmbeddings(updateIds, updateEmbeddings);
+                updated += updateIds.size();
+            }
+            if (ids.size() < batchSize) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * 벡터만 갱신 (본문과 메타데이터는 유지)
+     */
+    private void updateEmbeddings(List<String> documentIds, List<float[]> embeddings) throws IOException {
+        ByteArrayOutputStream jsonBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = EmbeddingJson.factory().createGenerator(jsonBody)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("ids");
+            for (String documentId : documentIds) {
+                generator.writeString(documentId);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("embeddings");
+            for (float[] embedding : embeddings) {
+                EmbeddingJson.writeFloatArray(generator, embedding);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        Request request = new Request.Builder()
+                .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
+                        chromaConfig.getCollectionName() + "/update")
+                .post(RequestBody.create(jsonBody.toByteArray(), JSON))
+                .build();
+
+        try (Response response = chromaHttpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Chroma 벡터 갱신 실패: " + response);
+            }
         }
     }
 
     /**
      * 유사 문서 검색
      */
+    @Override
     public List<Map<String, Object>> query(String queryText, int topK) throws IOException {
         // 쿼리 텍스트의 임베딩 생성
-        double[] queryEmbedding = ollamaService.generateEmbedding(queryText);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("query_embeddings", Collections.singletonList(queryEmbedding));
-        requestBody.put("n_results", topK);
+        return query(ollamaService.generateEmbedding(queryText), topK);
+    }
 
-        String jsonBody = objectMapper.writeValueAsString(requestBody);
+    /**
+     * 질문 임베딩으로 유사 문서 검색
+     */
+    @Override
+    public List<Map<String, Object>> query(float[] queryEmbedding, int topK) throws IOException {
+        ByteArrayOutputStream jsonBody = new ByteArrayOutputStream();
+        try (JsonGenerator generator = EmbeddingJson.factory().createGenerator(jsonBody)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("query_embeddings");
+            EmbeddingJson.writeFloatArray(generator, queryEmbedding);
+            generator.writeEndArray();
+            generator.writeNumberField("n_results", topK);
+            generator.writeEndObject();
+        }
 
         Request request = new Request.Builder()
                 .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
                         chromaConfig.getCollectionName() + "/query")
-                .post(RequestBody.create(jsonBody, JSON))
+                .post(RequestBody.create(jsonBody.toByteArray(), JSON))
                 .build();
 
         try (Response response = chromaHttpClient.newCall(request).execute()) {
@@ -104,12 +440,14 @@ public class ChromaService {
             JsonNode jsonNode = objectMapper.readTree(responseBody);
 
             List<Map<String, Object>> results = new ArrayList<>();
+            JsonNode idsNode = jsonNode.get("ids").get(0);
             JsonNode documentsNode = jsonNode.get("documents").get(0);
             JsonNode metadatasNode = jsonNode.get("metadatas").get(0);
             JsonNode distancesNode = jsonNode.get("distances").get(0);
 
             for (int i = 0; i < documentsNode.size(); i++) {
                 Map<String, Object> result = new HashMap<>();
+                result.put("id", idsNode.get(i).asText());
                 result.put("document", documentsNode.get(i).asText());
                 result.put("metadata", objectMapper.convertValue(metadatasNode.get(i), Map.class));
                 result.put("distance", distancesNode.get(i).asDouble());
@@ -123,6 +461,7 @@ public class ChromaService {
     /**
      * 벡터 DB 통계
      */
+    @Override
     public Map<String, Object> getStatistics() throws IOException {
         Request request = new Request.Builder()
                 .url(chromaConfig.getBaseUrl() + "/api/v1/collections/" +
@@ -1,24 +1,48 @@
 package com.medicine.rag.service;
 
 import com.medicine.rag.config.FileStorageConfig;
-import com.medicine.rag.dto.DocumentUploadRequest;
+import com.medicine.rag.config.IngestionConfig;
+import com.medicine.rag.config.OllamaConfig;
+import com.medicine.rag.config.OpenSearchConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.dto.DocumentSummary;
 import com.medicine.rag.model.Document;
+import com.medicine.rag.model.DocumentChunk;
+import com.medicine.rag.model.DocumentText;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.model.StoreOperation;
+import com.medicine.rag.repository.DocumentChunkRepository;
 import com.medicine.rag.repository.DocumentRepository;
+import com.medicine.rag.repository.DocumentTextRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
 import com.medicine.rag.util.DocumentParser;
+import com.medicine.rag.util.PipelineMetrics;
+import com.medicine.rag.util.TextChunker;
+import com.medicine.rag.util.TextCompression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 문서 서비스
@@ -29,94 +53,566 @@ import java.util.*;
 public class DocumentService {
 
     private final DocumentRepository documentRepository;
+    private final DocumentChunkRepository documentChunkRepository;
+    private final DocumentTextRepository documentTextRepository;
     private final DocumentParser documentParser;
-    private final ChromaService chromaService;
+    private final VectorStore vectorStore;
     private final OpenSearchService openSearchService;
+    private final OpenSearchConfig openSearchConfig;
     private final FileStorageConfig fileStorageConfig;
+    private final VectorStoreConfig vectorStoreConfig;
+    private final IngestionConfig ingestionConfig;
+    private final OllamaConfig ollamaConfig;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final AnswerCache answerCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final BlobStore blobStore;
+    private final StoreOutbox storeOutbox;
 
-    private static final int CHUNK_SIZE = 1000; // 청크 크기
-    private static final int CHUNK_OVERLAP = 200; // 청크 오버랩
+    /**
+     * 업로드 파일 저장 및 수집 작업 생성
+     * 실제 처리는 {@link #ingest(IngestionJob)}에서 비동기로 수행됩니다.
+     * 같은 내용과 임베딩 모델의 문서가 이미 있으면 처리 없이 완료된 작업을 반환합니다.
+     */
+    public IngestionJob storeUpload(MultipartFile file) throws IOException {
+        validateFile(file);
+        return storeFile(file.getOriginalFilename(), file, null, null);
+    }
 
     /**
-     * 문서 업로드 및 처리
+     * 일괄 수집 대상 파일 저장 및 수집 작업 생성
+     * 수집 작업은 등록만 하며, 처리는 호출하는 쪽에서 파이프라인에 넣어 진행합니다.
      */
-    @Transactional
-    public DocumentUploadRequest uploadDocument(MultipartFile file) throws IOException {
-        // 파일 검증
+    public IngestionJob storeBatchFile(String originalFileName, InputStreamSource source, Long batchId)
+            throws IOException {
+        validateFileName(originalFileName);
+        return storeFile(originalFileName, source, null, batchId);
+    }
+
+    /**
+     * 기존 문서의 새 버전 파일 저장 및 갱신 작업 생성
+     * 기존 문서의 vectorId/searchIndexId를 그대로 사용하므로 내용이 바뀐 청크만 다시 임베딩됩니다.
+     */
+    public Optional<IngestionJob> storeRevision(Long documentId, MultipartFile file) throws IOException {
+        Optional<Document> documentOpt = documentRepository.findById(documentId);
+        if (documentOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (ingestionJobRepository.existsByDocumentIdAndStatusIn(documentId,
+                EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING))) {
+            throw new IllegalStateException("이미 처리 중인 갱신 작업이 있습니다: " + documentId);
+        }
+
         validateFile(file);
+        return Optional.of(storeFile(file.getOriginalFilename(), file, documentOpt.get(), null));
+    }
 
-        String originalFileName = file.getOriginalFilename();
-        String fileType = getFileExtension(originalFileName);
-        String fileName = generateUniqueFileName(originalFileName);
+    /**
+     * 같은 내용의 기존 문서와 벡터/인덱스를 공유하는 문서 생성 (완료된 작업 반환)
+     */
+    private IngestionJob linkDuplicate(IngestionJob job, Document source) {
+        Document document = documentRepository.save(Document.builder()
+                .fileName(job.getFileName())
+                .originalFileName(job.getOriginalFileName())
+                .fileType(job.getFileType())
+                .fileSize(job.getFileSize())
+                .filePath(job.getFilePath())
+                .contentHash(job.getContentHash())
+                .embeddingModel(source.getEmbeddingModel())
+                .vectorId(source.getVectorId())
+                .searchIndexId(source.getSearchIndexId())
+                .chunkCount(source.getChunkCount())
+                .build());
+        documentTextRepository.findById(source.getId()).ifPresent(text -> documentTextRepository.save(
+                DocumentText.builder()
+                        .documentId(document.getId())
+                        .textHash(text.getTextHash())
+                        .content(text.getContent())
+                        .textLength(text.getTextLength())
+                        .build()));
 
-        // 파일 저장
-        Path uploadPath = Paths.get(fileStorageConfig.getUploadDir()).resolve(fileName);
-        Files.copy(file.getInputStream(), uploadPath, StandardCopyOption.REPLACE_EXISTING);
+        job.setVectorId(source.getVectorId());
+        job.setSearchIndexId(source.getSearchIndexId());
+        job.setDocumentId(document.getId());
+        job.setDuplicateOfDocumentId(source.getId());
+        job.setTotalChunks(source.getChunkCount());
+        job.setProcessedChunks(source.getChunkCount());
+        job.setStatus(IngestionJob.Status.COMPLETED);
+        log.info("같은 내용의 문서 재사용: {} → 문서 ID {} (청크: {}개)",
+                job.getOriginalFileName(), source.getId(), source.getChunkCount());
+        return ingestionJobRepository.save(job);
+    }
 
-        // 텍스트 추출
-        File uploadedFile = uploadPath.toFile();
-        String extractedText = documentParser.extractText(uploadedFile, fileType);
+    /**
+     * 다른 문서와 벡터/인덱스를 공유하는지 여부
+     */
+    private boolean isShared(Document document) {
+        return documentRepository.countByVectorId(document.getVectorId()) > 1;
+    }
 
-        // 텍스트 청크 분할
-        List<String> chunks = documentParser.chunkText(extractedText, CHUNK_SIZE, CHUNK_OVERLAP);
+    /**
+     * 파일 저장 후 수집 작업 생성 (target이 있으면 해당 문서의 갱신 작업)
+     */
+    private IngestionJob storeFile(String originalFileName, InputStreamSource source, Document target, Long batchId)
+            throws IOException {
+        String fileType = getFileExtension(originalFileName);
 
-        // Vector DB에 저장
-        String vectorId = UUID.randomUUID().toString();
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("fileName", originalFileName);
-        metadata.put("fileType", fileType);
-        metadata.put("uploadDate", LocalDateTime.now().toString());
+        // 파일 저장 (내용 해시 기반, 같은 내용의 파일은 한 번만 저장)
+        // 작업 저장까지 파일 잠금 안에서 진행하여, 그 사이 같은 파일이 참조 없음으로 삭제되지 않도록 함
+        try (InputStream in = source.getInputStream()) {
+            return blobStore.storeOriginal(in, blob -> createJob(blob, originalFileName, fileType, target, batchId));
+        }
+    }
 
-        // 각 청크를 Vector DB에 저장
-        for (int i = 0; i < chunks.size(); i++) {
-            String chunkId = vectorId + "_chunk_" + i;
-            Map<String, String> chunkMetadata = new HashMap<>(metadata);
-            chunkMetadata.put("chunkIndex", String.valueOf(i));
-            chromaService.addDocument(chunkId, chunks.get(i), chunkMetadata);
-        }
-
-        // OpenSearch에 인덱싱
-        String searchIndexId = UUID.randomUUID().toString();
-        Map<String, Object> searchDocument = new HashMap<>();
-        searchDocument.put("fileName", originalFileName);
-        searchDocument.put("fileType", fileType);
-        searchDocument.put("content", extractedText);
-        searchDocument.put("uploadDate", LocalDateTime.now().toString());
-        openSearchService.indexDocument(searchIndexId, searchDocument);
-
-        // 데이터베이스에 저장
-        Document document = Document.builder()
-                .fileName(fileName)
+    /**
+     * 저장된 파일의 수집 작업 생성 (같은 내용의 문서가 있으면 재사용해 완료된 작업 반환)
+     */
+    private IngestionJob createJob(BlobStore.StoredBlob blob, String originalFileName, String fileType,
+                                   Document target, Long batchId) {
+        // 공유 중인 문서의 갱신은 다른 문서에 영향을 주지 않도록 새 벡터/인덱스 ID로 처리
+        boolean reuseIds = target != null && !isShared(target);
+        IngestionJob job = IngestionJob.builder()
+                .fileName(blob.hash())
                 .originalFileName(originalFileName)
                 .fileType(fileType)
-                .fileSize(file.getSize())
-                .filePath(uploadPath.toString())
-                .extractedText(extractedText)
-                .vectorId(vectorId)
-                .searchIndexId(searchIndexId)
-                .chunkCount(chunks.size())
+                .fileSize(blob.size())
+                .filePath(blob.path().toString())
+                .contentHash(blob.hash())
+                .vectorId(reuseIds ? target.getVectorId() : UUID.randomUUID().toString())
+                .searchIndexId(reuseIds ? target.getSearchIndexId() : UUID.randomUUID().toString())
+                .documentId(target != null ? target.getId() : null)
+                .legacyChunkCount(reuseIds ? legacyChunkCount(target) : 0)
+                .batchId(batchId)
+                .status(IngestionJob.Status.QUEUED)
+                .processedChunks(0)
                 .build();
 
-        document = documentRepository.save(document);
+        if (target == null) {
+            Optional<IngestionJob> linked = linkIfDuplicate(job);
+            if (linked.isPresent()) {
+                return linked.get();
+            }
+        }
 
-        log.info("문서 업로드 완료: {} (청크: {}개)", originalFileName, chunks.size());
+        return ingestionJobRepository.save(job);
+    }
 
-        return DocumentUploadRequest.builder()
-                .documentId(document.getId())
-                .fileName(originalFileName)
-                .fileType(fileType)
-                .fileSize(file.getSize())
+    /**
+     * 청크 지문 기록 없이 순번 청크 ID("{vectorId}_chunk_{n}")와 문서 전체 인덱스 항목으로 저장된 문서의 청크 수 (아니면 0)
+     * 갱신 작업이 중단 후 재개되면 그 사이 기록된 지문 때문에 이전 방식 문서인지 알 수 없으므로 작업 생성 시 한 번만 판단합니다.
+     */
+    private int legacyChunkCount(Document target) {
+        Integer chunkCount = target.getChunkCount();
+        if (chunkCount == null || chunkCount == 0 || documentChunkRepository.existsByVectorId(target.getVectorId())) {
+            return 0;
+        }
+        return chunkCount;
+    }
+
+    /**
+     * 같은 내용과 임베딩 모델의 문서가 이미 있으면 그 문서를 재사용해 작업 완료 처리
+     * 일괄 수집처럼 같은 파일이 연달아 들어오는 경우를 위해 처리 직전에도 다시 확인합니다.
+     */
+    public Optional<IngestionJob> linkIfDuplicate(IngestionJob job) {
+        if (!ingestionConfig.getDeduplicateUploads() || job.getDocumentId() != null) {
+            return Optional.empty();
+        }
+        return documentRepository.findFirstByContentHashAndEmbeddingModelOrderByIdAsc(
+                        job.getContentHash(), ollamaConfig.getModel())
+                .map(duplicate -> linkDuplicate(job, duplicate));
+    }
+
+    /**
+     * 수집 작업 처리: 텍스트 추출 → 청크 분할 → 임베딩/벡터 저장 → 인덱싱 → DB 저장
+     * 청크마다 내용 해시(지문)를 기록하여, 같은 문서에 이미 저장된 청크는 다시 임베딩하지 않습니다.
+     * 따라서 중단된 작업은 저장된 청크를 건너뛰며 이어서 처리되고,
+     * 문서 갱신 시에는 바뀐 청크만 임베딩하고 사라진 청크는 Vector DB에서 삭제합니다.
+     * 스트리밍 추출을 끄면 {@link #parse}, {@link #embed}, {@link #complete}를 차례로 실행합니다.
+     */
+    public Document ingest(IngestionJob job) throws IOException {
+        if (!ingestionConfig.getStreamingExtraction()) {
+            ParsedDocument parsed = parse(job);
+            embed(parsed);
+            return complete(parsed);
+        }
+
+        job.setStatus(IngestionJob.Status.RUNNING);
+        updateStage(job, IngestionJob.Stage.PARSING);
+
+        File uploadedFile = Paths.get(job.getFilePath()).toFile();
+        ChunkBatcher batcher = newBatcher(job);
+
+        // 페이지 단위로 추출하면서 완성된 청크를 바로 임베딩 (전체 텍스트는 임시 파일에만 기록)
+        // 추출 단계 시간은 그 사이 임베딩/인덱싱에 쓴 시간을 뺀 값으로 기록
+        Path spoolPath = Paths.get(fileStorageConfig.getTempDir()).resolve("extract_" + job.getId() + ".txt");
+        long extractionStart = System.nanoTime();
+        AtomicInteger spooledLength = new AtomicInteger();
+        try (Writer spool = Files.newBufferedWriter(spoolPath, StandardCharsets.UTF_8)) {
+            TextChunker chunker = documentParser.newChunker(batcher::add);
+            documentParser.streamText(uploadedFile, job.getFileType(), text -> {
+                spool.write(text);
+                spooledLength.addAndGet(text.length());
+                chunker.append(text);
+            });
+            chunker.finish();
+        }
+        pipelineMetrics.record(PipelineMetrics.INGESTION, "extraction",
+                System.nanoTime() - extractionStart - batcher.getStoreNanos());
+        batcher.flush();
+
+        // 전체 텍스트는 문자열로 읽지 않고 임시 파일에서 바로 압축 저장
+        String textHash = blobStore.storeText(spoolPath);
+        Files.deleteIfExists(spoolPath);
+
+        ParsedDocument parsed = new ParsedDocument(job, null, textHash, spooledLength.get());
+        parsed.batcher = batcher;
+        return complete(parsed);
+    }
+
+    /**
+     * 수집 1단계: 텍스트 추출 및 청크 분할 (CPU 위주)
+     * 추출 텍스트는 파일 저장소에 압축 저장하고, 청크 목록은 다음 단계로 넘깁니다.
+     */
+    public ParsedDocument parse(IngestionJob job) throws IOException {
+        job.setStatus(IngestionJob.Status.RUNNING);
+        updateStage(job, IngestionJob.Stage.PARSING);
+
+        File uploadedFile = Paths.get(job.getFilePath()).toFile();
+        String extractedText = pipelineMetrics.time(PipelineMetrics.INGESTION, "extraction",
+                () -> documentParser.extractText(uploadedFile, job.getFileType()));
+        String textHash = blobStore.storeText(extractedText);
+
+        updateStage(job, IngestionJob.Stage.CHUNKING);
+        List<String> chunks = pipelineMetrics.time(PipelineMetrics.INGESTION, "chunking",
+                () -> documentParser.chunkText(extractedText));
+        return new ParsedDocument(job, chunks, textHash, extractedText.length());
+    }
+
+    /**
+     * 수집 2단계: 청크 임베딩 및 Vector DB 저장 (배치 단위)
+     */
+    public void embed(ParsedDocument parsed) throws IOException {
+        ChunkBatcher batcher = newBatcher(parsed.job);
+        for (String chunk : parsed.chunks) {
+            batcher.add(chunk);
+        }
+        batcher.flush();
+        parsed.batcher = batcher;
+        parsed.chunks = null;
+    }
+
+    private ChunkBatcher newBatcher(IngestionJob job) {
+        // 청크 메타데이터
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("vectorId", job.getVectorId());
+        metadata.put("fileName", job.getOriginalFileName());
+        metadata.put("fileType", job.getFileType());
+        metadata.put("uploadDate", LocalDateTime.now().toString());
+        return new ChunkBatcher(job, metadata, documentChunkRepository.findByVectorId(job.getVectorId()));
+    }
+
+    /**
+     * 수집 3단계: 남은 청크 인덱싱, 이전 버전 청크 정리 후 문서 정보 저장
+     */
+    public Document complete(ParsedDocument parsed) throws IOException {
+        IngestionJob job = parsed.job;
+        ChunkBatcher batcher = parsed.batcher;
+        String vectorId = job.getVectorId();
+        String textHash = parsed.textHash;
+        int textLength = parsed.textLength;
+
+        int chunkCount = batcher.getChunkCount();
+        job.setTotalChunks(chunkCount);
+
+        // 남은 청크 OpenSearch 인덱싱, 이전 버전에만 있던 청크 삭제 후 인덱스 새로고침
+        updateStage(job, IngestionJob.Stage.INDEXING);
+        Optional<Document> existing = job.getDocumentId() != null
+                ? documentRepository.findById(job.getDocumentId())
+                : documentRepository.findFirstByVectorIdOrderByIdAsc(vectorId);
+        batcher.finish(existing.filter(d -> vectorId.equals(d.getVectorId()))
+                .map(Document::getChunkCount)
+                .orElse(0));
+
+        // 데이터베이스에 저장 (갱신 작업이거나 이전 실행에서 이미 저장된 경우 기존 문서를 갱신)
+        updateStage(job, IngestionJob.Stage.SAVING);
+        Document document = existing.orElseGet(() -> Document.builder()
                 .vectorId(vectorId)
-                .chunkCount(chunks.size())
-                .message("문서가 성공적으로 업로드되었습니다.")
-                .build();
+                .searchIndexId(job.getSearchIndexId())
+                .build());
+        String previousFilePath = document.getFilePath();
+        String previousTextHash = document.getId() == null ? null : documentTextRepository.findById(document.getId())
+                .map(DocumentText::getTextHash)
+                .orElse(null);
+
+        document.setFileName(job.getFileName());
+        document.setOriginalFileName(job.getOriginalFileName());
+        document.setFileType(job.getFileType());
+        document.setFileSize(job.getFileSize());
+        document.setFilePath(job.getFilePath());
+        document.setContentHash(job.getContentHash());
+        document.setEmbeddingModel(ollamaConfig.getModel());
+        document.setVectorId(vectorId);
+        document.setSearchIndexId(job.getSearchIndexId());
+        document.setChunkCount(chunkCount);
+        Document toSave = document;
+        document = pipelineMetrics.time(PipelineMetrics.INGESTION, "save", () -> {
+            Document saved = documentRepository.save(toSave);
+            documentTextRepository.save(DocumentText.builder()
+                    .documentId(saved.getId())
+                    .textHash(textHash)
+                    .textLength(textLength)
+                    .build());
+            return saved;
+        });
+
+        if (previousTextHash != null && !previousTextHash.equals(textHash)) {
+            releaseText(previousTextHash);
+        }
+
+        if (previousFilePath != null && !previousFilePath.equals(job.getFilePath())) {
+            // 갱신된 문서: 이전 파일 삭제 및 이전 내용으로 만든 캐시 답변 무효화
+            releaseFile(previousFilePath);
+            answerCache.invalidateDocument(vectorId, job.getSearchIndexId());
+            log.info("문서 갱신 완료: {} (청크: {}개, 새로 임베딩: {}개, 재사용: {}개, 삭제: {}개)",
+                    job.getOriginalFileName(), chunkCount, batcher.getEmbeddedCount(),
+                    batcher.getReusedCount(), batcher.getRemovedCount());
+        } else {
+            log.info("문서 업로드 완료: {} (청크: {}개)", job.getOriginalFileName(), chunkCount);
+        }
+
+        return document;
+    }
+
+    /**
+     * 작업 단계 갱신
+     */
+    private void updateStage(IngestionJob job, IngestionJob.Stage stage) {
+        job.setStage(stage);
+        ingestionJobRepository.save(job);
+    }
+
+    /**
+     * 청크를 모아 배치 단위로 Vector DB와 OpenSearch에 저장하고 작업 진행 상황을 기록
+     * 같은 문서에 이미 저장된 지문의 청크와 문서 안에서 중복된 청크는 건너뜁니다.
+     * 청크 지문은 두 저장소에 모두 반영된 뒤에 기록되므로, 중단 후 재시작해도 누락되는 청크가 없습니다.
+     */
+    private class ChunkBatcher {
+
+        private final IngestionJob job;
+        private final Map<String, String> metadata;
+        private final Map<String, DocumentChunk> storedChunks = new HashMap<>();
+        private final Set<String> seenFingerprints = new HashSet<>();
+        private final List<DocumentChunk> pendingChunks = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final List<Map<String, String>> metadatas = new ArrayList<>();
+        private final List<DocumentChunk> unindexedChunks = new ArrayList<>(); // OpenSearch 인덱싱 대기
+        private final List<Map<String, Object>> searchDocuments = new ArrayList<>();
+        private final List<DocumentChunk> movedChunks = new ArrayList<>();
+        private final boolean startedWithoutChunks; // 시작 시 저장된 지문이 없었는지 (legacyChunkCount 기록 이전 작업용)
+        private int chunkCount = 0;
+        private int embeddedCount = 0;
+        private int reusedCount = 0;
+        private int removedCount = 0;
+        private long storeNanos = 0; // 임베딩/인덱싱에 쓴 누적 시간
+
+        ChunkBatcher(IngestionJob job, Map<String, String> metadata, List<DocumentChunk> storedChunks) {
+            this.job = job;
+            this.metadata = metadata;
+            for (DocumentChunk chunk : storedChunks) {
+                this.storedChunks.put(chunk.getFingerprint(), chunk);
+            }
+            this.startedWithoutChunks = storedChunks.isEmpty();
+        }
+
+        void add(String chunk) throws IOException {
+            int index = chunkCount++;
+            String fingerprint = fingerprint(chunk);
+            if (!seenFingerprints.add(fingerprint)) {
+                return;
+            }
+
+            DocumentChunk stored = storedChunks.get(fingerprint);
+            if (stored != null) {
+                reusedCount++;
+                if (stored.getChunkIndex() != index) {
+                    stored.setChunkIndex(index);
+                    movedChunks.add(stored);
+                }
+                return;
+            }
+
+            String chunkId = job.getVectorId() + "_chunk_" + fingerprint;
+            pendingChunks.add(DocumentChunk.builder()
+                    .vectorId(job.getVectorId())
+                    .chunkId(chunkId)
+                    .fingerprint(fingerprint)
+                    .chunkIndex(index)
+                    .build());
+            texts.add(chunk);
+            Map<String, String> chunkMetadata = new HashMap<>(metadata);
+            chunkMetadata.put("chunkIndex", String.valueOf(index));
+            metadatas.add(chunkMetadata);
+
+            if (texts.size() >= vectorStoreConfig.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (!texts.isEmpty()) {
+                if (job.getStage() != IngestionJob.Stage.EMBEDDING) {
+                    job.setStage(IngestionJob.Stage.EMBEDDING);
+                }
+                List<String> chunkIds = pendingChunks.stream().map(DocumentChunk::getChunkId).toList();
+                long start = System.nanoTime();
+                vectorStore.addDocuments(chunkIds, texts, metadatas);
+                recordStore("embedding", start);
+
+                for (int i = 0; i < pendingChunks.size(); i++) {
+                    searchDocuments.add(toSearchDocument(pendingChunks.get(i), texts.get(i)));
+                }
+                unindexedChunks.addAll(pendingChunks);
+                embeddedCount += pendingChunks.size();
+
+                pendingChunks.clear();
+                texts.clear();
+                metadatas.clear();
+
+                if (unindexedChunks.size() >= openSearchConfig.getBulkSize()) {
+                    flushSearchIndex();
+                }
+            }
+
+            if (!movedChunks.isEmpty()) {
+                documentChunkRepository.saveAll(movedChunks);
+                movedChunks.clear();
+            }
+
+            job.setProcessedChunks(chunkCount);
+            ingestionJobRepository.save(job);
+        }
+
+        /**
+         * OpenSearch 일괄 인덱싱 후 청크 지문 기록
+         */
+        private void flushSearchIndex() throws IOException {
+            if (unindexedChunks.isEmpty()) {
+                return;
+            }
+
+            List<String> chunkIds = unindexedChunks.stream().map(DocumentChunk::getChunkId).toList();
+            long start = System.nanoTime();
+            openSearchService.bulkIndex(chunkIds, searchDocuments);
+            recordStore("indexing", start);
+
+            start = System.nanoTime();
+            for (DocumentChunk chunk : documentChunkRepository.saveAll(unindexedChunks)) {
+                storedChunks.put(chunk.getFingerprint(), chunk);
+            }
+            recordStore("fingerprint_save", start);
+
+            unindexedChunks.clear();
+            searchDocuments.clear();
+        }
+
+        private Map<String, Object> toSearchDocument(DocumentChunk chunk, String text) {
+            Map<String, Object> document = new HashMap<>();
+            document.put("searchIndexId", job.getSearchIndexId());
+            document.put("vectorId", job.getVectorId());
+            document.put("fileName", metadata.get("fileName"));
+            document.put("fileType", metadata.get("fileType"));
+            document.put("chunkIndex", chunk.getChunkIndex());
+            document.put("content", text);
+            document.put("uploadDate", metadata.get("uploadDate"));
+            return document;
+        }
+
+        /**
+         * 남은 청크 인덱싱, 이번 버전에 없는 청크 삭제 후 OpenSearch 새로고침
+         */
+        void finish(int previousChunkCount) throws IOException {
+            flush();
+            flushSearchIndex();
+            long start = System.nanoTime();
+            removeVanishedChunks(previousChunkCount);
+            openSearchService.refresh();
+            pipelineMetrics.record(PipelineMetrics.INGESTION, "cleanup", System.nanoTime() - start);
+        }
+
+        private void recordStore(String stage, long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            storeNanos += elapsed;
+            pipelineMetrics.record(PipelineMetrics.INGESTION, stage, elapsed);
+        }
+
+        /**
+         * 이번 버전에 없는 청크를 Vector DB, OpenSearch, 지문 기록에서 삭제
+         * 지문 기록이 없던 이전 방식의 문서는 기존 청크 수만큼의 순번 ID와 문서 전체 인덱스 항목을 삭제합니다.
+         * 이전 방식 여부는 작업 생성 시 기록한 값을 사용하므로, 중단 후 재개된 갱신 작업에서도 빠지지 않습니다.
+         */
+        private void removeVanishedChunks(int previousChunkCount) throws IOException {
+            int legacyChunkCount = job.getLegacyChunkCount() != null
+                    ? job.getLegacyChunkCount()
+                    : startedWithoutChunks ? previousChunkCount : 0;
+
+            List<DocumentChunk> vanished = storedChunks.values().stream()
+                    .filter(chunk -> !seenFingerprints.contains(chunk.getFingerprint()))
+                    .toList();
+
+            List<String> vanishedIds = new ArrayList<>(vanished.stream().map(DocumentChunk::getChunkId).toList());
+            List<String> vanishedSearchIds = new ArrayList<>(vanishedIds);
+            if (legacyChunkCount > 0) {
+                for (int i = 0; i < legacyChunkCount; i++) {
+                    vanishedIds.add(job.getVectorId() + "_chunk_" + i);
+                }
+                vanishedSearchIds.add(job.getSearchIndexId());
+            }
+
+            vectorStore.deleteDocuments(vanishedIds);
+            openSearchService.bulkDelete(vanishedSearchIds);
+            documentChunkRepository.deleteAll(vanished);
+            removedCount = vanishedIds.size();
+        }
+
+        int getChunkCount() {
+            return chunkCount;
+        }
+
+        long getStoreNanos() {
+            return storeNanos;
+        }
+
+        int getEmbeddedCount() {
+            return embeddedCount;
+        }
+
+        int getReusedCount() {
+            return reusedCount;
+        }
+
+        int getRemovedCount() {
+            return removedCount;
+        }
     }
 
     /**
-     * 문서 목록 조회
+     * 청크 내용 지문 (SHA-256)
      */
-    public List<Document> getAllDocuments() {
-        return documentRepository.findAll();
+    private String fingerprint(String chunk) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(chunk.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 문서 목록 조회 (페이징, 추출 텍스트 제외)
+     */
+    public Page<DocumentSummary> getDocuments(Pageable pageable) {
+        return documentRepository.findSummaries(pageable);
     }
 
     /**
@@ -126,8 +622,105 @@ public class DocumentService {
         return documentRepository.findById(id);
     }
 
+    /**
+     * 문서 추출 텍스트 조회 (압축 해제)
+     */
+    public Optional<String> getDocumentText(Long id) throws IOException {
+        Optional<DocumentText> documentText = documentTextRepository.findById(id);
+        if (documentText.isEmpty()) {
+            return Optional.empty();
+        }
+        DocumentText text = documentText.get();
+        if (text.getTextHash() != null) {
+            return Optional.of(blobStore.readText(text.getTextHash()));
+        }
+        return Optional.of(TextCompression.decompress(text.getContent()));
+    }
+
+    /**
+     * 압축된 추출 텍스트 파일 경로 (파일 저장소에 있는 경우)
+     * 클라이언트가 gzip을 받을 수 있으면 압축 해제 없이 그대로 전송하는 데 사용합니다.
+     */
+    public Optional<Path> getCompressedTextPath(Long id) {
+        return documentTextRepository.findById(id)
+                .map(DocumentText::getTextHash)
+                .map(blobStore::textPath)
+                .filter(Files::exists);
+    }
+
+    /**
+     * 더 이상 참조하는 문서나 진행 중인 작업이 없으면 원본 파일 삭제
+     * 같은 내용의 업로드는 같은 파일을 공유하므로 참조 여부를 확인한 뒤에만 삭제합니다.
+     */
+    public void releaseFile(String filePath) throws IOException {
+        blobStore.deleteOriginal(Paths.get(filePath), () -> documentRepository.existsByFilePath(filePath)
+                || ingestionJobRepository.existsByFilePathAndStatusIn(filePath,
+                EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING)));
+    }
+
+    /**
+     * 더 이상 참조하는 문서가 없으면 추출 텍스트 파일 삭제
+     */
+    public void releaseText(String textHash) throws IOException {
+        if (!documentTextRepository.existsByTextHash(textHash)) {
+            blobStore.deleteText(textHash);
+        }
+    }
+
+    /**
+     * 이전 스키마에서 documents.extracted_text 컬럼에 저장된 텍스트를 압축 저장소로 이전
+     * 문서 단위로 저장 후 원래 컬럼을 비우므로 중간에 중단되어도 다음 시작 시 이어서 진행됩니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyText() {
+        if (documentRepository.countLegacyTextColumn() == 0) {
+            return;
+        }
+
+        List<Long> ids = documentRepository.findIdsWithLegacyText();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        log.info("문서 추출 텍스트 이전 시작: {}개", ids.size());
+        for (Long id : ids) {
+            String text = documentRepository.findLegacyText(id);
+            if (text != null) {
+                try {
+                    documentTextRepository.save(DocumentText.builder()
+                            .documentId(id)
+                            .textHash(blobStore.storeText(text))
+                            .textLength(text.length())
+                            .build());
+                } catch (IOException e) {
+                    log.error("문서 추출 텍스트 이전 실패 (문서 ID: {})", id, e);
+                    return;
+                }
+            }
+            documentRepository.clearLegacyText(id);
+        }
+        log.info("문서 추출 텍스트 이전 완료: {}개", ids.size());
+    }
+
+    /**
+     * 실패한 새 문서 수집 작업이 남긴 청크 정리 (보상 처리)
+     * 문서가 저장되지 않은 vectorId만 대상으로 하며, 갱신 작업은 기존 문서의 청크를 쓰므로 제외합니다.
+     */
+    @Transactional
+    public void discardFailedIngestion(IngestionJob job) {
+        if (job.getDocumentId() != null || documentRepository.countByVectorId(job.getVectorId()) > 0) {
+            return;
+        }
+        documentChunkRepository.deleteByVectorId(job.getVectorId());
+        storeOutbox.record(StoreOperation.Type.DELETE_VECTORS, job.getVectorId());
+        storeOutbox.record(StoreOperation.Type.DELETE_SEARCH_DOCUMENT, job.getSearchIndexId());
+        storeOutbox.record(StoreOperation.Type.RELEASE_FILE, job.getFilePath());
+    }
+
     /**
      * 문서 삭제
+     * 벡터 저장소, OpenSearch, 파일 저장소의 삭제는 같은 트랜잭션에서 아웃박스에 기록되고
+     * 커밋 후 반영되므로, 외부 저장소가 일시적으로 실패해도 재시도로 정리됩니다.
      */
     @Transactional
     public void deleteDocument(Long id) throws IOException {
@@ -135,16 +728,32 @@ public class DocumentService {
         if (documentOpt.isPresent()) {
             Document document = documentOpt.get();
 
-            // 파일 삭제
-            Path filePath = Paths.get(document.getFilePath());
-            Files.deleteIfExists(filePath);
+            // 같은 내용의 다른 문서가 벡터/인덱스를 공유하면 마지막 문서가 삭제될 때까지 유지
+            if (!isShared(document)) {
+                // 벡터 저장소와 OpenSearch에서 삭제
+                storeOutbox.record(StoreOperation.Type.DELETE_VECTORS, document.getVectorId());
+                storeOutbox.record(StoreOperation.Type.DELETE_SEARCH_DOCUMENT, document.getSearchIndexId());
+
+                // 이 문서를 참조한 캐시 답변 무효화
+                answerCache.invalidateDocument(document.getVectorId(), document.getSearchIndexId());
+
+                // 청크 지문 기록 삭제
+                documentChunkRepository.deleteByVectorId(document.getVectorId());
+            }
 
-            // OpenSearch에서 삭제
-            openSearchService.deleteDocument(document.getSearchIndexId());
+            // 추출 텍스트 삭제
+            Optional<DocumentText> documentText = documentTextRepository.findById(document.getId());
+            documentText.ifPresent(documentTextRepository::delete);
 
             // 데이터베이스에서 삭제
             documentRepository.delete(document);
 
+            // 다른 문서가 참조하지 않는 원본 파일과 추출 텍스트 삭제
+            storeOutbox.record(StoreOperation.Type.RELEASE_FILE, document.getFilePath());
+            if (documentText.isPresent() && documentText.get().getTextHash() != null) {
+                storeOutbox.record(StoreOperation.Type.RELEASE_TEXT, documentText.get().getTextHash());
+            }
+
             log.info("문서 삭제 완료: {}", document.getOriginalFileName());
         }
     }
@@ -156,20 +765,28 @@ public class DocumentService {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("파일이 비어있습니다.");
         }
+        validateFileName(file.getOriginalFilename());
+    }
 
-        String fileName = file.getOriginalFilename();
+    private void validateFileName(String fileName) {
         if (fileName == null || fileName.isEmpty()) {
             throw new IllegalArgumentException("파일 이름이 없습니다.");
         }
 
         String fileType = getFileExtension(fileName).toLowerCase();
-        List<String> allowedTypes = Arrays.asList("pdf", "txt", "doc", "docx", "hwp");
-
-        if (!allowedTypes.contains(fileType)) {
+        if (!isSupportedFileType(fileName)) {
             throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + fileType);
         }
     }
 
+    /**
+     * 수집 가능한 파일 형식인지 확인 (일괄 수집 시 대상 파일 선별용)
+     */
+    public boolean isSupportedFileType(String fileName) {
+        List<String> allowedTypes = Arrays.asList("pdf", "txt", "doc", "docx", "hwp");
+        return allowedTypes.contains(getFileExtension(fileName).toLowerCase());
+    }
+
     /**
      * 파일 확장자 추출
      */
@@ -182,11 +799,25 @@ public class DocumentService {
     }
 
     /**
-     * 고유한 파일 이름 생성
+     * 텍스트 추출/청크 분할이 끝난 수집 작업 (파이프라인 단계 사이에 전달)
      */
-    private String generateUniqueFileName(String originalFileName) {
-        String fileExtension = getFileExtension(originalFileName);
-        String baseName = originalFileName.substring(0, originalFileName.lastIndexOf('.'));
-        return baseName + "_" + System.currentTimeMillis() + "." + fileExtension;
+    public static final class ParsedDocument {
+
+        private final IngestionJob job;
+        private List<String> chunks; // 임베딩 전까지만 유지
+        private final String textHash;
+        private final int textLength;
+        private ChunkBatcher batcher;
+
+        private ParsedDocument(IngestionJob job, List<String> chunks, String textHash, int textLength) {
+            this.job = job;
+            this.chunks = chunks;
+            this.textHash = textHash;
+            this.textLength = textLength;
+        }
+
+        public IngestionJob getJob() {
+            return job;
+        }
     }
 }
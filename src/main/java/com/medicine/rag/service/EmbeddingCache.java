@@ -0,0 +1,196 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.EmbeddingCacheConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 임베딩 캐시
+ * 모델명 + 텍스트의 SHA-256 해시를 키로 사용하며,
+ * 바이트 크기로 제한되는 메모리 LRU 계층과 선택적인 디스크 계층으로 구성됩니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 128; // 키 문자열 및 맵 엔트리 대략치
+
+    private final EmbeddingCacheConfig embeddingCacheConfig;
+
+    private final LinkedHashMap<String, float[]> memoryCache = new LinkedHashMap<>(1024, 0.75f, true);
+    private long memoryBytes = 0;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private Path diskPath;
+
+    @PostConstruct
+    public void init() {
+        if (embeddingCacheConfig.getEnabled() && embeddingCacheConfig.getDiskEnabled()) {
+            try {
+                diskPath = Paths.get(embeddingCacheConfig.getDir()).toAbsolutePath().normalize();
+                Files.createDirectories(diskPath);
+            } catch (IOException e) {
+                throw new RuntimeException("임베딩 캐시 디렉토리를 생성할 수 없습니다.", e);
+            }
+        }
+    }
+
+    /**
+     * 캐시된 임베딩 조회 (없으면 null)
+     */
+    public float[] get(String model, String text) {
+        if (!embeddingCacheConfig.getEnabled()) {
+            return null;
+        }
+
+        String key = key(model, text);
+        synchronized (this) {
+            float[] embedding = memoryCache.get(key);
+            if (embedding != null) {
+                memoryHits.incrementAndGet();
+                return embedding;
+            }
+        }
+
+        float[] embedding = readFromDisk(key);
+        if (embedding != null) {
+            diskHits.incrementAndGet();
+            putInMemory(key, embedding);
+            return embedding;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 임베딩 저장
+     */
+    public void put(String model, String text, float[] embedding) {
+        if (!embeddingCacheConfig.getEnabled()) {
+            return;
+        }
+
+        String key = key(model, text);
+        putInMemory(key, embedding);
+        writeToDisk(key, embedding);
+    }
+
+    /**
+     * 캐시 통계
+     */
+    public Map<String, Object> getStatistics() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total > 0 ? (double) hits / total : 0.0);
+        synchronized (this) {
+            stats.put("entries", (long) memoryCache.size());
+            stats.put("memoryBytes", memoryBytes);
+        }
+        return stats;
+    }
+
+    private synchronized void putInMemory(String key, float[] embedding) {
+        float[] previous = memoryCache.put(key, embedding);
+        if (previous != null) {
+            memoryBytes -= sizeOf(previous);
+        }
+        memoryBytes += sizeOf(embedding);
+
+        // 최대 크기를 넘으면 가장 오래 사용되지 않은 항목부터 제거
+        var iterator = memoryCache.entrySet().iterator();
+        while (memoryBytes > embeddingCacheConfig.getMaxMemoryBytes() && iterator.hasNext()) {
+            Map.Entry<String, float[]> eldest = iterator.next();
+            memoryBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private float[] readFromDisk(String key) {
+        if (diskPath == null) {
+            return null;
+        }
+
+        Path file = diskFile(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            float[] embedding = new float[in.readInt()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = in.readFloat();
+            }
+            return embedding;
+        } catch (IOException e) {
+            log.warn("임베딩 디스크 캐시 읽기 실패: {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, float[] embedding) {
+        if (diskPath == null) {
+            return;
+        }
+
+        Path file = diskFile(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(embedding.length);
+                for (float value : embedding) {
+                    out.writeFloat(value);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("임베딩 디스크 캐시 저장 실패: {}", file, e);
+        }
+    }
+
+    private Path diskFile(String key) {
+        return diskPath.resolve(key.substring(0, 2)).resolve(key + ".f32");
+    }
+
+    private long sizeOf(float[] embedding) {
+        return (long) embedding.length * Float.BYTES + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private String key(String model, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.GenerationConfig;
+import com.medicine.rag.model.QueryHistory.PromptType;
+import com.medicine.rag.util.PromptBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * 답변 생성 동시 실행 제한
+ * 동시에 생성하는 요청 수를 제한하고, 나머지는 크기가 제한된 대기열에서 순서를 기다립니다.
+ * 답변이 짧은 프롬프트 방식일수록 먼저 처리하되, 우선순위 차이는 대기 시간으로 환산되어
+ * 오래 기다린 요청이 계속 밀리지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationAdmission {
+
+    private static final double AVERAGE_WEIGHT = 0.2; // 평균 생성 시간 갱신 가중치
+
+    private final GenerationConfig generationConfig;
+    private final PromptBuilder promptBuilder;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparingLong(Waiter::order).thenComparingLong(Waiter::sequence));
+    private long sequence = 0;
+    private int running = 0;
+
+    private volatile double averageGenerationMs = 10_000;
+    private int minAnswerReserve;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        minAnswerReserve = Arrays.stream(PromptType.values())
+                .mapToInt(promptBuilder::getAnswerReserve)
+                .min()
+                .orElse(0);
+        Gauge.builder("llm.generation.active", this, admission -> admission.locked(() -> admission.running))
+                .description("생성 중인 답변 수")
+                .register(meterRegistry);
+        Gauge.builder("llm.generation.queued", this, admission -> admission.locked(admission.queue::size))
+                .description("생성 대기열 길이")
+                .register(meterRegistry);
+        rejected = Counter.builder("llm.generation.rejected")
+                .description("대기열이 가득 차거나 대기 시간이 초과되어 거절된 요청 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 생성 허가 획득 (대기열이 가득 차거나 대기 시간을 넘기면 GenerationRejectedException)
+     * 반환된 허가는 생성이 끝나면 반드시 닫아야 합니다.
+     */
+    public Permit acquire(PromptType promptType) throws InterruptedIOException {
+        long arrival = System.nanoTime();
+        lock.lock();
+        try {
+            if (running < generationConfig.getMaxConcurrent() && queue.isEmpty()) {
+                running++;
+                return grant(promptType, arrival);
+            }
+            if (queue.size() >= generationConfig.getQueueCapacity()) {
+                throw reject("답변 생성 요청이 많아 대기열이 가득 찼습니다.");
+            }
+
+            Waiter waiter = new Waiter(arrival + priorityOffsetNanos(promptType), sequence++, lock.newCondition());
+            queue.add(waiter);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(generationConfig.getMaxQueueWaitMs());
+            while (!waiter.granted) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    throw reject("답변 생성 대기 시간이 초과되었습니다.");
+                }
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        running--;
+                        dispatch();
+                    } else {
+                        queue.remove(waiter);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("답변 생성 대기 중 중단되었습니다.");
+                }
+            }
+            return grant(promptType, arrival);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 대기열에 자리가 없으면 바로 거절 (스트리밍 응답을 시작하기 전 확인용)
+     */
+    public void checkCapacity() {
+        lock.lock();
+        try {
+            if (queue.size() >= generationConfig.getQueueCapacity()) {
+                throw reject("답변 생성 요청이 많아 대기열이 가득 찼습니다.");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 생성 대기열에 들어가기 전 단계에서 요청을 받을 수 없을 때의 거절 예외 (재시도 시간 포함)
+     */
+    public GenerationRejectedException overloaded(String message) {
+        lock.lock();
+        try {
+            return reject(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit grant(PromptType promptType, long arrival) {
+        long waitNanos = System.nanoTime() - arrival;
+        Timer.builder("llm.generation.queue.wait")
+                .description("답변 생성 대기열 대기 시간")
+                .tag("promptType", promptType.name())
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+        return new Permit(System.nanoTime());
+    }
+
+    private void release(long startedAt) {
+        double elapsedMs = (System.nanoTime() - startedAt) / 1_000_000.0;
+        averageGenerationMs = averageGenerationMs * (1 - AVERAGE_WEIGHT) + elapsedMs * AVERAGE_WEIGHT;
+        lock.lock();
+        try {
+            running--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 빈 자리만큼 대기열 앞의 요청을 깨움 (lock 보유 상태에서 호출)
+     */
+    private void dispatch() {
+        while (running < generationConfig.getMaxConcurrent() && !queue.isEmpty()) {
+            Waiter next = queue.poll();
+            next.granted = true;
+            running++;
+            next.condition.signal();
+        }
+    }
+
+    /**
+     * 거절 예외 생성 (lock 보유 상태에서 호출)
+     * 대기열을 비우는 데 걸릴 시간을 평균 생성 시간으로 추정해 재시도 시간을 안내합니다.
+     */
+    private GenerationRejectedException reject(String message) {
+        rejected.increment();
+        double drainMs = averageGenerationMs * (queue.size() + 1) / generationConfig.getMaxConcurrent();
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(drainMs / 1000));
+        log.warn("{} (처리 중: {}, 대기: {}, 재시도 권장: {}초)", message, running, queue.size(), retryAfterSeconds);
+        return new GenerationRejectedException(message, retryAfterSeconds);
+    }
+
+    /**
+     * 프롬프트 방식별 대기 순서 보정 (답변 예약 토큰 256개당 한 단계)
+     */
+    private long priorityOffsetNanos(PromptType promptType) {
+        int reserveDelta = promptBuilder.getAnswerReserve(promptType) - minAnswerReserve;
+        return TimeUnit.MILLISECONDS.toNanos(generationConfig.getPriorityStepMs()) * reserveDelta / 256;
+    }
+
+    private int locked(IntSupplier supplier) {
+        lock.lock();
+        try {
+            return supplier.getAsInt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 생성 허가
+     */
+    public class Permit implements AutoCloseable {
+
+        private final long startedAt;
+        private boolean closed = false;
+
+        private Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(startedAt);
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final long order;
+        private final long sequence;
+        private final Condition condition;
+        private boolean granted = false;
+
+        private Waiter(long order, long sequence, Condition condition) {
+            this.order = order;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        long order() {
+            return order;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+    }
+}
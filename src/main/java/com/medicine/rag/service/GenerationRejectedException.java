@@ -0,0 +1,23 @@
+package com.medicine.rag.service;
+
+/**
+ * 답변 생성 대기열이 가득 찼거나 대기 시간이 초과되어 요청을 받지 못한 경우
+ */
+public class GenerationRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public GenerationRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 다시 시도하기까지 권장 대기 시간 (초)
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,144 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.dto.IngestionJobResponse;
+import com.medicine.rag.model.Document;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.repository.IngestionJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 문서 수집 작업 서비스
+ * 업로드된 문서를 작업 큐에 등록하고, 제한된 워커 풀에서 비동기로 처리합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionJobService {
+
+    private final IngestionJobRepository ingestionJobRepository;
+    private final DocumentService documentService;
+    private final ThreadPoolExecutor ingestionExecutor;
+
+    /**
+     * 문서 업로드 작업 등록
+     */
+    public IngestionJobResponse submit(MultipartFile file) throws IOException {
+        IngestionJob job = documentService.storeUpload(file);
+        if (job.getStatus() == IngestionJob.Status.COMPLETED) {
+            // 같은 내용의 기존 문서를 재사용해 처리할 작업이 없음
+            return toResponse(job);
+        }
+        return enqueue(job);
+    }
+
+    /**
+     * 기존 문서의 새 버전 업로드 작업 등록 (문서가 없으면 빈 값)
+     */
+    public Optional<IngestionJobResponse> submitRevision(Long documentId, MultipartFile file) throws IOException {
+        Optional<IngestionJob> job = documentService.storeRevision(documentId, file);
+        if (job.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(enqueue(job.get()));
+    }
+
+    /**
+     * 작업을 워커 풀에 등록
+     */
+    private IngestionJobResponse enqueue(IngestionJob job) throws IOException {
+        try {
+            ingestionExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.setStatus(IngestionJob.Status.FAILED);
+            job.setErrorMessage("처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+            ingestionJobRepository.save(job);
+            documentService.releaseFile(job.getFilePath());
+            throw new IllegalStateException(job.getErrorMessage(), e);
+        }
+
+        log.info("문서 수집 작업 등록: {} (작업 ID: {})", job.getOriginalFileName(), job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * 작업 상태 조회
+     */
+    public Optional<IngestionJobResponse> getJob(Long id) {
+        return ingestionJobRepository.findById(id).map(this::toResponse);
+    }
+
+    /**
+     * 애플리케이션 재시작 시 완료되지 않은 작업 재개
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<IngestionJob> jobs = ingestionJobRepository.findByStatusInOrderByCreatedAtAsc(
+                EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING));
+
+        for (IngestionJob job : jobs) {
+            log.info("미완료 문서 수집 작업 재개: {} (작업 ID: {}, 단계: {})",
+                    job.getOriginalFileName(), job.getId(), job.getStage());
+            try {
+                ingestionExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                // 대기열에 들어가지 못한 작업은 QUEUED 상태로 남아 다음 재시작 시 재개됩니다.
+                log.warn("처리 대기열이 가득 차 작업 재개를 보류합니다. (작업 ID: {})", job.getId());
+            }
+        }
+    }
+
+    /**
+     * 작업 실행
+     */
+    private void run(IngestionJob job) {
+        try {
+            Document document = documentService.ingest(job);
+            job.setDocumentId(document.getId());
+            job.setStatus(IngestionJob.Status.COMPLETED);
+            job.setErrorMessage(null);
+        } catch (Exception e) {
+            log.error("문서 수집 작업 실패 (작업 ID: {})", job.getId(), e);
+            job.setStatus(IngestionJob.Status.FAILED);
+            job.setErrorMessage(e.getMessage());
+        }
+        ingestionJobRepository.save(job);
+        if (job.getStatus() == IngestionJob.Status.FAILED) {
+            documentService.discardFailedIngestion(job);
+        }
+    }
+
+    /**
+     * 엔티티를 응답 DTO로 변환
+     */
+    private IngestionJobResponse toResponse(IngestionJob job) {
+        return IngestionJobResponse.builder()
+                .jobId(job.getId())
+                .documentId(job.getDocumentId())
+                .duplicateOfDocumentId(job.getDuplicateOfDocumentId())
+                .batchId(job.getBatchId())
+                .fileName(job.getOriginalFileName())
+                .fileType(job.getFileType())
+                .fileSize(job.getFileSize())
+                .status(job.getStatus())
+                .stage(job.getStage())
+                .stageDescription(job.getStage() != null ? job.getStage().getDescription() : null)
+                .totalChunks(job.getTotalChunks())
+                .processedChunks(job.getProcessedChunks())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.IngestionConfig;
+import com.medicine.rag.dto.PipelineStageStatus;
+import com.medicine.rag.model.Document;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.repository.IngestionJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일괄 문서 수집 파이프라인
+ * 추출(parse) → 임베딩(embed) → 인덱싱(index) 단계마다 크기가 제한된 대기열과 전용 스레드를 두어,
+ * CPU를 쓰는 텍스트 추출과 외부 서버를 기다리는 임베딩/인덱싱이 서로 다른 문서에서 동시에 진행됩니다.
+ * 다음 단계 대기열이 가득 차면 앞 단계가 기다리므로(역압) 메모리에 쌓이는 문서 수가 제한됩니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionPipeline {
+
+    private final DocumentService documentService;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final IngestionConfig ingestionConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Stage parseStage;
+    private Stage embedStage;
+    private Stage indexStage;
+
+    @PostConstruct
+    public void init() {
+        int capacity = ingestionConfig.getPipelineQueueCapacity();
+        parseStage = new Stage("parse", ingestionConfig.getEffectivePipelineParseThreads(), capacity);
+        embedStage = new Stage("embed", ingestionConfig.getPipelineEmbedThreads(), capacity);
+        indexStage = new Stage("index", ingestionConfig.getPipelineIndexThreads(), capacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Stage stage : stages()) {
+            stage.stop();
+        }
+    }
+
+    /**
+     * 수집 작업을 파이프라인에 등록 (추출 단계 대기열이 가득 차면 자리가 날 때까지 대기)
+     */
+    public void submit(IngestionJob job) throws InterruptedException {
+        parseStage.put(job, () -> parse(job));
+    }
+
+    /**
+     * 단계별 현재 상태
+     */
+    public List<PipelineStageStatus> getStatus() {
+        return stages().stream().map(Stage::toStatus).toList();
+    }
+
+    private void parse(IngestionJob job) throws Exception {
+        // 같은 일괄 작업 안에서 앞서 처리된 같은 내용의 파일이 있으면 재사용
+        if (documentService.linkIfDuplicate(job).isPresent()) {
+            return;
+        }
+        DocumentService.ParsedDocument parsed = documentService.parse(job);
+        embedStage.put(job, () -> embed(parsed));
+    }
+
+    private void embed(DocumentService.ParsedDocument parsed) throws Exception {
+        documentService.embed(parsed);
+        indexStage.put(parsed.getJob(), () -> index(parsed));
+    }
+
+    private void index(DocumentService.ParsedDocument parsed) throws Exception {
+        IngestionJob job = parsed.getJob();
+        Document document = documentService.complete(parsed);
+        job.setDocumentId(document.getId());
+        job.setStatus(IngestionJob.Status.COMPLETED);
+        job.setErrorMessage(null);
+        ingestionJobRepository.save(job);
+    }
+
+    private void fail(IngestionJob job, Exception e) {
+        log.error("문서 수집 작업 실패 (작업 ID: {})", job.getId(), e);
+        job.setStatus(IngestionJob.Status.FAILED);
+        job.setErrorMessage(e.getMessage());
+        ingestionJobRepository.save(job);
+        documentService.discardFailedIngestion(job);
+    }
+
+    private List<Stage> stages() {
+        return List.of(parseStage, embedStage, indexStage);
+    }
+
+    @FunctionalInterface
+    private interface StageTask {
+        void run() throws Exception;
+    }
+
+    private record StageItem(IngestionJob job, StageTask task) {
+    }
+
+    /**
+     * 파이프라인 단계 (대기열 + 전용 작업 스레드)
+     */
+    private final class Stage {
+
+        private final String name;
+        private final int threads;
+        private final BlockingQueue<StageItem> queue;
+        private final List<Thread> workers = new ArrayList<>();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final Timer blockedTimer;
+
+        private Stage(String name, int threads, int capacity) {
+            this.name = name;
+            this.threads = threads;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+
+            Gauge.builder("rag.ingestion.pipeline.queued", queue, BlockingQueue::size)
+                    .description("일괄 수집 단계 대기열 길이")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            Gauge.builder("rag.ingestion.pipeline.active", active, AtomicInteger::get)
+                    .description("일괄 수집 단계에서 처리 중인 작업 수")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            blockedTimer = Timer.builder("rag.ingestion.pipeline.blocked")
+                    .description("대기열이 가득 차 앞 단계가 기다린 시간")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+
+            for (int i = 1; i <= threads; i++) {
+                Thread worker = new Thread(this::work, "ingest-" + name + "-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+        }
+
+        /**
+         * 작업 등록 (대기열이 가득 차면 기다린 시간을 역압으로 기록)
+         */
+        void put(IngestionJob job, StageTask task) throws InterruptedException {
+            StageItem item = new StageItem(job, task);
+            if (queue.offer(item)) {
+                return;
+            }
+            long start = System.nanoTime();
+            queue.put(item);
+            long waited = System.nanoTime() - start;
+            blockedNanos.addAndGet(waited);
+            blockedTimer.record(waited, TimeUnit.NANOSECONDS);
+        }
+
+        private void work() {
+            while (!Thread.currentThread().isInterrupted()) {
+                StageItem item;
+                try {
+                    item = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                active.incrementAndGet();
+                try {
+                    item.task().run();
+                    processed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    // 종료 중: 작업은 RUNNING 상태로 남아 재시작 시 재개됩니다.
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    fail(item.job(), e);
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        }
+
+        void stop() {
+            workers.forEach(Thread::interrupt);
+        }
+
+        PipelineStageStatus toStatus() {
+            int queued = queue.size();
+            return PipelineStageStatus.builder()
+                    .stage(name)
+                    .threads(threads)
+                    .active(active.get())
+                    .queued(queued)
+                    .capacity(queued + queue.remainingCapacity())
+                    .processed(processed.get())
+                    .failed(failed.get())
+                    .blockedMs(TimeUnit.NANOSECONDS.toMillis(blockedNanos.get()))
+                    .saturated(queue.remainingCapacity() == 0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,928 @@
+package com.medicine.rag.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medicine.rag.config.FileStorageConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.util.VectorMath;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 내장 벡터 저장소 (HNSW 인덱스)
+ * 외부 Chroma 서버 없이 애플리케이션 프로세스 안에서 벡터 검색을 수행합니다.
+ *
+ * 저장 구조 (file.upload-dir/vector-store.local.dir):
+ * - vectors.f32: 정규화된 float32 벡터 (메모리 매핑, 노드 순서대로 고정 크기)
+ * - records.jsonl: 노드별 ID, 메타데이터, 원문 및 삭제 기록 (추가 전용 로그)
+ * - graph.bin: 일정 개수의 노드가 추가될 때마다와 종료 시 저장되는 HNSW 그래프 스냅샷
+ *   (없거나 오래된 경우 스냅샷 이후 노드만 벡터로부터 다시 연결)
+ *
+ * 삭제된 노드는 그래프의 탐색 경로로 남아 있다가, 삭제 비율이 vector-store.local.compact-deleted-ratio를 넘으면
+ * 살아 있는 노드만으로 세 파일을 새로 만들어 교체합니다(정리). 새 파일은 .compact 확장자로 만들고,
+ * 모두 기록되면 compact.done 표시 파일을 남긴 뒤 교체하므로 교체 도중 중단되어도 다음 시작 시 교체를 마무리합니다.
+ */
+@Service
+@ConditionalOnProperty(name = "vector-store.type", havingValue = "local")
+@RequiredArgsConstructor
+@Slf4j
+public class LocalVectorStore implements VectorStore {
+
+    private static final String VECTORS_FILE = "vectors.f32";
+    private static final String RECORDS_FILE = "records.jsonl";
+    private static final String GRAPH_FILE = "graph.bin";
+    private static final String META_FILE = "index.properties";
+    private static final String COMPACT_SUFFIX = ".compact"; // 정리 중 새로 만드는 파일 확장자
+    private static final String COMPACT_MARKER = "compact.done"; // 정리 파일이 모두 기록되었음을 표시
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024; // 매핑 단위
+
+    private final VectorStoreConfig vectorStoreConfig;
+    private final FileStorageConfig fileStorageConfig;
+    private final OllamaService ollamaService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private final Random random = new Random(42);
+
+    private Path indexDir;
+    private VectorFile vectors;
+    private FileChannel recordChannel;
+    private int dimension; // 첫 벡터 저장 시 결정
+    private int nodesPerSegment;
+
+    // 노드 정보 (노드 번호 = 저장 순서, 정리 후에는 새 번호로 교체)
+    private List<String> nodeIds = new ArrayList<>();
+    private long[] recordOffsets = new long[1024];
+    private Map<String, Integer> idToNode = new HashMap<>();
+    private BitSet deleted = new BitSet();
+
+    private Graph graph;
+    private int nodesSinceSnapshot = 0; // 마지막 그래프 스냅샷 이후 추가된 노드 수
+    private long version = 0; // 추가/삭제마다 증가 (정리 중 변경 감지)
+
+    @PostConstruct
+    public void init() {
+        try {
+            indexDir = Paths.get(fileStorageConfig.getUploadDir()).resolve(vectorStoreConfig.getLocalDir())
+                    .toAbsolutePath().normalize();
+            Files.createDirectories(indexDir);
+
+            recoverCompaction();
+            loadMeta();
+            vectors = new VectorFile(indexDir.resolve(VECTORS_FILE));
+            recordChannel = FileChannel.open(indexDir.resolve(RECORDS_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            loadRecords();
+            if (!nodeIds.isEmpty()) {
+                if (dimension == 0) {
+                    throw new IOException(META_FILE + " 파일이 없어 벡터 차원을 알 수 없습니다.");
+                }
+                // 검색(읽기 잠금) 중에는 새 매핑이 생기지 않도록 기존 벡터 영역을 미리 매핑
+                vectors.view(nodeIds.size() - 1);
+            }
+            graph = new Graph(vectors);
+            int restored = graph.load(indexDir.resolve(GRAPH_FILE), nodeIds.size());
+            for (int node = restored; node < nodeIds.size(); node++) {
+                graph.insert(node);
+            }
+            nodesSinceSnapshot = nodeIds.size() - restored;
+
+            log.info("내장 벡터 인덱스 로드 완료: {} (노드 {}개, 삭제된 노드 {}개, 그래프 재구성 {}개)",
+                    indexDir, nodeIds.size(), deleted.cardinality(), nodeIds.size() - restored);
+        } catch (IOException e) {
+            throw new RuntimeException("내장 벡터 인덱스를 열 수 없습니다: " + indexDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            graph.save(indexDir.resolve(GRAPH_FILE));
+            vectors.close();
+            recordChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addDocuments(List<String> documentIds, List<String> texts,
+                             List<Map<String, String>> metadatas) throws IOException {
+        int batchSize = vectorStoreConfig.getBatchSize();
+        for (int from = 0; from < documentIds.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, documentIds.size());
+
+            // 임베딩 생성은 잠금 밖에서 수행
+            List<float[]> embeddings = ollamaService.generateEmbeddings(texts.subList(from, to));
+
+            lock.writeLock().lock();
+            try {
+                for (float[] embedding : embeddings) {
+                    checkDimension(embedding);
+                }
+
+                // 벡터를 먼저 디스크에 반영한 뒤 이를 가리키는 레코드를 기록
+                int firstNode = nodeIds.size();
+                for (int i = 0; i < embeddings.size(); i++) {
+                    vectors.write(firstNode + i, VectorMath.normalize(embeddings.get(i)));
+                }
+                vectors.force();
+
+                for (int i = from; i < to; i++) {
+                    addNode(documentIds.get(i), texts.get(i), metadatas.get(i));
+                }
+                recordChannel.force(false);
+                version++;
+
+                nodesSinceSnapshot += to - from;
+                if (nodesSinceSnapshot >= vectorStoreConfig.getGraphSnapshotInterval()) {
+                    graph.save(indexDir.resolve(GRAPH_FILE));
+                    nodesSinceSnapshot = 0;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public void deleteDocuments(List<String> documentIds) throws IOException {
+        lock.writeLock().lock();
+        try {
+            boolean changed = false;
+            for (String id : documentIds) {
+                if (!idToNode.containsKey(id)) {
+                    continue;
+                }
+                ObjectNode tombstone = objectMapper.createObjectNode();
+                tombstone.put("id", id);
+                tombstone.put("deleted", true);
+                appendRecord(tombstone);
+                removeNode(id);
+                changed = true;
+            }
+            if (changed) {
+                recordChannel.force(false);
+                version++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * 문서의 모든 청크 벡터 삭제 (청크 ID는 "{vectorId}_chunk_"로 시작)
+     */
+    @Override
+    public void deleteByVectorId(String vectorId) throws IOException {
+        String prefix = vectorId + CHUNK_ID_SEPARATOR;
+        List<String> ids;
+        lock.readLock().lock();
+        try {
+            ids = idToNode.keySet().stream().filter(id -> id.startsWith(prefix)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        deleteDocuments(ids);
+    }
+
+    /**
+     * 저장된 청크의 vectorId 순회 (청크 ID에서 추출)
+     */
+    @Override
+    public void scanVectorIds(int batchSize, Consumer<Set<String>> consumer) {
+        List<String> ids;
+        lock.readLock().lock();
+        try {
+            ids = new ArrayList<>(idToNode.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            Set<String> vectorIds = new HashSet<>();
+            for (String id : ids.subList(from, Math.min(from + batchSize, ids.size()))) {
+                int separator = id.lastIndexOf(CHUNK_ID_SEPARATOR);
+                if (separator > 0) {
+                    vectorIds.add(id.substring(0, separator));
+                }
+            }
+            consumer.accept(vectorIds);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> query(String queryText, int topK) throws IOException {
+        return query(ollamaService.generateEmbedding(queryText), topK);
+    }
+
+    /**
+     * 벡터 검색
+     * 정리 후 교체되는 레코드 파일을 읽지 않도록 결과 레코드도 읽기 잠금 안에서 읽습니다.
+     */
+    @Override
+    public List<Map<String, Object>> query(float[] queryEmbedding, int topK) throws IOException {
+        float[] query = VectorMath.normalize(queryEmbedding);
+
+        lock.readLock().lock();
+        try {
+            if (graph.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (query.length != dimension) {
+                throw new IOException("임베딩 차원이 인덱스와 다릅니다: " + query.length + " != " + dimension);
+            }
+
+            // 삭제된 노드를 걸러낸 뒤에도 topK개가 남도록 여유 있게 탐색
+            int ef = Math.max(vectorStoreConfig.getEfSearch(), topK * 2);
+            List<Candidate> nearest = graph.search(query, ef);
+            nearest.removeIf(candidate -> deleted.get(candidate.node()));
+            nearest.sort(Comparator.comparingDouble(Candidate::distance));
+            if (nearest.size() > topK) {
+                nearest = nearest.subList(0, topK);
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>(nearest.size());
+            for (Candidate candidate : nearest) {
+                JsonNode record = readRecord(recordOffsets[candidate.node()]);
+                Map<String, Object> result = new HashMap<>();
+                result.put("id", record.get("id").asText());
+                result.put("document", record.get("document").asText());
+                result.put("metadata", objectMapper.convertValue(record.get("metadata"), Map.class));
+                result.put("distance", (double) candidate.distance());
+                results.add(result);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("count", (long) idToNode.size());
+            stats.put("name", "local:" + indexDir.getFileName());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== 저장 =====
+
+    private void checkDimension(float[] embedding) throws IOException {
+        if (dimension == 0) {
+            dimension = embedding.length;
+            saveMeta();
+        } else if (embedding.length != dimension) {
+            throw new IOException("임베딩 차원이 인덱스와 다릅니다: " + embedding.length + " != " + dimension);
+        }
+    }
+
+    /**
+     * 노드 추가 (벡터는 이미 기록된 상태, 같은 ID의 기존 노드는 삭제 처리)
+     */
+    private void addNode(String id, String text, Map<String, String> metadata) throws IOException {
+        int node = nodeIds.size();
+
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("node", node);
+        record.put("id", id);
+        record.set("metadata", objectMapper.valueToTree(metadata));
+        record.put("document", text);
+        long offset = appendRecord(record);
+
+        registerNode(node, id, offset);
+        graph.insert(node);
+    }
+
+    private void registerNode(int node, String id, long offset) {
+        nodeIds.add(id);
+        if (node >= recordOffsets.length) {
+            recordOffsets = Arrays.copyOf(recordOffsets, recordOffsets.length * 2);
+        }
+        recordOffsets[node] = offset;
+
+        Integer previous = idToNode.put(id, node);
+        if (previous != null) {
+            deleted.set(previous);
+        }
+    }
+
+    /**
+     * 노드 삭제 처리 (그래프 연결은 탐색 경로로 계속 사용하고 검색 결과에서만 제외)
+     */
+    private void removeNode(String id) {
+        Integer node = idToNode.remove(id);
+        if (node != null) {
+            deleted.set(node);
+        }
+    }
+
+    private long appendRecord(ObjectNode record) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        long offset = recordChannel.size();
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += recordChannel.write(buffer, position);
+        }
+        return offset;
+    }
+
+    private JsonNode readRecord(long offset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = offset;
+        while (true) {
+            buffer.clear();
+            int read = recordChannel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return objectMapper.readTree(line.toByteArray());
+                }
+                line.write(b);
+            }
+            position += read;
+        }
+        return objectMapper.readTree(line.toByteArray());
+    }
+
+    private void loadMeta() throws IOException {
+        Path metaFile = indexDir.resolve(META_FILE);
+        if (Files.exists(metaFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(metaFile)) {
+                properties.load(in);
+            }
+            setDimension(Integer.parseInt(properties.getProperty("dimension")));
+        }
+    }
+
+    private void saveMeta() throws IOException {
+        setDimension(dimension);
+        Properties properties = new Properties();
+        properties.setProperty("dimension", String.valueOf(dimension));
+        try (OutputStream out = Files.newOutputStream(indexDir.resolve(META_FILE))) {
+            properties.store(out, "local vector index");
+        }
+    }
+
+    private void setDimension(int dimension) {
+        this.dimension = dimension;
+        this.nodesPerSegment = (int) Math.max(1, SEGMENT_BYTES / ((long) dimension * Float.BYTES));
+    }
+
+    /**
+     * 레코드 로그를 읽어 노드 정보 복원 (마지막 줄이 불완전하면 잘라냄)
+     */
+    private void loadRecords() throws IOException {
+        long offset = 0;
+        long lineStart = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(indexDir.resolve(RECORDS_FILE)))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                JsonNode record = objectMapper.readTree(line.toByteArray());
+                if (record.path("deleted").asBoolean(false)) {
+                    removeNode(record.get("id").asText());
+                } else {
+                    registerNode(record.get("node").asInt(), record.get("id").asText(), lineStart);
+                }
+                line.reset();
+                lineStart = offset;
+            }
+        }
+
+        if (lineStart < recordChannel.size()) {
+            log.warn("내장 벡터 인덱스의 불완전한 마지막 레코드를 제거합니다.");
+            recordChannel.truncate(lineStart);
+        }
+    }
+
+    // ===== 정리 (삭제된 노드 제거) =====
+
+    /**
+     * 삭제된 노드 비율이 기준을 넘으면 정리 (다른 스레드가 정리 중이면 건너뜀)
+     * 정리에 실패해도 기존 인덱스는 그대로 사용할 수 있으므로 호출한 쓰기 작업은 실패로 처리하지 않습니다.
+     */
+    private void compactIfNeeded() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            boolean needed;
+            lock.readLock().lock();
+            try {
+                int deletedCount = deleted.cardinality();
+                needed = deletedCount >= vectorStoreConfig.getCompactMinDeleted()
+                        && deletedCount >= nodeIds.size() * vectorStoreConfig.getCompactDeletedRatio();
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (needed) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("내장 벡터 인덱스 정리 실패 - 기존 인덱스를 계속 사용합니다: {}", e.getMessage());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * 살아 있는 노드만으로 벡터/레코드/그래프 파일을 새로 만들어 교체
+     * 새 파일은 읽기 잠금 안에서 만들므로 검색은 계속되고 쓰기만 기다리며, 교체만 쓰기 잠금으로 수행합니다.
+     */
+    private void compact() throws IOException {
+        deleteCompactionFiles();
+        long startTime = System.currentTimeMillis();
+
+        long startVersion;
+        int previousCount;
+        List<String> compactedIds = new ArrayList<>();
+        long[] compactedOffsets;
+        Map<String, Integer> compactedIdToNode = new HashMap<>();
+        Graph compactedGraph;
+        VectorFile compactedVectors = new VectorFile(indexDir.resolve(VECTORS_FILE + COMPACT_SUFFIX));
+        try {
+            lock.readLock().lock();
+            try {
+                startVersion = version;
+                previousCount = nodeIds.size();
+                compactedOffsets = new long[Math.max(idToNode.size(), 1)];
+
+                Path recordsFile = indexDir.resolve(RECORDS_FILE + COMPACT_SUFFIX);
+                try (FileOutputStream file = new FileOutputStream(recordsFile.toFile());
+                     OutputStream out = new BufferedOutputStream(file)) {
+                    long offset = 0;
+                    for (int node = 0; node < previousCount; node++) {
+                        if (deleted.get(node)) {
+                            continue;
+                        }
+                        int compactedNode = compactedIds.size();
+                        compactedVectors.write(compactedNode, vectors.read(node));
+
+                        ObjectNode record = (ObjectNode) readRecord(recordOffsets[node]);
+                        record.put("node", compactedNode);
+                        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+                        out.write(line);
+
+                        String id = record.get("id").asText();
+                        compactedIds.add(id);
+                        compactedOffsets[compactedNode] = offset;
+                        compactedIdToNode.put(id, compactedNode);
+                        offset += line.length;
+                    }
+                    out.flush();
+                    file.getFD().sync();
+                }
+                compactedVectors.force();
+
+                compactedGraph = new Graph(compactedVectors);
+                for (int node = 0; node < compactedIds.size(); node++) {
+                    compactedGraph.insert(node);
+                }
+                compactedGraph.save(indexDir.resolve(GRAPH_FILE + COMPACT_SUFFIX));
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            compactedVectors.close();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (version != startVersion) {
+                // 새 파일을 만드는 사이 쓰기가 있었으면 버리고 다음 쓰기 후 다시 시도
+                deleteCompactionFiles();
+                log.info("내장 벡터 인덱스 정리 중 변경이 있어 다음에 다시 정리합니다.");
+                return;
+            }
+
+            Files.createFile(indexDir.resolve(COMPACT_MARKER));
+            vectors.close();
+            recordChannel.close();
+            try {
+                finishCompaction();
+            } catch (IOException e) {
+                log.error("내장 벡터 인덱스 파일 교체 실패 - 재시작 시 교체를 마무리합니다.", e);
+                throw e;
+            }
+
+            vectors = new VectorFile(indexDir.resolve(VECTORS_FILE));
+            recordChannel = FileChannel.open(indexDir.resolve(RECORDS_FILE),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!compactedIds.isEmpty()) {
+                vectors.view(compactedIds.size() - 1);
+            }
+            compactedGraph.vectors = vectors;
+
+            nodeIds = compactedIds;
+            recordOffsets = compactedOffsets;
+            idToNode = compactedIdToNode;
+            deleted = new BitSet();
+            graph = compactedGraph;
+            nodesSinceSnapshot = 0;
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("내장 벡터 인덱스 정리 완료: 노드 {}개 → {}개 ({}ms)",
+                previousCount, compactedIds.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 시작 시 중단된 정리 처리 (표시 파일이 있으면 교체를 마무리하고, 없으면 만들다 만 파일 삭제)
+     */
+    private void recoverCompaction() throws IOException {
+        if (Files.exists(indexDir.resolve(COMPACT_MARKER))) {
+            log.warn("중단된 내장 벡터 인덱스 정리를 마무리합니다.");
+            finishCompaction();
+        } else {
+            deleteCompactionFiles();
+        }
+    }
+
+    /**
+     * 새로 만든 파일로 교체 후 표시 파일 삭제 (이미 교체된 파일은 건너뜀)
+     */
+    private void finishCompaction() throws IOException {
+        for (String fileName : List.of(VECTORS_FILE, RECORDS_FILE, GRAPH_FILE)) {
+            Path compacted = indexDir.resolve(fileName + COMPACT_SUFFIX);
+            if (Files.exists(compacted)) {
+                Files.move(compacted, indexDir.resolve(fileName),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.delete(indexDir.resolve(COMPACT_MARKER));
+    }
+
+    private void deleteCompactionFiles() throws IOException {
+        for (String fileName : List.of(VECTORS_FILE, RECORDS_FILE, GRAPH_FILE)) {
+            Files.deleteIfExists(indexDir.resolve(fileName + COMPACT_SUFFIX));
+        }
+    }
+
+    // ===== 벡터 파일 =====
+
+    /**
+     * 메모리 매핑된 벡터 파일 (노드 번호 순서의 고정 크기 float32 배열)
+     */
+    private final class VectorFile implements Closeable {
+
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> segments = new ArrayList<>();
+        private final List<FloatBuffer> views = new ArrayList<>();
+        private final BitSet dirtySegments = new BitSet(); // 마지막 force 이후 기록된 매핑 구간
+
+        VectorFile(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        FloatBuffer view(int node) throws IOException {
+            int segment = node / nodesPerSegment;
+            while (segments.size() <= segment) {
+                long segmentBytes = (long) nodesPerSegment * dimension * Float.BYTES;
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE,
+                        segments.size() * segmentBytes, segmentBytes);
+                segments.add(mapped);
+                views.add(mapped.asFloatBuffer());
+            }
+            return views.get(segment);
+        }
+
+        void write(int node, float[] vector) throws IOException {
+            FloatBuffer view = view(node);
+            int base = (node % nodesPerSegment) * dimension;
+            for (int i = 0; i < dimension; i++) {
+                view.put(base + i, vector[i]);
+            }
+            dirtySegments.set(node / nodesPerSegment);
+        }
+
+        float[] read(int node) throws IOException {
+            FloatBuffer view = view(node);
+            int base = (node % nodesPerSegment) * dimension;
+            float[] vector = new float[dimension];
+            view.get(base, vector);
+            return vector;
+        }
+
+        /**
+         * 코사인 거리 (정규화된 벡터 기준 1 - 내적)
+         */
+        float distance(float[] query, int node) throws IOException {
+            FloatBuffer view = view(node);
+            int base = (node % nodesPerSegment) * dimension;
+            float dot = 0;
+            for (int i = 0; i < dimension; i++) {
+                dot += query[i] * view.get(base + i);
+            }
+            return 1 - dot;
+        }
+
+        /**
+         * 기록된 매핑 구간만 디스크에 반영
+         */
+        void force() {
+            for (int segment = dirtySegments.nextSetBit(0); segment >= 0;
+                 segment = dirtySegments.nextSetBit(segment + 1)) {
+                segments.get(segment).force();
+            }
+            dirtySegments.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            force();
+            channel.close();
+        }
+    }
+
+    // ===== HNSW =====
+
+    /**
+     * HNSW 그래프: links.get(node)[level] = 이웃 노드 목록
+     */
+    private final class Graph {
+
+        private VectorFile vectors;
+        private final List<int[][]> links = new ArrayList<>();
+        private int entryPoint = -1;
+        private int maxLevel = -1;
+
+        Graph(VectorFile vectors) {
+            this.vectors = vectors;
+        }
+
+        boolean isEmpty() {
+            return entryPoint < 0;
+        }
+
+        /**
+         * 근접 후보 ef개 탐색 (상위 계층은 가장 가까운 노드 하나만 따라 내려감)
+         */
+        List<Candidate> search(float[] query, int ef) throws IOException {
+            int ep = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                ep = searchLayer(query, ep, 1, level).peek().node();
+            }
+            return new ArrayList<>(searchLayer(query, ep, ef, 0));
+        }
+
+        void insert(int node) throws IOException {
+            int m = vectorStoreConfig.getM();
+            int level = randomLevel(m);
+            int[][] nodeLinks = new int[level + 1][];
+            Arrays.fill(nodeLinks, new int[0]);
+            links.add(nodeLinks);
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            float[] vector = vectors.read(node);
+            int ep = entryPoint;
+            for (int lc = maxLevel; lc > level; lc--) {
+                ep = searchLayer(vector, ep, 1, lc).peek().node();
+            }
+
+            for (int lc = Math.min(level, maxLevel); lc >= 0; lc--) {
+                PriorityQueue<Candidate> found = searchLayer(vector, ep, vectorStoreConfig.getEfConstruction(), lc);
+                List<Candidate> candidates = new ArrayList<>(found);
+                candidates.sort(Comparator.comparingDouble(Candidate::distance));
+                ep = candidates.get(0).node();
+
+                int[] neighbors = selectNeighbors(candidates, m);
+                nodeLinks[lc] = neighbors;
+
+                int maxNeighbors = lc == 0 ? m * 2 : m;
+                for (int neighbor : neighbors) {
+                    connect(neighbor, node, lc, maxNeighbors);
+                }
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        }
+
+        /**
+         * 이웃 노드에 역방향 연결 추가 (최대 개수 초과 시 휴리스틱으로 정리)
+         */
+        private void connect(int node, int newNeighbor, int level, int maxNeighbors) throws IOException {
+            int[] current = links.get(node)[level];
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = newNeighbor;
+
+            if (extended.length <= maxNeighbors) {
+                links.get(node)[level] = extended;
+                return;
+            }
+
+            float[] vector = vectors.read(node);
+            List<Candidate> candidates = new ArrayList<>(extended.length);
+            for (int neighbor : extended) {
+                candidates.add(new Candidate(neighbor, vectors.distance(vector, neighbor)));
+            }
+            candidates.sort(Comparator.comparingDouble(Candidate::distance));
+            links.get(node)[level] = selectNeighbors(candidates, maxNeighbors);
+        }
+
+        /**
+         * 이웃 선택 휴리스틱: 이미 선택된 이웃보다 기준 노드에 더 가까운 후보를 우선하여 다양한 방향의 연결을 유지
+         */
+        private int[] selectNeighbors(List<Candidate> sortedCandidates, int m) throws IOException {
+            List<Integer> selected = new ArrayList<>(m);
+            List<Integer> pruned = new ArrayList<>();
+
+            for (Candidate candidate : sortedCandidates) {
+                if (selected.size() >= m) {
+                    break;
+                }
+                float[] candidateVector = vectors.read(candidate.node());
+                boolean diverse = true;
+                for (int chosen : selected) {
+                    if (vectors.distance(candidateVector, chosen) < candidate.distance()) {
+                        diverse = false;
+                        break;
+                    }
+                }
+                if (diverse) {
+                    selected.add(candidate.node());
+                } else {
+                    pruned.add(candidate.node());
+                }
+            }
+
+            // 부족하면 가까운 순으로 채움
+            for (int i = 0; i < pruned.size() && selected.size() < m; i++) {
+                selected.add(pruned.get(i));
+            }
+
+            return selected.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * 한 계층에서 ef개의 근접 후보 탐색
+         * 결과는 가장 먼 후보가 peek되는 힙이며, ef가 1이면 유일한 원소가 가장 가까운 후보입니다.
+         */
+        private PriorityQueue<Candidate> searchLayer(float[] query, int entry, int ef, int level) throws IOException {
+            BitSet visited = new BitSet(links.size());
+            PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+            PriorityQueue<Candidate> results = new PriorityQueue<>(
+                    Comparator.comparingDouble(Candidate::distance).reversed());
+
+            Candidate start = new Candidate(entry, vectors.distance(query, entry));
+            visited.set(entry);
+            candidates.add(start);
+            results.add(start);
+
+            while (!candidates.isEmpty()) {
+                Candidate current = candidates.poll();
+                if (current.distance() > results.peek().distance() && results.size() >= ef) {
+                    break;
+                }
+
+                int[][] currentLinks = links.get(current.node());
+                if (level >= currentLinks.length) {
+                    continue;
+                }
+                for (int neighbor : currentLinks[level]) {
+                    if (visited.get(neighbor)) {
+                        continue;
+                    }
+                    visited.set(neighbor);
+
+                    float distance = vectors.distance(query, neighbor);
+                    if (results.size() < ef || distance < results.peek().distance()) {
+                        Candidate candidate = new Candidate(neighbor, distance);
+                        candidates.add(candidate);
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+
+            return results;
+        }
+
+        private int randomLevel(int m) {
+            double levelMultiplier = 1 / Math.log(Math.max(m, 2));
+            return (int) Math.floor(-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        }
+
+        /**
+         * 그래프 스냅샷 로드 (복원된 노드 수 반환, 레코드보다 노드가 많거나 손상되었으면 0)
+         */
+        int load(Path graphFile, int recordCount) throws IOException {
+            if (!Files.exists(graphFile)) {
+                return 0;
+            }
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(graphFile)))) {
+                int count = in.readInt();
+                if (count > recordCount) {
+                    log.warn("그래프 스냅샷이 레코드보다 많아 그래프를 재구성합니다.");
+                    return 0;
+                }
+                int snapshotEntryPoint = in.readInt();
+                int snapshotMaxLevel = in.readInt();
+
+                for (int node = 0; node < count; node++) {
+                    int[][] nodeLinks = new int[in.readInt() + 1][];
+                    for (int level = 0; level < nodeLinks.length; level++) {
+                        nodeLinks[level] = new int[in.readInt()];
+                        for (int i = 0; i < nodeLinks[level].length; i++) {
+                            nodeLinks[level][i] = in.readInt();
+                        }
+                    }
+                    links.add(nodeLinks);
+                }
+
+                entryPoint = snapshotEntryPoint;
+                maxLevel = snapshotMaxLevel;
+                return count;
+            } catch (EOFException e) {
+                log.warn("그래프 스냅샷이 손상되어 그래프를 재구성합니다.");
+                links.clear();
+                entryPoint = -1;
+                maxLevel = -1;
+                return 0;
+            }
+        }
+
+        /**
+         * 그래프 스냅샷 저장 (임시 파일을 디스크에 반영한 뒤 교체)
+         */
+        void save(Path graphFile) throws IOException {
+            Path tempFile = graphFile.resolveSibling(graphFile.getFileName() + ".tmp");
+            try (FileOutputStream file = new FileOutputStream(tempFile.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(links.size());
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (int[][] nodeLinks : links) {
+                    out.writeInt(nodeLinks.length - 1);
+                    for (int[] levelLinks : nodeLinks) {
+                        out.writeInt(levelLinks.length);
+                        for (int neighbor : levelLinks) {
+                            out.writeInt(neighbor);
+                        }
+                    }
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(tempFile, graphFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.medicine.rag.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ollama 서버 풀
+ * 처리 중인 요청이 가장 적은 서버를 고르고, 연속 실패한 서버는 회로를 열어 일정 시간 제외합니다.
+ * 회로가 열린 시간이 지나면 시험 요청 하나만 보내 복구 여부를 확인합니다.
+ */
+@Slf4j
+public class OllamaEndpointPool {
+
+    private final String name;
+    private final List<Endpoint> endpoints;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public OllamaEndpointPool(String name, List<String> urls, int failureThreshold, long openMillis) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException(name + " Ollama 서버 주소가 없습니다.");
+        }
+        this.name = name;
+        this.endpoints = urls.stream().map(Endpoint::new).toList();
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * 요청을 보낼 서버 선택 (사용 가능한 서버가 없으면 IOException)
+     * 반환된 서버는 요청이 끝난 뒤 반드시 release 해야 합니다.
+     */
+    public Endpoint acquire() throws IOException {
+        for (int attempt = 0; attempt < endpoints.size(); attempt++) {
+            long now = System.currentTimeMillis();
+            int start = Math.floorMod(cursor.getAndIncrement(), endpoints.size());
+            Endpoint best = null;
+            for (int i = 0; i < endpoints.size(); i++) {
+                Endpoint endpoint = endpoints.get((start + i) % endpoints.size());
+                if (endpoint.isAvailable(now) && (best == null || endpoint.inFlight.get() < best.inFlight.get())) {
+                    best = endpoint;
+                }
+            }
+
+            if (best == null) {
+                break;
+            }
+            // 회로가 반만 열린 서버는 시험 요청 하나만 허용
+            if (best.isHalfOpen(now) && !best.trial.compareAndSet(false, true)) {
+                continue;
+            }
+            best.inFlight.incrementAndGet();
+            return best;
+        }
+        throw new IOException(name + " 요청을 처리할 수 있는 Ollama 서버가 없습니다.");
+    }
+
+    /**
+     * 요청 종료 처리
+     * @param success 서버가 정상 응답했는지 여부 (4xx 응답은 서버 장애로 보지 않음)
+     */
+    public void release(Endpoint endpoint, boolean success) {
+        endpoint.inFlight.decrementAndGet();
+        if (success) {
+            close(endpoint);
+        } else {
+            recordFailure(endpoint);
+        }
+    }
+
+    /**
+     * 서버 상태와 무관한 이유로 끝난 요청 종료 처리 (요청자가 응답을 받다가 중단한 경우 등)
+     * 실패 횟수와 회로 상태는 그대로 두고, 시험 요청이었다면 다음 요청이 다시 시험할 수 있게 합니다.
+     */
+    public void releaseNeutral(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+        endpoint.trial.set(false);
+    }
+
+    /**
+     * 주기적 상태 확인 결과 반영
+     * 응답 여부만 갱신하며, 회로는 실제 요청 결과로만 열고 닫습니다.
+     */
+    public void markHealth(Endpoint endpoint, boolean healthy) {
+        boolean wasHealthy = endpoint.healthy;
+        endpoint.healthy = healthy;
+        if (healthy && !wasHealthy) {
+            log.info("{} Ollama 서버 응답 확인: {}", name, endpoint.url);
+        } else if (!healthy && wasHealthy) {
+            log.warn("{} Ollama 서버 응답 없음, 요청 대상에서 제외합니다: {}", name, endpoint.url);
+        }
+    }
+
+    /**
+     * 사용 가능한 서버가 하나라도 있는지 여부
+     */
+    public boolean hasAvailableEndpoint() {
+        long now = System.currentTimeMillis();
+        return endpoints.stream().anyMatch(endpoint -> endpoint.isAvailable(now));
+    }
+
+    private void close(Endpoint endpoint) {
+        endpoint.trial.set(false);
+        if (endpoint.failures.getAndSet(0) >= failureThreshold) {
+            log.info("{} Ollama 서버 회로 닫힘: {}", name, endpoint.url);
+        }
+        endpoint.openUntil = 0;
+    }
+
+    private void recordFailure(Endpoint endpoint) {
+        int failures = endpoint.failures.incrementAndGet();
+        boolean trialFailed = endpoint.trial.getAndSet(false);
+        if (failures >= failureThreshold || trialFailed) {
+            endpoint.failures.set(Math.max(failures, failureThreshold));
+            endpoint.openUntil = System.currentTimeMillis() + openMillis;
+            log.warn("{} Ollama 서버 회로 열림 ({}ms 동안 제외): {}", name, openMillis, endpoint.url);
+        }
+    }
+
+    /**
+     * 풀에 속한 Ollama 서버
+     */
+    public static class Endpoint {
+
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean trial = new AtomicBoolean();
+        private volatile long openUntil = 0;
+        private volatile boolean healthy = true;
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        private boolean isAvailable(long now) {
+            return healthy && openUntil <= now && !(isHalfOpen(now) && trial.get());
+        }
+
+        private boolean isHalfOpen(long now) {
+            return openUntil != 0 && openUntil <= now;
+        }
+    }
+}
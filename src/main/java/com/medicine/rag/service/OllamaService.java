@@ -3,17 +3,31 @@ package com.medicine.rag.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medicine.rag.config.OllamaConfig;
+import com.medicine.rag.util.EmbeddingJson;
+import com.medicine.rag.util.VectorMath;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Ollama LLM 서비스
+ * 답변 생성과 임베딩 요청은 각각의 서버 풀로 분산되며, 처리 중인 요청이 가장 적은 서버로 보냅니다.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,9 +36,32 @@ public class OllamaService {
 
     private final OllamaConfig ollamaConfig;
     private final OkHttpClient ollamaHttpClient;
+    private final OkHttpClient ollamaEmbeddingHttpClient;
+    private final OllamaEndpointPool ollamaGenerationPool;
+    private final OllamaEndpointPool ollamaEmbeddingPool;
+    private final ScheduledExecutorService ollamaHealthScheduler;
+    private final EmbeddingCache embeddingCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(5);
+    private static final String NORMALIZED_CACHE_SUFFIX = "#normalized";
+
+    private OkHttpClient healthCheckClient;
+
+    // 다중 입력 임베딩 API(/api/embed) 지원 여부 - 구버전 Ollama는 404를 반환
+    private volatile boolean batchEmbedSupported = true;
+
+    @PostConstruct
+    public void init() {
+        // 상태 확인은 동시 요청 제한을 받지 않도록 인터셉터 없이 연결 풀만 공유
+        OkHttpClient.Builder builder = ollamaHttpClient.newBuilder()
+                .callTimeout(HEALTH_CHECK_TIMEOUT);
+        builder.interceptors().clear();
+        healthCheckClient = builder.build();
+        long interval = ollamaConfig.getHealthCheckIntervalMs();
+        ollamaHealthScheduler.scheduleWithFixedDelay(this::checkEndpoints, interval, interval, TimeUnit.MILLISECONDS);
+    }
 
     /**
      * 텍스트 생성
@@ -37,12 +74,7 @@ public class OllamaService {
 
         String jsonBody = objectMapper.writeValueAsString(requestBody);
 
-        Request request = new Request.Builder()
-                .url(ollamaConfig.getBaseUrl() + "/api/generate")
-                .post(RequestBody.create(jsonBody, JSON))
-                .build();
-
-        try (Response response = ollamaHttpClient.newCall(request).execute()) {
+        return execute(ollamaGenerationPool, "/api/generate", jsonBody, response -> {
             if (!response.isSuccessful()) {
                 throw new IOException("Ollama API 호출 실패: " + response);
             }
@@ -50,58 +82,297 @@ public class OllamaService {
             String responseBody = response.body().string();
             JsonNode jsonNode = objectMapper.readTree(responseBody);
             return jsonNode.get("response").asText();
-        }
+        });
+    }
+
+    /**
+     * 스트리밍 텍스트 생성
+     * Ollama의 NDJSON 응답을 한 줄씩 읽어 토큰이 도착하는 즉시 전달하고, 완성된 전체 답변을 반환합니다.
+     */
+    public String generateStream(String prompt, Consumer<String> onToken) throws IOException {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", ollamaConfig.getModel());
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", true);
+
+        String jsonBody = objectMapper.writeValueAsString(requestBody);
+
+        return execute(ollamaGenerationPool, "/api/generate", jsonBody, response -> {
+            if (!response.isSuccessful()) {
+                throw new IOException("Ollama API 호출 실패: " + response);
+            }
+
+            StringBuilder answer = new StringBuilder();
+            BufferedSource source = response.body().source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonNode jsonNode = objectMapper.readTree(line);
+                if (jsonNode.has("error")) {
+                    throw new IOException("Ollama 스트리밍 오류: " + jsonNode.get("error").asText());
+                }
+
+                String token = jsonNode.path("response").asText("");
+                if (!token.isEmpty()) {
+                    answer.append(token);
+                    try {
+                        onToken.accept(token);
+                    } catch (RuntimeException e) {
+                        throw new ConsumerAbortedException(e);
+                    }
+                }
+
+                if (jsonNode.path("done").asBoolean(false)) {
+                    break;
+                }
+            }
+
+            return answer.toString();
+        });
     }
 
     /**
      * 임베딩 생성
+     * 청크 임베딩과 같은 경로로 생성하여 질문과 청크 벡터의 크기(정규화 여부)가 항상 같습니다.
+     */
+    public float[] generateEmbedding(String text) throws IOException {
+        return generateEmbeddings(List.of(text)).get(0);
+    }
+
+    /**
+     * 단건 임베딩 API 호출
      */
-    public double[] generateEmbedding(String text) throws IOException {
+    private float[] requestEmbedding(String text) throws IOException {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", ollamaConfig.getModel());
         requestBody.put("prompt", text);
 
         String jsonBody = objectMapper.writeValueAsString(requestBody);
 
-        Request request = new Request.Builder()
-                .url(ollamaConfig.getBaseUrl() + "/api/embeddings")
-                .post(RequestBody.create(jsonBody, JSON))
-                .build();
-
-        try (Response response = ollamaHttpClient.newCall(request).execute()) {
+        return execute(ollamaEmbeddingPool, "/api/embeddings", jsonBody, response -> {
             if (!response.isSuccessful()) {
                 throw new IOException("Ollama 임베딩 생성 실패: " + response);
             }
 
-            String responseBody = response.body().string();
-            JsonNode jsonNode = objectMapper.readTree(responseBody);
-            JsonNode embeddingNode = jsonNode.get("embedding");
+            // 응답 스트림에서 float 배열로 바로 파싱
+            return EmbeddingJson.readEmbedding(response.body().byteStream(), "embedding");
+        });
+    }
+
+    /**
+     * 여러 텍스트의 임베딩을 한 번에 생성
+     * 캐시에 없는 텍스트만 요청하며, 다중 입력 API를 지원하지 않는 Ollama 버전에서는 단건 API로 대체합니다.
+     * 다중 입력 API(/api/embed)는 정규화된 벡터를, 단건 API(/api/embeddings)는 정규화되지 않은 벡터를 반환하므로
+     * 어느 API를 쓰든 길이 1로 정규화한 뒤 캐시하고 반환합니다.
+     */
+    public List<float[]> generateEmbeddings(List<String> texts) throws IOException {
+        String model = cacheModel();
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        List<String> missTexts = new ArrayList<>();
+
+        for (int i = 0; i < texts.size(); i++) {
+            float[] cached = embeddingCache.get(model, texts.get(i));
+            embeddings.add(cached);
+            if (cached == null) {
+                missIndexes.add(i);
+                missTexts.add(texts.get(i));
+            }
+        }
+
+        if (missTexts.isEmpty()) {
+            return embeddings;
+        }
 
-            double[] embedding = new double[embeddingNode.size()];
-            for (int i = 0; i < embeddingNode.size(); i++) {
-                embedding[i] = embeddingNode.get(i).asDouble();
+        List<float[]> generated = batchEmbedSupported ? requestBatchEmbeddings(missTexts) : null;
+        if (generated == null) {
+            generated = new ArrayList<>(missTexts.size());
+            for (String text : missTexts) {
+                generated.add(requestEmbedding(text));
             }
+        }
 
-            return embedding;
+        for (int i = 0; i < missIndexes.size(); i++) {
+            float[] embedding = VectorMath.normalize(generated.get(i));
+            embeddings.set(missIndexes.get(i), embedding);
+            embeddingCache.put(model, missTexts.get(i), embedding);
         }
+        return embeddings;
     }
 
     /**
-     * Ollama 서버 연결 확인
+     * 임베딩 캐시 키에 쓰는 모델 이름 (정규화 이전에 캐시된 벡터와 구분)
      */
-    public boolean isHealthy() {
-        try {
+    private String cacheModel() {
+        return ollamaConfig.getModel() + NORMALIZED_CACHE_SUFFIX;
+    }
+
+    /**
+     * 다중 입력 임베딩 API 호출 (미지원 시 null 반환)
+     */
+    private List<float[]> requestBatchEmbeddings(List<String> texts) throws IOException {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", ollamaConfig.getModel());
+        requestBody.put("input", texts);
+
+        String jsonBody = objectMapper.writeValueAsString(requestBody);
+
+        return execute(ollamaEmbeddingPool, "/api/embed", jsonBody, response -> {
+            if (response.code() == 404) {
+                log.warn("Ollama 다중 입력 임베딩 API를 지원하지 않아 단건 API로 대체합니다.");
+                batchEmbedSupported = false;
+                return null;
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Ollama 임베딩 생성 실패: " + response);
+            }
+
+            List<float[]> embeddings = EmbeddingJson.readEmbeddings(response.body().byteStream(), "embeddings");
+            if (embeddings.size() != texts.size()) {
+                throw new IOException("Ollama 임베딩 응답 개수가 요청과 다릅니다.");
+            }
+
+            return embeddings;
+        });
+    }
+
+    /**
+     * 풀에서 고른 서버로 요청 전송
+     * 서버에 연결하지 못한 경우에만 다른 서버로 재시도하며, 응답을 받은 뒤의 오류는 그대로 전달합니다.
+     */
+    private <T> T execute(OllamaEndpointPool pool, String path, String jsonBody,
+                          ResponseHandler<T> handler) throws IOException {
+        IOException connectFailure = null;
+        for (int attempt = 0; attempt < pool.getEndpoints().size(); attempt++) {
+            OllamaEndpointPool.Endpoint endpoint;
+            try {
+                endpoint = pool.acquire();
+            } catch (IOException e) {
+                if (connectFailure != null) {
+                    e.addSuppressed(connectFailure);
+                }
+                throw e;
+            }
+
             Request request = new Request.Builder()
-                    .url(ollamaConfig.getBaseUrl() + "/api/tags")
-                    .get()
+                    .url(endpoint.getUrl() + path)
+                    .post(RequestBody.create(jsonBody, JSON))
                     .build();
 
-            try (Response response = ollamaHttpClient.newCall(request).execute()) {
-                return response.isSuccessful();
+            Response response;
+            try {
+                response = httpClientFor(pool).newCall(request).execute();
+            } catch (IOException e) {
+                pool.release(endpoint, false);
+                if (!isConnectFailure(e)) {
+                    throw e;
+                }
+                log.warn("{} Ollama 서버 연결 실패, 다른 서버로 재시도합니다: {} ({})",
+                        pool.getName(), endpoint.getUrl(), e.getMessage());
+                connectFailure = e;
+                continue;
+            }
+
+            boolean handled = false;
+            boolean aborted = false;
+            try (response) {
+                T result = handler.handle(response);
+                handled = true;
+                return result;
+            } catch (ConsumerAbortedException e) {
+                // 응답을 받는 쪽(브라우저 연결 종료 등)의 오류는 서버 장애가 아니므로 원래 예외를 그대로 전달
+                aborted = true;
+                throw e.getCause();
+            } finally {
+                // 4xx는 요청 문제이므로 서버 장애로 집계하지 않음
+                boolean clientError = response.code() >= 400 && response.code() < 500;
+                if (aborted) {
+                    pool.releaseNeutral(endpoint);
+                } else {
+                    pool.release(endpoint, handled || clientError);
+                }
+            }
+        }
+        throw connectFailure != null ? connectFailure
+                : new IOException(pool.getName() + " 요청을 처리할 수 있는 Ollama 서버가 없습니다.");
+    }
+
+    private OkHttpClient httpClientFor(OllamaEndpointPool pool) {
+        return pool == ollamaEmbeddingPool ? ollamaEmbeddingHttpClient : ollamaHttpClient;
+    }
+
+    private static boolean isConnectFailure(IOException e) {
+        return e instanceof ConnectException
+                || e instanceof NoRouteToHostException
+                || e instanceof UnknownHostException;
+    }
+
+    /**
+     * 모든 서버 상태 확인 (같은 주소는 한 번만 확인)
+     */
+    private void checkEndpoints() {
+        Map<String, Boolean> results = new HashMap<>();
+        for (OllamaEndpointPool pool : List.of(ollamaGenerationPool, ollamaEmbeddingPool)) {
+            for (OllamaEndpointPool.Endpoint endpoint : pool.getEndpoints()) {
+                boolean healthy = results.computeIfAbsent(endpoint.getUrl(), this::ping);
+                pool.markHealth(endpoint, healthy);
             }
+        }
+    }
+
+    /**
+     * 단일 서버 응답 확인
+     */
+    private boolean ping(String baseUrl) {
+        Request request = new Request.Builder()
+                .url(baseUrl + "/api/tags")
+                .get()
+                .build();
+
+        try (Response response = healthCheckClient.newCall(request).execute()) {
+            return response.isSuccessful();
+        } catch (Exception e) {
+            log.debug("Ollama 서버 상태 확인 실패: {} ({})", baseUrl, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ollama 서버 연결 확인
+     * 모든 서버 상태를 갱신한 뒤 생성/임베딩 풀에 각각 사용 가능한 서버가 있는지 반환합니다.
+     */
+    public boolean isHealthy() {
+        try {
+            checkEndpoints();
+            return ollamaGenerationPool.hasAvailableEndpoint() && ollamaEmbeddingPool.hasAvailableEndpoint();
         } catch (Exception e) {
             log.error("Ollama 서버 연결 실패", e);
             return false;
         }
     }
+
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    /**
+     * 응답 처리 중 호출한 소비자 콜백이 던진 예외 (서버 장애로 집계하지 않기 위해 구분)
+     */
+    private static class ConsumerAbortedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private ConsumerAbortedException(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
 }
@@ -1,18 +1,34 @@
 package com.medicine.rag.service;
 
 import com.medicine.rag.config.OpenSearchConfig;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonData;
 import org.opensearch.client.opensearch.OpenSearchClient;
-import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch._types.Conflicts;
+import org.opensearch.client.opensearch._types.OpType;
+import org.opensearch.client.opensearch._types.Refresh;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregate;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregationSource;
+import org.opensearch.client.opensearch._types.aggregations.CompositeBucket;
+import org.opensearch.client.opensearch._types.mapping.DynamicMapping;
+import org.opensearch.client.opensearch._types.mapping.IndexOptions;
 import org.opensearch.client.opensearch.core.*;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
 import org.opensearch.client.opensearch.core.search.Hit;
 import org.opensearch.client.opensearch.indices.CreateIndexRequest;
-import org.opensearch.client.opensearch.indices.ExistsRequest;
+import org.opensearch.client.opensearch.indices.update_aliases.Action;
+import org.opensearch.client.opensearch.tasks.GetTasksResponse;
+import org.opensearch.client.opensearch.tasks.Status;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * OpenSearch 서비스
@@ -25,28 +41,272 @@ public class OpenSearchService {
     private final OpenSearchClient openSearchClient;
     private final OpenSearchConfig openSearchConfig;
 
+    private static final String LEGACY_SCAN_KEEP_ALIVE = "1m"; // 기존 항목 스크롤 유지 시간
+
+    // 쓰기 요청은 읽기 잠금, 재인덱싱 마지막 복사와 별칭 교체는 쓰기 잠금으로 진행 (교체 중 쓰기는 대기)
+    private final ReentrantReadWriteLock migrationLock = new ReentrantReadWriteLock();
+    private volatile MigrationWrites migrationWrites; // 재인덱싱 중 이 인스턴스에서 수행한 쓰기 기록 (재인덱싱 중이 아니면 null)
+
+    /**
+     * 애플리케이션 시작 시 인덱스 준비 (실패해도 기동은 계속)
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            initializeIndex();
+        } catch (Exception e) {
+            log.warn("OpenSearch 인덱스 초기화 실패: {}", e.getMessage());
+        }
+    }
+
     /**
      * 인덱스 초기화
+     * opensearch.index-name은 별칭이며, 실제 데이터는 매핑 버전이 붙은 인덱스(예: medicine_index_v1)에 저장됩니다.
+     * 매핑 버전이 바뀌면 새 인덱스를 만들고, 기존 데이터 재인덱싱과 별칭 교체는 백그라운드에서 진행합니다.
+     * 재인덱싱이 끝날 때까지는 별칭이 이전 인덱스를 가리키므로 검색과 색인은 그대로 동작하며,
+     * 마지막 복사와 별칭 교체 동안에만 색인이 잠시 대기합니다.
      */
     public void initializeIndex() throws IOException {
-        String indexName = openSearchConfig.getIndexName();
+        String alias = openSearchConfig.getIndexName();
+        String target = alias + "_v" + openSearchConfig.getMappingVersion();
+
+        if (!openSearchClient.indices().exists(e -> e.index(target)).value()) {
+            createIndex(target);
+        }
+
+        if (openSearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+            Set<String> currentIndices = openSearchClient.indices().getAlias(a -> a.name(alias)).result().keySet();
+            if (currentIndices.equals(Set.of(target))) {
+                return;
+            }
+
+            // 이전 버전 인덱스에서 재인덱싱 후 별칭 교체
+            List<String> previousIndices = currentIndices.stream().filter(index -> !index.equals(target)).toList();
+            startMigration(alias, target, previousIndices);
+        } else if (openSearchClient.indices().exists(e -> e.index(alias)).value()) {
+            // 별칭 도입 전 동적 매핑으로 만들어진 인덱스
+            startMigration(alias, target, List.of(alias));
+        } else {
+            openSearchClient.indices().putAlias(a -> a.index(target).name(alias));
+            log.info("OpenSearch 인덱스 별칭 설정: {} -> {}", alias, target);
+        }
+    }
+
+    /**
+     * 백그라운드 재인덱싱 시작 (빈 초기화와 애플리케이션 기동을 막지 않음)
+     * 중간에 재시작되어도 다음 기동 시 같은 과정을 다시 시작하며, 이미 복사된 문서는 건너뜁니다.
+     */
+    private void startMigration(String alias, String target, List<String> previousIndices) {
+        Thread thread = new Thread(() -> {
+            try {
+                migrate(alias, target, previousIndices);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("OpenSearch 재인덱싱 중단: {} -> {}", previousIndices, target);
+            } catch (Exception e) {
+                log.warn("OpenSearch 재인덱싱 실패 - 다음 기동 시 다시 시도합니다: {}", e.getMessage());
+            }
+        }, "opensearch-reindex");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 이전 인덱스를 모두 재인덱싱한 뒤 별칭 교체
+     * 첫 번째 복사는 쓰기를 막지 않고 진행하며, 그동안 별칭(이전 인덱스)으로 들어온 쓰기는 ID를 기록해 둡니다.
+     * 이후 이 인스턴스의 쓰기를 멈추고 이전 인덱스에 쓰기 차단(index.blocks.write)을 건 뒤
+     * 마지막 복사로 새로 추가된 문서를 옮기고, 기록해 둔 쓰기(덮어쓰기와 삭제)를 새 인덱스에 다시 적용한 다음 별칭을 교체합니다.
+     * 다른 인스턴스의 쓰기는 차단되어 실패하므로 교체 후 다시 시도해야 합니다.
+     * 교체 전에 실패하면 쓰기 차단을 풀고 별칭은 이전 인덱스에 그대로 둡니다.
+     */
+    private void migrate(String alias, String target, List<String> previousIndices)
+            throws IOException, InterruptedException {
+        // 이전 실행이 마지막 복사 도중 종료되어 남은 쓰기 차단 해제
+        blockWrites(previousIndices, false);
+
+        MigrationWrites writes = new MigrationWrites();
+        migrationWrites = writes;
+        try {
+            for (String previous : previousIndices) {
+                reindex(previous, target);
+            }
+
+            migrationLock.writeLock().lock();
+            try {
+                blockWrites(previousIndices, true);
+                try {
+                    for (String previous : previousIndices) {
+                        reindex(previous, target);
+                    }
+                    replayWrites(writes, previousIndices, target);
+                    swapAlias(alias, target, previousIndices);
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    blockWrites(previousIndices, false);
+                    throw e;
+                }
+            } finally {
+                migrationLock.writeLock().unlock();
+            }
+        } finally {
+            migrationWrites = null;
+        }
+    }
+
+    /**
+     * 인덱스 쓰기 차단 설정/해제
+     */
+    private void blockWrites(List<String> indices, boolean blocked) throws IOException {
+        openSearchClient.indices().putSettings(p -> p
+                .index(indices)
+                .settings(settings -> settings.blocks(blocks -> blocks.write(blocked))));
+        log.info("OpenSearch 인덱스 쓰기 차단 {}: {}", blocked ? "설정" : "해제", indices);
+    }
+
+    /**
+     * 첫 번째 복사 중 이전 인덱스에 반영된 쓰기를 새 인덱스에 다시 적용
+     * 첫 번째 복사는 이미 있는 문서를 덮어쓰지 않고(op_type=create) 시작 시점의 스냅샷을 옮기므로,
+     * 그 사이 다시 저장된 문서는 이전 인덱스에서 덮어써 복사하고, 삭제된 문서는 새 인덱스에서도 삭제합니다.
+     */
+    private void replayWrites(MigrationWrites writes, List<String> previousIndices, String target)
+            throws IOException, InterruptedException {
+        List<String> indexedIds = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        writes.ids.forEach((id, indexed) -> (indexed ? indexedIds : deletedIds).add(id));
+
+        int batchSize = openSearchConfig.getBulkSize();
+        for (int from = 0; from < indexedIds.size(); from += batchSize) {
+            List<String> batch = indexedIds.subList(from, Math.min(from + batchSize, indexedIds.size()));
+            reindex(previousIndices, target, batch);
+        }
+        List<BulkOperation> deletes = new ArrayList<>(deletedIds.size());
+        for (String id : deletedIds) {
+            deletes.add(BulkOperation.of(op -> op.delete(delete -> delete.id(id))));
+        }
+        bulk(target, deletes);
+        for (String searchIndexId : writes.deletedSearchIndexIds) {
+            deleteByQuery(target, searchIndexId);
+        }
+        log.info("OpenSearch 재인덱싱 중 쓰기 반영: 저장 {}건, 삭제 {}건, 문서 삭제 {}건",
+                indexedIds.size(), deletedIds.size(), writes.deletedSearchIndexIds.size());
+    }
 
-        ExistsRequest existsRequest = new ExistsRequest.Builder()
+    /**
+     * 매핑과 설정을 지정하여 인덱스 생성
+     * 본문(content)은 하이라이트와 재인덱싱에 필요하므로 _source에 유지하고,
+     * 오프셋을 색인하여 하이라이트 시 본문을 다시 분석하지 않도록 합니다.
+     */
+    private void createIndex(String indexName) throws IOException {
+        boolean nori = "nori".equalsIgnoreCase(openSearchConfig.getAnalyzer());
+        String textAnalyzer = nori ? "korean" : "standard";
+
+        CreateIndexRequest createIndexRequest = new CreateIndexRequest.Builder()
                 .index(indexName)
+                .settings(settings -> {
+                    settings.numberOfShards(String.valueOf(openSearchConfig.getShards()))
+                            .numberOfReplicas(String.valueOf(openSearchConfig.getReplicas()))
+                            .refreshInterval(t -> t.time(openSearchConfig.getRefreshInterval()));
+                    if (nori) {
+                        settings.analysis(analysis -> analysis
+                                .analyzer("korean", analyzer -> analyzer
+                                        .custom(custom -> custom
+                                                .tokenizer("nori_tokenizer")
+                                                .filter("nori_part_of_speech", "nori_readingform", "lowercase")
+                                        )
+                                )
+                        );
+                    }
+                    return settings;
+                })
+                .mappings(mappings -> mappings
+                        .dynamic(DynamicMapping.False)
+                        .properties("searchIndexId", p -> p.keyword(k -> k))
+                        .properties("vectorId", p -> p.keyword(k -> k))
+                        .properties("fileName", p -> p.keyword(k -> k
+                                .fields("text", f -> f.text(t -> t.analyzer(textAnalyzer)))))
+                        .properties("fileType", p -> p.keyword(k -> k))
+                        .properties("chunkIndex", p -> p.integer(i -> i))
+                        .properties("content", p -> p.text(t -> t
+                                .analyzer(textAnalyzer)
+                                .indexOptions(IndexOptions.Offsets)))
+                        .properties("uploadDate", p -> p.date(d -> d.format("strict_date_optional_time||epoch_millis")))
+                )
                 .build();
 
-        boolean exists = openSearchClient.indices().exists(existsRequest).value();
+        openSearchClient.indices().create(createIndexRequest);
+        log.info("OpenSearch 인덱스 생성: {} (분석기: {})", indexName, textAnalyzer);
+    }
 
-        if (!exists) {
-            CreateIndexRequest createIndexRequest = new CreateIndexRequest.Builder()
-                    .index(indexName)
-                    .build();
+    /**
+     * 재인덱싱 작업을 비동기로 시작하고 끝날 때까지 상태 확인
+     * 완료를 기다리는 동안 요청을 붙잡지 않으므로 클라이언트 응답 제한 시간에 걸리지 않습니다.
+     * 새 인덱스에 이미 있는 문서는 덮어쓰지 않습니다(op_type=create).
+     */
+    private void reindex(String source, String target) throws IOException, InterruptedException {
+        ReindexResponse started = openSearchClient.reindex(r -> r
+                .source(s -> s.index(source))
+                .dest(d -> d.index(target).opType(OpType.Create))
+                .conflicts(Conflicts.Proceed)
+                .waitForCompletion(false)
+                .refresh(true));
+        awaitReindex(started.task(), source, target);
+    }
+
+    /**
+     * 지정한 문서만 재인덱싱 (새 인덱스에 이미 있는 문서도 덮어씀)
+     */
+    private void reindex(List<String> sources, String target, List<String> ids)
+            throws IOException, InterruptedException {
+        ReindexResponse started = openSearchClient.reindex(r -> r
+                .source(s -> s.index(sources).query(q -> q.ids(i -> i.values(ids))))
+                .dest(d -> d.index(target).opType(OpType.Index))
+                .waitForCompletion(false)
+                .refresh(true));
+        awaitReindex(started.task(), String.join(",", sources), target);
+    }
+
+    private void awaitReindex(String taskId, String source, String target) throws IOException, InterruptedException {
+        log.info("OpenSearch 재인덱싱 시작: {} -> {} (작업: {})", source, target, taskId);
+
+        while (true) {
+            Thread.sleep(openSearchConfig.getReindexPollMs());
+            GetTasksResponse task = openSearchClient.tasks().get(t -> t.taskId(taskId));
+            if (!task.completed()) {
+                Status status = task.task().status();
+                if (status != null) {
+                    log.info("OpenSearch 재인덱싱 진행 중: {} -> {} ({}/{}건)", source, target,
+                            status.created() + status.versionConflicts(), status.total());
+                }
+                continue;
+            }
 
-            openSearchClient.indices().create(createIndexRequest);
-            log.info("OpenSearch 인덱스 생성: {}", indexName);
+            if (task.error() != null) {
+                throw new IOException("OpenSearch 재인덱싱 실패: " + source + " -> " + target
+                        + " (" + task.error().reason() + ")");
+            }
+            Status result = task.response();
+            if (result != null && !result.failures().isEmpty()) {
+                throw new IOException("OpenSearch 재인덱싱 실패: " + source + " -> " + target
+                        + " (" + result.failures().size() + "건)");
+            }
+            log.info("OpenSearch 재인덱싱 완료: {} -> {} ({}건)", source, target,
+                    result != null ? result.total() : 0);
+            return;
         }
     }
 
+    /**
+     * 별칭을 새 인덱스로 옮기고 이전 인덱스를 한 번의 요청으로 삭제
+     */
+    private void swapAlias(String alias, String target, List<String> previousIndices) throws IOException {
+        List<Action> actions = new ArrayList<>();
+        actions.add(Action.of(a -> a.add(add -> add.index(target).alias(alias))));
+        for (String previous : previousIndices) {
+            actions.add(Action.of(a -> a.removeIndex(remove -> remove.index(previous))));
+        }
+        openSearchClient.indices().updateAliases(u -> u.actions(actions));
+        log.info("OpenSearch 인덱스 별칭 교체: {} -> {} (이전 인덱스 삭제: {})", alias, target, previousIndices);
+    }
+
     /**
      * 문서 인덱싱
      */
@@ -57,12 +317,84 @@ public class OpenSearchService {
                 .document(document)
                 .build();
 
-        IndexResponse response = openSearchClient.index(request);
-        return response.id();
+        migrationLock.readLock().lock();
+        try {
+            IndexResponse response = openSearchClient.index(request);
+            recordWrite(id, true);
+            return response.id();
+        } finally {
+            migrationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 청크 문서 일괄 인덱싱
+     * _bulk API로 opensearch.bulk-size개씩 전송하며, 검색 반영(refresh)은 {@link #refresh()}에서 한 번에 수행합니다.
+     */
+    public void bulkIndex(List<String> ids, List<Map<String, Object>> documents) throws IOException {
+        List<BulkOperation> operations = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            Map<String, Object> document = documents.get(i);
+            operations.add(BulkOperation.of(op -> op.index(index -> index.id(id).document(document))));
+        }
+        migrationLock.readLock().lock();
+        try {
+            bulk(openSearchConfig.getIndexName(), operations);
+            ids.forEach(id -> recordWrite(id, true));
+        } finally {
+            migrationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 청크 문서 일괄 삭제
+     */
+    public void bulkDelete(List<String> ids) throws IOException {
+        List<BulkOperation> operations = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            operations.add(BulkOperation.of(op -> op.delete(delete -> delete.id(id))));
+        }
+        migrationLock.readLock().lock();
+        try {
+            bulk(openSearchConfig.getIndexName(), operations);
+            ids.forEach(id -> recordWrite(id, false));
+        } finally {
+            migrationLock.readLock().unlock();
+        }
+    }
+
+    private void bulk(String index, List<BulkOperation> operations) throws IOException {
+        int bulkSize = openSearchConfig.getBulkSize();
+        for (int from = 0; from < operations.size(); from += bulkSize) {
+            BulkRequest request = new BulkRequest.Builder()
+                    .index(index)
+                    .operations(operations.subList(from, Math.min(from + bulkSize, operations.size())))
+                    .refresh(Refresh.False)
+                    .build();
+
+            BulkResponse response = openSearchClient.bulk(request);
+            if (response.errors()) {
+                for (BulkResponseItem item : response.items()) {
+                    // 이미 없는 문서의 삭제는 실패로 보지 않음
+                    if (item.error() != null && item.status() != 404) {
+                        throw new IOException("OpenSearch 일괄 처리 실패 (" + item.id() + "): " + item.error().reason());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 인덱스 새로고침 (일괄 인덱싱 후 검색에 반영)
+     */
+    public void refresh() throws IOException {
+        openSearchClient.indices().refresh(r -> r.index(openSearchConfig.getIndexName()));
     }
 
     /**
      * 전문 검색
+     * 청크 본문은 응답에서 제외하고, 질문과 일치하는 부분의 발췌문(highlights)만 반환합니다.
      */
     public List<Map<String, Object>> search(String queryText, int size) throws IOException {
         SearchRequest searchRequest = new SearchRequest.Builder()
@@ -70,7 +402,17 @@ public class OpenSearchService {
                 .query(q -> q
                         .multiMatch(m -> m
                                 .query(queryText)
-                                .fields("title", "content", "fileName")
+                                .fields("content", "fileName.text")
+                        )
+                )
+                .source(source -> source.filter(filter -> filter.excludes("content")))
+                .highlight(highlight -> highlight
+                        .preTags("")
+                        .postTags("")
+                        .fields("content", field -> field
+                                .fragmentSize(openSearchConfig.getSnippetSize())
+                                .numberOfFragments(openSearchConfig.getSnippetCount())
+                                .noMatchSize(openSearchConfig.getSnippetSize())
                         )
                 )
                 .size(size)
@@ -84,6 +426,7 @@ public class OpenSearchService {
             result.put("id", hit.id());
             result.put("score", hit.score());
             result.put("source", hit.source());
+            result.put("highlights", hit.highlight().getOrDefault("content", Collections.emptyList()));
             results.add(result);
         }
 
@@ -92,14 +435,128 @@ public class OpenSearchService {
 
     /**
      * 문서 삭제
+     * 문서의 모든 청크와, 청크 단위 인덱싱 이전에 문서 전체로 저장된 항목을 함께 삭제합니다.
      */
-    public void deleteDocument(String id) throws IOException {
-        DeleteRequest request = new DeleteRequest.Builder()
-                .index(openSearchConfig.getIndexName())
-                .id(id)
+    public void deleteDocument(String searchIndexId) throws IOException {
+        migrationLock.readLock().lock();
+        try {
+            deleteByQuery(openSearchConfig.getIndexName(), searchIndexId);
+            MigrationWrites writes = migrationWrites;
+            if (writes != null) {
+                writes.deletedSearchIndexIds.add(searchIndexId);
+            }
+        } finally {
+            migrationLock.readLock().unlock();
+        }
+    }
+
+    private void deleteByQuery(String index, String searchIndexId) throws IOException {
+        DeleteByQueryRequest request = new DeleteByQueryRequest.Builder()
+                .index(index)
+                .query(q -> q
+                        .bool(b -> b
+                                .should(s -> s.ids(ids -> ids.values(searchIndexId)))
+                                .should(s -> s.matchPhrase(m -> m.field("searchIndexId").query(searchIndexId)))
+                        )
+                )
+                .refresh(true)
                 .build();
 
-        openSearchClient.delete(request);
+        openSearchClient.deleteByQuery(request);
+    }
+
+    /**
+     * 인덱스에 있는 searchIndexId를 batchSize개씩 순회 (정합성 점검용)
+     * 청크 문서는 searchIndexId 필드로, 필드가 없는 기존 문서 전체 항목은 문서 ID(_id)로 식별합니다.
+     */
+    public void scanSearchIndexIds(int batchSize, Consumer<Set<String>> consumer) throws IOException {
+        scanChunkSearchIndexIds(batchSize, consumer);
+        scanLegacyDocumentIds(batchSize, consumer);
+    }
+
+    /**
+     * 청크 문서의 searchIndexId 순회 (composite 집계로 페이지 단위 조회)
+     */
+    private void scanChunkSearchIndexIds(int batchSize, Consumer<Set<String>> consumer) throws IOException {
+        Map<String, String> after = null;
+        while (true) {
+            Map<String, String> afterKey = after;
+            CompositeAggregationSource idSource = CompositeAggregationSource.of(source -> source
+                    .terms(terms -> terms.field("searchIndexId")));
+            SearchRequest request = new SearchRequest.Builder()
+                    .index(openSearchConfig.getIndexName())
+                    .size(0)
+                    .aggregations("ids", aggregation -> aggregation
+                            .composite(composite -> {
+                                composite.size(batchSize)
+                                        .sources(List.of(Map.of("searchIndexId", idSource)));
+                                if (afterKey != null) {
+                                    composite.after(afterKey);
+                                }
+                                return composite;
+                            })
+                    )
+                    .build();
+
+            CompositeAggregate aggregate = openSearchClient.search(request, Map.class)
+                    .aggregations().get("ids").composite();
+            List<CompositeBucket> buckets = aggregate.buckets().array();
+            if (buckets.isEmpty()) {
+                return;
+            }
+
+            Set<String> searchIndexIds = new HashSet<>();
+            for (CompositeBucket bucket : buckets) {
+                searchIndexIds.add(bucket.key().get("searchIndexId").to(String.class));
+            }
+            consumer.accept(searchIndexIds);
+
+            if (aggregate.afterKey().isEmpty() || buckets.size() < batchSize) {
+                return;
+            }
+            after = new HashMap<>();
+            for (Map.Entry<String, JsonData> entry : aggregate.afterKey().entrySet()) {
+                after.put(entry.getKey(), entry.getValue().to(String.class));
+            }
+        }
+    }
+
+    /**
+     * searchIndexId 필드가 없는 기존 문서 전체 항목의 ID 순회 (스크롤로 본문 없이 조회)
+     */
+    private void scanLegacyDocumentIds(int batchSize, Consumer<Set<String>> consumer) throws IOException {
+        SearchResponse<Object> response = openSearchClient.search(s -> s
+                .index(openSearchConfig.getIndexName())
+                .size(batchSize)
+                .source(source -> source.fetch(false))
+                .query(q -> q.bool(b -> b.mustNot(m -> m.exists(e -> e.field("searchIndexId")))))
+                .scroll(t -> t.time(LEGACY_SCAN_KEEP_ALIVE)), Object.class);
+        String scrollId = response.scrollId();
+        try {
+            List<Hit<Object>> hits = response.hits().hits();
+            while (!hits.isEmpty()) {
+                Set<String> documentIds = new HashSet<>();
+                for (Hit<Object> hit : hits) {
+                    documentIds.add(hit.id());
+                }
+                consumer.accept(documentIds);
+                if (hits.size() < batchSize) {
+                    return;
+                }
+
+                String currentScrollId = scrollId;
+                ScrollResponse<Object> next = openSearchClient.scroll(scroll -> scroll
+                        .scrollId(currentScrollId)
+                        .scroll(t -> t.time(LEGACY_SCAN_KEEP_ALIVE)), Object.class);
+                scrollId = next.scrollId();
+                hits = next.hits().hits();
+            }
+        } finally {
+            if (scrollId != null) {
+                String finalScrollId = scrollId;
+                openSearchClient.clearScroll(c -> c.scrollId(finalScrollId));
+            }
+        }
     }
 
     /**
@@ -118,4 +575,19 @@ public class OpenSearchService {
 
         return stats;
     }
+
+    private void recordWrite(String id, boolean indexed) {
+        MigrationWrites writes = migrationWrites;
+        if (writes != null) {
+            writes.ids.put(id, indexed);
+        }
+    }
+
+    /**
+     * 재인덱싱 중 수행한 쓰기 기록 (ID별 마지막 쓰기가 저장이면 true, 삭제면 false)
+     */
+    private static final class MigrationWrites {
+        private final Map<String, Boolean> ids = new ConcurrentHashMap<>();
+        private final Set<String> deletedSearchIndexIds = ConcurrentHashMap.newKeySet();
+    }
 }
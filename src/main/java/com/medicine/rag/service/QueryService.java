@@ -1,23 +1,25 @@
 package com.medicine.rag.service;
 
+import com.medicine.rag.config.AnswerCacheConfig;
+import com.medicine.rag.config.RetrievalConfig;
+import com.medicine.rag.dto.QueryHistorySummary;
 import com.medicine.rag.dto.QueryRequest;
 import com.medicine.rag.dto.QueryResponse;
 import com.medicine.rag.model.QueryHistory;
 import com.medicine.rag.repository.QueryHistoryRepository;
+import com.medicine.rag.util.PipelineMetrics;
 import com.medicine.rag.util.PromptBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * 질문-답변 서비스 (RAG)
@@ -28,58 +30,252 @@ import java.util.stream.Collectors;
 public class QueryService {
 
     private final QueryHistoryRepository queryHistoryRepository;
-    private final ChromaService chromaService;
+    private final VectorStore vectorStore;
     private final OpenSearchService openSearchService;
     private final OllamaService ollamaService;
+    private final GenerationAdmission generationAdmission;
     private final PromptBuilder promptBuilder;
+    private final RankFusionService rankFusionService;
+    private final RetrievalConfig retrievalConfig;
+    private final ExecutorService retrievalExecutor;
+    private final AnswerCache answerCache;
+    private final AnswerCacheConfig answerCacheConfig;
+    private final PipelineMetrics pipelineMetrics;
 
     /**
      * RAG 질문-답변 처리
      */
-    @Transactional
     public QueryResponse processQuery(QueryRequest request) throws IOException {
         long startTime = System.currentTimeMillis();
 
-        // 1. Vector DB에서 유사 문서 검색
-        List<Map<String, Object>> vectorResults = chromaService.query(
-                request.getQuestion(),
-                request.getTopK()
-        );
+        // 0. 검색을 시작하고, 유사한 이전 질문의 답변이 캐시에 있으면 바로 반환
+        Retrieval retrieval = startRetrieval(request);
+        Optional<QueryResponse> cached = answerFromCache(request, retrieval, startTime);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        PreparedQuery prepared = prepare(request, startTime, retrieval);
+
+        // 5. LLM으로 답변 생성 (동시 생성 수 제한)
+        String answer;
+        GenerationAdmission.Permit permit = generationAdmission.acquire(request.getPromptType());
+        try {
+            answer = pipelineMetrics.time(PipelineMetrics.QUERY, "generation",
+                    () -> ollamaService.generate(prepared.prompt()));
+        } finally {
+            permit.close();
+        }
+
+        return complete(request, prepared, answer);
+    }
+
+    /**
+     * RAG 질문-답변 스트리밍 처리
+     * 답변 토큰을 생성되는 즉시 전달하고, 생성이 끝나면 완성된 답변을 이력에 저장합니다.
+     */
+    public QueryResponse processQueryStream(QueryRequest request, Consumer<String> onToken) throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        Retrieval retrieval = startRetrieval(request);
+        Optional<QueryResponse> cached = answerFromCache(request, retrieval, startTime);
+        if (cached.isPresent()) {
+            onToken.accept(cached.get().getAnswer());
+            return cached.get();
+        }
+
+        PreparedQuery prepared = prepare(request, startTime, retrieval);
+
+        // 5. LLM으로 답변 스트리밍 생성 (동시 생성 수 제한)
+        String answer;
+        GenerationAdmission.Permit permit = generationAdmission.acquire(request.getPromptType());
+        try {
+            answer = pipelineMetrics.time(PipelineMetrics.QUERY, "generation",
+                    () -> ollamaService.generateStream(prepared.prompt(), onToken));
+        } finally {
+            permit.close();
+        }
+
+        return complete(request, prepared, answer);
+    }
+
+    /**
+     * 검색 시작 (1~2단계: Vector DB 검색과 OpenSearch 전문 검색을 동시에 수행)
+     * 질문 임베딩은 벡터 검색 작업 안에서 embedding 단계로 한 번만 생성하므로 벡터 검색 제한 시간에 포함되며,
+     * 임베딩 서버가 느리거나 응답하지 않아도 전문 검색은 기다리지 않습니다.
+     * 생성된 임베딩은 답변 캐시 조회와 저장에도 사용합니다.
+     * 검색 전에 답변 캐시의 무효화 세대를 기록하여, 답변 생성 중 문서가 바뀌면 그 답변은 캐시하지 않습니다.
+     */
+    private Retrieval startRetrieval(QueryRequest request) {
+        long startNanos = System.nanoTime();
+        long cacheEpoch = answerCache.currentEpoch();
+        CompletableFuture<float[]> questionEmbedding = new CompletableFuture<>();
+
+        CompletableFuture<TimedResults> vectorFuture = supplyAsync(() -> {
+            float[] embedding = pipelineMetrics.time(PipelineMetrics.QUERY, "embedding",
+                    () -> ollamaService.generateEmbedding(request.getQuestion()));
+            questionEmbedding.complete(embedding);
+            return pipelineMetrics.time(PipelineMetrics.QUERY, "vector_search",
+                    () -> vectorStore.query(embedding, request.getTopK()));
+        });
+        // 임베딩 전에 작업이 실패하거나 취소되어도 임베딩을 기다리는 쪽이 바로 끝나도록 함께 완료
+        vectorFuture.whenComplete((results, e) -> {
+            if (e != null) {
+                questionEmbedding.completeExceptionally(e);
+            }
+        });
+
+        CompletableFuture<TimedResults> searchFuture = supplyAsync(
+                () -> pipelineMetrics.time(PipelineMetrics.QUERY, "fulltext_search",
+                        () -> openSearchService.search(request.getQuestion(), request.getTopK())));
+
+        return new Retrieval(startNanos, cacheEpoch, questionEmbedding, vectorFuture, searchFuture);
+    }
+
+    /**
+     * 질문 임베딩 대기 (벡터 검색 제한 시간 안에 생성되지 않거나 실패하면 null)
+     */
+    private float[] awaitQuestionEmbedding(Retrieval retrieval) {
+        long remainingMs = retrievalConfig.getVectorTimeoutMs() - elapsedMs(retrieval.startNanos());
+        try {
+            return retrieval.questionEmbedding().get(Math.max(remainingMs, 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("질문 임베딩 생성 실패 - 답변 캐시를 건너뜁니다.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("질문 임베딩 대기 중 인터럽트 발생");
+        }
+        return null;
+    }
+
+    /**
+     * 이미 생성된 질문 임베딩 (아직 생성 중이거나 실패했으면 null)
+     */
+    private float[] completedQuestionEmbedding(Retrieval retrieval) {
+        CompletableFuture<float[]> questionEmbedding = retrieval.questionEmbedding();
+        return questionEmbedding.isDone() && !questionEmbedding.isCompletedExceptionally()
+                ? questionEmbedding.join()
+                : null;
+    }
+
+    /**
+     * 캐시된 답변으로 응답 (이력에는 캐시 사용 여부와 함께 저장)
+     * 질문 임베딩이 생성될 때까지만 기다리며, 그동안 검색은 계속 진행됩니다.
+     */
+    private Optional<QueryResponse> answerFromCache(QueryRequest request, Retrieval retrieval, long startTime) {
+        if (!answerCacheConfig.getEnabled()) {
+            return Optional.empty();
+        }
+        float[] questionEmbedding = awaitQuestionEmbedding(retrieval);
+        if (questionEmbedding == null) {
+            return Optional.empty();
+        }
+
+        Optional<AnswerCache.CachedAnswer> cachedAnswer = pipelineMetrics.time(PipelineMetrics.QUERY, "cache_lookup",
+                () -> answerCache.lookup(request.getPromptType(), questionEmbedding));
+        if (cachedAnswer.isEmpty()) {
+            return Optional.empty();
+        }
+
+        AnswerCache.CachedAnswer entry = cachedAnswer.get();
+        int responseTime = (int) (System.currentTimeMillis() - startTime);
+
+        QueryHistory history = saveHistory(QueryHistory.builder()
+                .question(request.getQuestion())
+                .answer(entry.answer())
+                .promptType(request.getPromptType())
+                .retrievedContext(entry.context())
+                .responseTime(responseTime)
+                .relevantDocuments(entry.relevantDocuments())
+                .cacheHit(true)
+                .build());
+
+        log.info("캐시된 답변 사용 - 질문: {}, 응답시간: {}ms", request.getQuestion(), responseTime);
+
+        return Optional.of(QueryResponse.builder()
+                .queryId(history.getId())
+                .question(request.getQuestion())
+                .answer(entry.answer())
+                .promptType(request.getPromptType())
+                .responseTime(responseTime)
+                .relevantDocuments(entry.relevantDocuments())
+                .sources(entry.sources())
+                .cached(true)
+                .timestamp(history.getCreatedAt())
+                .build());
+    }
 
-        // 2. OpenSearch에서 전문 검색
-        List<Map<String, Object>> searchResults = openSearchService.search(
-                request.getQuestion(),
-                request.getTopK()
-        );
+    /**
+     * 검색 결과 대기 및 프롬프트 생성 (1~4단계)
+     */
+    private PreparedQuery prepare(QueryRequest request, long startTime, Retrieval retrieval)
+            throws IOException {
+
+        // 1~2. 동시에 시작한 Vector DB 검색과 OpenSearch 전문 검색 결과 대기
+        RetrievalLeg vectorLeg = awaitLeg("벡터 검색", retrieval.vectorFuture(), retrieval.startNanos(),
+                retrievalConfig.getVectorTimeoutMs());
+        RetrievalLeg searchLeg = awaitLeg("전문 검색", retrieval.searchFuture(), retrieval.startNanos(),
+                retrievalConfig.getFullTextTimeoutMs());
+
+        if (!vectorLeg.succeeded() && !searchLeg.succeeded()) {
+            throw new IOException("벡터 검색과 전문 검색이 모두 실패했습니다.");
+        }
 
-        // 3. 검색 결과 통합
-        String context = buildContext(vectorResults, searchResults);
-        List<String> sources = extractSources(vectorResults);
+        List<Map<String, Object>> vectorResults = vectorLeg.results();
+        List<Map<String, Object>> searchResults = searchLeg.results();
 
-        // 4. 프롬프트 생성
-        String prompt = promptBuilder.buildPrompt(
-                request.getPromptType(),
-                request.getQuestion(),
-                context
-        );
+        // 3. 검색 결과 통합 (RRF 순위, 중복 제거, 토큰 예산 내 선택)
+        List<RankFusionService.Passage> passages = pipelineMetrics.time(PipelineMetrics.QUERY, "context_build",
+                () -> rankFusionService.pack(rankFusionService.fuse(vectorResults, searchResults),
+                        retrievalConfig.getContextMaxTokens()));
 
-        // 5. LLM으로 답변 생성
-        String answer = ollamaService.generate(prompt);
+        // 4. 프롬프트 방식별 토큰 예산 안에서 프롬프트 생성
+        PromptBuilder.BudgetedPrompt budgeted = pipelineMetrics.time(PipelineMetrics.QUERY, "prompt_build",
+                () -> promptBuilder.buildBudgetedPrompt(
+                        request.getPromptType(),
+                        request.getQuestion(),
+                        passages.stream().map(this::formatPassage).toList()
+                ));
+        List<RankFusionService.Passage> included = budgeted.includedPassages().stream()
+                .map(passages::get)
+                .toList();
+        List<String> sources = extractSources(included);
 
+        return new PreparedQuery(startTime, retrieval.cacheEpoch(), completedQuestionEmbedding(retrieval),
+                budgeted.prompt(), budgeted.context(), sources,
+                budgeted.usedTokens(), budgeted.budgetTokens(), vectorLeg, searchLeg);
+    }
+
+    /**
+     * 이력 저장 및 응답 생성 (6단계)
+     */
+    private QueryResponse complete(QueryRequest request, PreparedQuery prepared, String answer) {
         long endTime = System.currentTimeMillis();
-        int responseTime = (int) (endTime - startTime);
+        int responseTime = (int) (endTime - prepared.startTime());
+        RetrievalLeg vectorLeg = prepared.vectorLeg();
+        RetrievalLeg searchLeg = prepared.searchLeg();
+        int relevantDocuments = vectorLeg.results().size() + searchLeg.results().size();
 
         // 6. 이력 저장
         QueryHistory history = QueryHistory.builder()
                 .question(request.getQuestion())
                 .answer(answer)
                 .promptType(request.getPromptType())
-                .retrievedContext(context)
+                .retrievedContext(prepared.context())
                 .responseTime(responseTime)
-                .relevantDocuments(vectorResults.size() + searchResults.size())
+                .relevantDocuments(relevantDocuments)
+                .vectorSearchTime(vectorLeg.elapsedMs())
+                .fullTextSearchTime(searchLeg.elapsedMs())
+                .cacheHit(false)
                 .build();
 
-        history = queryHistoryRepository.save(history);
+        history = saveHistory(history);
+
+        if (prepared.questionEmbedding() != null) {
+            answerCache.put(request.getPromptType(), prepared.questionEmbedding(), answer, prepared.context(),
+                    prepared.sources(), relevantDocuments,
+                    extractDocumentKeys(vectorLeg.results(), searchLeg.results()), prepared.cacheEpoch());
+        }
 
         log.info("질문 처리 완료 - 질문: {}, 응답시간: {}ms", request.getQuestion(), responseTime);
 
@@ -89,17 +285,25 @@ public class QueryService {
                 .answer(answer)
                 .promptType(request.getPromptType())
                 .responseTime(responseTime)
-                .relevantDocuments(vectorResults.size() + searchResults.size())
-                .sources(sources)
+                .relevantDocuments(relevantDocuments)
+                .sources(prepared.sources())
+                .promptTokens(prepared.promptTokens())
+                .promptTokenBudget(prepared.promptTokenBudget())
+                .cached(false)
                 .timestamp(history.getCreatedAt())
                 .build();
     }
 
+    private QueryHistory saveHistory(QueryHistory history) {
+        return pipelineMetrics.time(PipelineMetrics.QUERY, "history_save",
+                () -> queryHistoryRepository.save(history));
+    }
+
     /**
-     * 질문 이력 조회 (페이징)
+     * 질문 이력 조회 (페이징, 답변과 검색 컨텍스트 제외)
      */
-    public Page<QueryHistory> getQueryHistory(Pageable pageable) {
-        return queryHistoryRepository.findAllByOrderByCreatedAtDesc(pageable);
+    public Page<QueryHistorySummary> getQueryHistory(Pageable pageable) {
+        return queryHistoryRepository.findSummaries(pageable);
     }
 
     /**
@@ -111,54 +315,144 @@ public class QueryService {
     }
 
     /**
-     * 검색 결과로부터 컨텍스트 생성
+     * 검색 작업을 검색 전용 스레드 풀에서 비동기 실행
+     * 소요 시간은 작업 안에서 측정하므로 다른 검색을 기다린 시간이 섞이지 않으며,
+     * 단계별 지표는 작업이 직접 기록하므로 제한 시간 초과로 결과를 버리더라도 작업이 끝날 때 기록됩니다.
+     * CompletableFuture.cancel은 실행 중인 작업을 인터럽트하지 않으므로 ExecutorService.submit으로 제출하고,
+     * 반환한 future가 취소되면 제출한 작업도 취소합니다 (대기 중이면 시작하지 않고, 실행 중이면 인터럽트).
      */
-    private String buildContext(List<Map<String, Object>> vectorResults,
-                                  List<Map<String, Object>> searchResults) {
-        StringBuilder context = new StringBuilder();
+    private CompletableFuture<TimedResults> supplyAsync(RetrievalTask task) {
+        CompletableFuture<TimedResults> future = new CompletableFuture<>();
+        Future<?> submitted = retrievalExecutor.submit(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                List<Map<String, Object>> results = task.run();
+                future.complete(new TimedResults(results, elapsedMs(startNanos)));
+            } catch (IOException e) {
+                future.completeExceptionally(new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((results, e) -> {
+            if (future.isCancelled()) {
+                submitted.cancel(true);
+            }
+        });
+        return future;
+    }
 
-        context.append("=== 벡터 검색 결과 ===\n");
-        for (int i = 0; i < vectorResults.size(); i++) {
-            Map<String, Object> result = vectorResults.get(i);
-            String document = (String) result.get("document");
-            context.append(String.format("[%d] %s\n\n", i + 1, document));
+    /**
+     * 검색 결과 대기 (제한 시간 초과 또는 실패 시 빈 결과로 대체)
+     * 성공한 검색은 작업 자체의 소요 시간을, 실패한 검색은 포기할 때까지 기다린 시간을 기록합니다.
+     * 제한 시간을 넘긴 검색은 취소하여 검색 스레드와 대기열을 비웁니다.
+     */
+    private RetrievalLeg awaitLeg(String name, CompletableFuture<TimedResults> future,
+                                  long startNanos, long timeoutMs) {
+        long remainingMs = timeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        try {
+            TimedResults timed = future.get(Math.max(remainingMs, 0), TimeUnit.MILLISECONDS);
+            return new RetrievalLeg(timed.results(), timed.elapsedMs(), true);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("{} 제한 시간({}ms) 초과 - 나머지 결과로 답변합니다.", name, timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("{} 실패 - 나머지 결과로 답변합니다.", name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("{} 대기 중 인터럽트 발생", name);
         }
+        return new RetrievalLeg(Collections.emptyList(), elapsedMs(startNanos), false);
+    }
+
+    private int elapsedMs(long startNanos) {
+        return (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @FunctionalInterface
+    private interface RetrievalTask {
+        List<Map<String, Object>> run() throws IOException;
+    }
+
+    /**
+     * 시작된 검색 (질문 임베딩은 벡터 검색 작업 안에서 생성)
+     */
+    private record Retrieval(long startNanos, long cacheEpoch, CompletableFuture<float[]> questionEmbedding,
+                             CompletableFuture<TimedResults> vectorFuture,
+                             CompletableFuture<TimedResults> searchFuture) {
+    }
+
+    /**
+     * 검색 작업 결과와 작업 자체의 소요 시간
+     */
+    private record TimedResults(List<Map<String, Object>> results, int elapsedMs) {
+    }
+
+    /**
+     * 검색 구간별 결과와 소요 시간
+     */
+    private record RetrievalLeg(List<Map<String, Object>> results, int elapsedMs, boolean succeeded) {
+    }
+
+    /**
+     * 답변 생성 직전까지 준비된 질의 정보
+     */
+    private record PreparedQuery(long startTime, long cacheEpoch, float[] questionEmbedding, String prompt,
+                                 String context, List<String> sources, int promptTokens, int promptTokenBudget,
+                                 RetrievalLeg vectorLeg, RetrievalLeg searchLeg) {
+    }
 
-        if (!searchResults.isEmpty()) {
-            context.append("\n=== 전문 검색 결과 ===\n");
-            for (int i = 0; i < Math.min(3, searchResults.size()); i++) {
-                Map<String, Object> result = searchResults.get(i);
-                Map<String, Object> source = (Map<String, Object>) result.get("source");
-                String content = (String) source.get("content");
+    /**
+     * 컨텍스트에 넣을 발췌문 형식 (파일명 표시)
+     */
+    private String formatPassage(RankFusionService.Passage passage) {
+        return passage.fileName() != null
+                ? String.format("(%s) %s", passage.fileName(), passage.text())
+                : passage.text();
+    }
 
-                // 긴 내용은 요약
-                if (content != null && content.length() > 500) {
-                    content = content.substring(0, 500) + "...";
-                }
+    /**
+     * 출처 추출 (컨텍스트에 포함된 발췌문의 파일명)
+     */
+    private List<String> extractSources(List<RankFusionService.Passage> passages) {
+        List<String> sources = new ArrayList<>();
 
-                context.append(String.format("[%d] %s\n\n", i + 1, content));
+        for (RankFusionService.Passage passage : passages) {
+            String fileName = passage.fileName();
+            if (fileName != null && !sources.contains(fileName)) {
+                sources.add(fileName);
             }
         }
 
-        return context.toString();
+        return sources;
     }
 
     /**
-     * 출처 추출
+     * 답변에 사용된 문서 식별자 추출 (캐시 무효화용)
      */
-    private List<String> extractSources(List<Map<String, Object>> vectorResults) {
-        List<String> sources = new ArrayList<>();
+    private Set<String> extractDocumentKeys(List<Map<String, Object>> vectorResults,
+                                            List<Map<String, Object>> searchResults) {
+        Set<String> documentKeys = new HashSet<>();
 
         for (Map<String, Object> result : vectorResults) {
-            Map<String, Object> metadata = (Map<String, Object>) result.get("metadata");
-            if (metadata != null && metadata.containsKey("fileName")) {
-                String fileName = (String) metadata.get("fileName");
-                if (!sources.contains(fileName)) {
-                    sources.add(fileName);
-                }
+            Map<?, ?> metadata = (Map<?, ?>) result.get("metadata");
+            if (metadata != null && metadata.get("vectorId") != null) {
+                documentKeys.add((String) metadata.get("vectorId"));
+            } else if (result.get("id") != null) {
+                // vectorId 메타데이터가 없는 기존 청크는 "{vectorId}_chunk_{n}" ID에서 추출
+                String id = (String) result.get("id");
+                int chunkIndex = id.lastIndexOf(VectorStore.CHUNK_ID_SEPARATOR);
+                documentKeys.add(chunkIndex > 0 ? id.substring(0, chunkIndex) : id);
             }
         }
 
-        return sources;
+        for (Map<String, Object> result : searchResults) {
+            // 청크 문서는 source의 searchIndexId, 문서 전체로 저장된 기존 항목은 ID 자체가 문서 식별자
+            Map<?, ?> source = (Map<?, ?>) result.get("source");
+            Object searchIndexId = source != null ? source.get("searchIndexId") : null;
+            documentKeys.add(searchIndexId != null ? (String) searchIndexId : (String) result.get("id"));
+        }
+
+        return documentKeys;
     }
 }
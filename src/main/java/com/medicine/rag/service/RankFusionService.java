@@ -0,0 +1,130 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.RetrievalConfig;
+import com.medicine.rag.util.TokenEstimator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 하이브리드 검색 결과 통합 서비스
+ * 벡터 검색과 전문 검색 결과를 RRF(Reciprocal Rank Fusion)로 합산하여 순위를 매기고,
+ * 중복되는 청크를 제거한 뒤 토큰 예산 안에서 상위 발췌문을 선택합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankFusionService {
+
+    private final RetrievalConfig retrievalConfig;
+    private final TokenEstimator tokenEstimator;
+
+    /**
+     * 두 검색 결과를 RRF 점수 순으로 통합
+     * 같은 청크 ID는 하나로 합치고(본문은 벡터 검색의 청크 전체를 우선),
+     * 다른 발췌문에 포함되는 발췌문은 포함하는 쪽으로 합칩니다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Passage> fuse(List<Map<String, Object>> vectorResults, List<Map<String, Object>> searchResults) {
+        int k = retrievalConfig.getRrfK();
+        Map<String, Passage> byId = new LinkedHashMap<>();
+
+        for (int rank = 0; rank < vectorResults.size(); rank++) {
+            Map<String, Object> result = vectorResults.get(rank);
+            Map<String, Object> metadata = (Map<String, Object>) result.getOrDefault("metadata", Map.of());
+            String id = result.get("id") != null ? (String) result.get("id") : "vector-" + rank;
+            String text = (String) result.get("document");
+            merge(byId, new Passage(id, text, (String) metadata.get("fileName"),
+                    (String) metadata.get("vectorId"), rrf(k, rank), estimate(text)));
+        }
+
+        for (int rank = 0; rank < searchResults.size(); rank++) {
+            Map<String, Object> result = searchResults.get(rank);
+            Map<String, Object> source = (Map<String, Object>) result.getOrDefault("source", Map.of());
+            List<String> highlights = (List<String>) result.getOrDefault("highlights", List.of());
+            String id = (String) result.get("id");
+            String text = String.join(" ... ", highlights);
+            merge(byId, new Passage(id, text, (String) source.get("fileName"),
+                    (String) source.getOrDefault("searchIndexId", id), rrf(k, rank), estimate(text)));
+        }
+
+        List<Passage> ranked = new ArrayList<>(byId.values());
+        ranked.sort(Comparator.comparingDouble(Passage::score).reversed());
+        return removeContained(ranked);
+    }
+
+    /**
+     * 순위대로 토큰 예산 안에 들어가는 발췌문 선택
+     * 예산을 넘는 발췌문은 건너뛰고 더 짧은 다음 순위 발췌문으로 남은 예산을 채웁니다.
+     */
+    public List<Passage> pack(List<Passage> ranked, int tokenBudget) {
+        List<Passage> selected = new ArrayList<>();
+        int used = 0;
+        for (Passage passage : ranked) {
+            if (used + passage.tokens() <= tokenBudget) {
+                selected.add(passage);
+                used += passage.tokens();
+            }
+        }
+        return selected;
+    }
+
+    private double rrf(int k, int rank) {
+        return 1.0 / (k + rank + 1);
+    }
+
+    private int estimate(String text) {
+        return text == null ? 0 : tokenEstimator.estimate(text);
+    }
+
+    private void merge(Map<String, Passage> byId, Passage passage) {
+        if (passage.text() == null || passage.text().isBlank()) {
+            return;
+        }
+        byId.merge(passage.id(), passage, (existing, added) -> existing.withScore(existing.score() + added.score()));
+    }
+
+    /**
+     * 공백을 정규화한 본문이 다른 발췌문에 포함되면 점수를 합쳐 하나로 만듦
+     */
+    private List<Passage> removeContained(List<Passage> ranked) {
+        List<Passage> kept = new ArrayList<>();
+        List<String> keptTexts = new ArrayList<>();
+
+        candidates:
+        for (Passage passage : ranked) {
+            String normalized = normalize(passage.text());
+            for (int i = 0; i < kept.size(); i++) {
+                Passage existing = kept.get(i);
+                if (keptTexts.get(i).contains(normalized)) {
+                    kept.set(i, existing.withScore(existing.score() + passage.score()));
+                    continue candidates;
+                }
+                if (normalized.contains(keptTexts.get(i))) {
+                    // 먼저 선택된 짧은 발췌문을 이를 포함하는 청크로 교체 (순위는 유지)
+                    kept.set(i, passage.withScore(existing.score() + passage.score()));
+                    keptTexts.set(i, normalized);
+                    continue candidates;
+                }
+            }
+            kept.add(passage);
+            keptTexts.add(normalized);
+        }
+        return kept;
+    }
+
+    private String normalize(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * 통합된 검색 발췌문
+     * documentKey는 답변 캐시 무효화에 쓰이는 문서 식별자(vectorId 또는 searchIndexId)입니다.
+     */
+    public record Passage(String id, String text, String fileName, String documentKey, double score, int tokens) {
+
+        Passage withScore(double score) {
+            return new Passage(id, text, fileName, documentKey, score, tokens);
+        }
+    }
+}
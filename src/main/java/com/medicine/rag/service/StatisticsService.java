@@ -23,7 +23,9 @@ public class StatisticsService {
 
     private final DocumentRepository documentRepository;
     private final QueryHistoryRepository queryHistoryRepository;
-    private final ChromaService chromaService;
+    private final VectorStore vectorStore;
+    private final EmbeddingCache embeddingCache;
+    private final AnswerCache answerCache;
 
     /**
      * 전체 통계 조회
@@ -35,9 +37,13 @@ public class StatisticsService {
         // 프롬프트 사용 통계
         StatisticsResponse.PromptUsageStats promptUsageStats = getPromptUsageStatistics();
 
+        // 캐시 통계
+        StatisticsResponse.CacheStats cacheStats = getCacheStatistics();
+
         return StatisticsResponse.builder()
                 .vectorDBStats(vectorDBStats)
                 .promptUsageStats(promptUsageStats)
+                .cacheStats(cacheStats)
                 .build();
     }
 
@@ -55,9 +61,9 @@ public class StatisticsService {
             documentsByTypeMap.put((String) row[0], (Long) row[1]);
         }
 
-        // Chroma 통계
-        Map<String, Object> chromaStats = chromaService.getStatistics();
-        Long totalVectorSize = (Long) chromaStats.get("count");
+        // 벡터 저장소 통계
+        Map<String, Object> vectorStoreStats = vectorStore.getStatistics();
+        Long totalVectorSize = (Long) vectorStoreStats.get("count");
 
         return StatisticsResponse.VectorDBStats.builder()
                 .totalDocuments(totalDocuments != null ? totalDocuments : 0L)
@@ -97,4 +103,29 @@ public class StatisticsService {
                 .avgResponseTimeByPromptType(avgResponseTimeMap)
                 .build();
     }
+
+    /**
+     * 캐시 통계
+     */
+    private StatisticsResponse.CacheStats getCacheStatistics() {
+        Map<String, Object> embeddingStats = embeddingCache.getStatistics();
+        Long hits = (Long) embeddingStats.get("memoryHits") + (Long) embeddingStats.get("diskHits");
+
+        // 답변 캐시 적중 수는 질문 이력 기준으로 집계
+        Long totalQueries = queryHistoryRepository.countTotalQueries();
+        Long answerCacheHits = queryHistoryRepository.countCacheHits();
+        answerCacheHits = answerCacheHits != null ? answerCacheHits : 0L;
+
+        return StatisticsResponse.CacheStats.builder()
+                .embeddingCacheHits(hits)
+                .embeddingCacheMisses((Long) embeddingStats.get("misses"))
+                .embeddingCacheHitRate((Double) embeddingStats.get("hitRate"))
+                .embeddingCacheEntries((Long) embeddingStats.get("entries"))
+                .embeddingCacheBytes((Long) embeddingStats.get("memoryBytes"))
+                .answerCacheHits(answerCacheHits)
+                .answerCacheHitRate(totalQueries != null && totalQueries > 0
+                        ? (double) answerCacheHits / totalQueries : 0.0)
+                .answerCacheEntries((long) answerCache.size())
+                .build();
+    }
 }
@@ -0,0 +1,48 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.model.StoreOperation;
+import com.medicine.rag.repository.StoreOperationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 외부 저장소 반영 작업 기록 (아웃박스)
+ * 호출한 쪽의 트랜잭션 안에서 기록되므로, 문서 정보 변경이 롤백되면 작업도 함께 취소됩니다.
+ * 기록된 작업은 커밋 후 {@link StoreOutboxProcessor}가 반영합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoreOutbox {
+
+    private final StoreOperationRepository storeOperationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 작업 기록 (같은 대상에 대기 중인 같은 작업이 있으면 생략)
+     */
+    public void record(StoreOperation.Type type, String targetId) {
+        if (targetId == null
+                || storeOperationRepository.existsByTypeAndTargetIdAndStatus(type, targetId, StoreOperation.Status.PENDING)) {
+            return;
+        }
+        storeOperationRepository.save(StoreOperation.builder()
+                .type(type)
+                .targetId(targetId)
+                .status(StoreOperation.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new Recorded(type, targetId));
+    }
+
+    /**
+     * 작업 기록 이벤트 (커밋 후 바로 반영을 시작하는 데 사용)
+     */
+    public record Recorded(StoreOperation.Type type, String targetId) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.ConsistencyConfig;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.model.StoreOperation;
+import com.medicine.rag.repository.DocumentRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
+import com.medicine.rag.repository.StoreOperationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 외부 저장소 반영 작업 처리
+ * 기록된 작업을 커밋 직후와 주기적으로 반영하고, 실패하면 간격을 늘려 가며 재시도합니다.
+ * 삭제 직전에 대상이 다시 문서나 진행 중인 작업에 쓰이고 있는지 확인하므로,
+ * 늦게 처리되거나 중복 실행되어도 사용 중인 데이터는 지우지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoreOutboxProcessor {
+
+    private static final EnumSet<IngestionJob.Status> ACTIVE_STATUSES =
+            EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING);
+
+    private final StoreOperationRepository storeOperationRepository;
+    private final DocumentRepository documentRepository;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final VectorStore vectorStore;
+    private final OpenSearchService openSearchService;
+    private final DocumentService documentService;
+    private final ConsistencyConfig consistencyConfig;
+    private final ScheduledExecutorService consistencyScheduler;
+
+    private final AtomicBoolean triggered = new AtomicBoolean(false);
+
+    @PostConstruct
+    public void init() {
+        long interval = consistencyConfig.getOutboxIntervalMs();
+        consistencyScheduler.scheduleWithFixedDelay(this::processSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 작업이 기록된 트랜잭션이 커밋되면 바로 처리 (여러 건이 기록되어도 한 번만 실행)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecorded(StoreOutbox.Recorded event) {
+        if (triggered.compareAndSet(false, true)) {
+            consistencyScheduler.execute(() -> {
+                triggered.set(false);
+                processSafely();
+            });
+        }
+    }
+
+    /**
+     * 처리할 때가 된 작업 반영 (처리한 작업 수 반환)
+     */
+    public synchronized int processPending() {
+        int processed = 0;
+        int batchSize = consistencyConfig.getOutboxBatchSize();
+        while (true) {
+            List<StoreOperation> operations = storeOperationRepository
+                    .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                            StoreOperation.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (StoreOperation operation : operations) {
+                process(operation);
+                processed++;
+            }
+            if (operations.size() < batchSize) {
+                return processed;
+            }
+        }
+    }
+
+    private void processSafely() {
+        try {
+            processPending();
+        } catch (Exception e) {
+            log.warn("저장소 반영 작업 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void process(StoreOperation operation) {
+        try {
+            apply(operation);
+            storeOperationRepository.delete(operation);
+        } catch (Exception e) {
+            int attempts = operation.getAttempts() + 1;
+            operation.setAttempts(attempts);
+            operation.setLastError(e.getMessage());
+            if (attempts >= consistencyConfig.getOutboxMaxAttempts()) {
+                operation.setStatus(StoreOperation.Status.FAILED);
+                log.error("{} 실패, 재시도 중단: {} ({}회)",
+                        operation.getType().getDescription(), operation.getTargetId(), attempts, e);
+            } else {
+                long backoff = Math.min(consistencyConfig.getOutboxIntervalMs() << Math.min(attempts - 1, 20),
+                        consistencyConfig.getOutboxMaxBackoffMs());
+                operation.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff)));
+                log.warn("{} 실패, {}ms 후 재시도: {} ({})",
+                        operation.getType().getDescription(), backoff, operation.getTargetId(), e.getMessage());
+            }
+            storeOperationRepository.save(operation);
+        }
+    }
+
+    private void apply(StoreOperation operation) throws Exception {
+        String targetId = operation.getTargetId();
+        switch (operation.getType()) {
+            case DELETE_VECTORS -> {
+                if (documentRepository.countByVectorId(targetId) == 0
+                        && !ingestionJobRepository.existsByVectorIdAndStatusIn(targetId, ACTIVE_STATUSES)) {
+                    vectorStore.deleteByVectorId(targetId);
+                }
+            }
+            case DELETE_SEARCH_DOCUMENT -> {
+                if (!documentRepository.existsBySearchIndexId(targetId)
+                        && !ingestionJobRepository.existsBySearchIndexIdAndStatusIn(targetId, ACTIVE_STATUSES)) {
+                    openSearchService.deleteDocument(targetId);
+                }
+            }
+            case RELEASE_FILE -> documentService.releaseFile(targetId);
+            case RELEASE_TEXT -> documentService.releaseText(targetId);
+        }
+    }
+}
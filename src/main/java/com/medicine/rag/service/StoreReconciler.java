@@ -0,0 +1,105 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.ConsistencyConfig;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.model.StoreOperation;
+import com.medicine.rag.repository.DocumentChunkRepository;
+import com.medicine.rag.repository.DocumentRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저장소 간 고아 데이터 정리
+ * 벡터 저장소와 OpenSearch를 일정 단위로 훑어, 어떤 문서나 진행 중인 수집 작업에도 속하지 않는
+ * vectorId/searchIndexId를 찾아 삭제 작업으로 기록하고, MySQL의 고아 청크 지문도 함께 정리합니다.
+ * 삭제는 훑기가 끝난 뒤 한꺼번에 반영하므로 훑는 동안 페이지 위치가 바뀌지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoreReconciler {
+
+    private static final EnumSet<IngestionJob.Status> ACTIVE_STATUSES =
+            EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING);
+
+    private final VectorStore vectorStore;
+    private final OpenSearchService openSearchService;
+    private final DocumentRepository documentRepository;
+    private final DocumentChunkRepository documentChunkRepository;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final StoreOutbox storeOutbox;
+    private final StoreOutboxProcessor storeOutboxProcessor;
+    private final ConsistencyConfig consistencyConfig;
+    private final ScheduledExecutorService consistencyScheduler;
+
+    @PostConstruct
+    public void init() {
+        long interval = consistencyConfig.getReconcileIntervalMs();
+        if (interval > 0) {
+            consistencyScheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    reconcile();
+                } catch (Exception e) {
+                    log.warn("고아 데이터 정리 실패: {}", e.getMessage());
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 고아 데이터 정리 (저장소별 정리 대상 수 반환)
+     */
+    public synchronized Map<String, Integer> reconcile() throws IOException {
+        int batchSize = consistencyConfig.getReconcileBatchSize();
+
+        Set<String> orphanVectorIds = new LinkedHashSet<>();
+        vectorStore.scanVectorIds(batchSize, vectorIds -> {
+            Set<String> orphans = new HashSet<>(vectorIds);
+            documentRepository.findVectorIdsIn(vectorIds).forEach(orphans::remove);
+            ingestionJobRepository.findVectorIdsIn(vectorIds, ACTIVE_STATUSES).forEach(orphans::remove);
+            orphanVectorIds.addAll(orphans);
+        });
+
+        Set<String> orphanSearchIndexIds = new LinkedHashSet<>();
+        openSearchService.scanSearchIndexIds(batchSize, searchIndexIds -> {
+            Set<String> orphans = new HashSet<>(searchIndexIds);
+            documentRepository.findSearchIndexIdsIn(searchIndexIds).forEach(orphans::remove);
+            ingestionJobRepository.findSearchIndexIdsIn(searchIndexIds, ACTIVE_STATUSES).forEach(orphans::remove);
+            orphanSearchIndexIds.addAll(orphans);
+        });
+
+        orphanVectorIds.forEach(id -> storeOutbox.record(StoreOperation.Type.DELETE_VECTORS, id));
+        orphanSearchIndexIds.forEach(id -> storeOutbox.record(StoreOperation.Type.DELETE_SEARCH_DOCUMENT, id));
+        storeOutboxProcessor.processPending();
+
+        // MySQL 청크 지문은 직접 정리 (삭제한 만큼 다음 페이지가 앞으로 당겨지므로 항상 첫 페이지 조회)
+        int orphanChunkGroups = 0;
+        List<String> chunkVectorIds;
+        do {
+            chunkVectorIds = documentChunkRepository.findOrphanVectorIds(ACTIVE_STATUSES, PageRequest.of(0, batchSize));
+            for (String vectorId : chunkVectorIds) {
+                documentChunkRepository.deleteByVectorId(vectorId);
+            }
+            orphanChunkGroups += chunkVectorIds.size();
+        } while (chunkVectorIds.size() == batchSize);
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("vectorStore", orphanVectorIds.size());
+        result.put("openSearch", orphanSearchIndexIds.size());
+        result.put("chunkFingerprints", orphanChunkGroups);
+        if (!orphanVectorIds.isEmpty() || !orphanSearchIndexIds.isEmpty() || orphanChunkGroups > 0) {
+            log.info("고아 데이터 정리: 벡터 저장소 {}개, OpenSearch {}개, 청크 지문 {}개 문서",
+                    orphanVectorIds.size(), orphanSearchIndexIds.size(), orphanChunkGroups);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.medicine.rag.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 벡터 저장소
+ * vector-store.type 설정에 따라 Chroma 서버({@link ChromaService}) 또는
+ * 내장 HNSW 인덱스({@link LocalVectorStore}) 구현이 사용됩니다.
+ */
+public interface VectorStore {
+
+    /**
+     * 청크 ID 구분자 (청크 ID는 "{vectorId}_chunk_{번호 또는 지문}")
+     */
+    String CHUNK_ID_SEPARATOR = "_chunk_";
+
+    /**
+     * 문서 벡터 추가 (같은 ID가 있으면 덮어씀)
+     */
+    void addDocuments(List<String> documentIds, List<String> texts,
+                      List<Map<String, String>> metadatas) throws IOException;
+
+    /**
+     * 문서 벡터 삭제 (없는 ID는 무시)
+     */
+    void deleteDocuments(List<String> documentIds) throws IOException;
+
+    /**
+     * 문서(vectorId)의 모든 청크 벡터 삭제 (없으면 무시)
+     * 청크 메타데이터의 vectorId와, 메타데이터가 없는 기존 청크의 "{vectorId}_chunk_" ID를 모두 대상으로 합니다.
+     */
+    void deleteByVectorId(String vectorId) throws IOException;
+
+    /**
+     * 저장된 청크의 vectorId를 batchSize개 청크 단위로 훑어 중복을 제거한 뒤 전달 (정합성 점검용)
+     * vectorId 메타데이터가 없는 기존 청크는 청크 ID 앞부분을 vectorId로 사용합니다.
+     */
+    void scanVectorIds(int batchSize, Consumer<Set<String>> consumer) throws IOException;
+
+    /**
+     * 유사 문서 검색
+     * 각 결과는 id, document, metadata, distance 항목을 가집니다.
+     */
+    List<Map<String, Object>> query(String queryText, int topK) throws IOException;
+
+    /**
+     * 이미 생성한 질문 임베딩으로 유사 문서 검색 (질문을 다시 임베딩하지 않음)
+     * 결과 형식은 {@link #query(String, int)}와 같습니다.
+     */
+    List<Map<String, Object>> query(float[] queryEmbedding, int topK) throws IOException;
+
+    /**
+     * 벡터 저장소 통계 (count, name)
+     */
+    Map<String, Object> getStatistics() throws IOException;
+}
@@ -0,0 +1,121 @@
+package com.medicine.rag.util;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시 요청 수 제한 인터셉터
+ * 동기 호출(execute)은 OkHttp Dispatcher 제한을 받지 않으므로 세마포어로 동시 요청 수를 제한합니다.
+ * 허가는 응답 본문이 닫힐 때 반환되어 스트리밍 응답도 끝날 때까지 한 요청으로 집계됩니다.
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+
+    private final int limit;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public ConcurrencyLimitInterceptor(int limit) {
+        this.limit = Math.max(1, limit);
+        this.permits = new Semaphore(this.limit, true);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("동시 요청 허가 대기 중 중단되었습니다.");
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            permits.release();
+            return response;
+        }
+        return response.newBuilder()
+                .body(new ReleasingBody(body))
+                .build();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 처리 중인 요청 수
+     */
+    public int getActive() {
+        return limit - permits.availablePermits();
+    }
+
+    /**
+     * 허가를 기다리는 요청 수
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * 닫힐 때 허가를 한 번만 반환하는 응답 본문
+     */
+    private class ReleasingBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final BufferedSource source;
+
+        ReleasingBody(ResponseBody delegate) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
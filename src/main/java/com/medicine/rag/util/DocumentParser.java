@@ -1,7 +1,13 @@
 package com.medicine.rag.util;
 
+import com.medicine.rag.config.ChunkingConfig;
+import com.medicine.rag.config.IngestionConfig;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -9,15 +15,26 @@ import org.springframework.stereotype.Component;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * 문서 파싱 유틸리티
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class DocumentParser {
 
+    private static final int TEXT_BLOCK_SIZE = 64 * 1024; // 텍스트 파일 스트리밍 단위 (문자)
+
+    private final IngestionConfig ingestionConfig;
+    private final ChunkingConfig chunkingConfig;
+    private final TokenEstimator tokenEstimator;
+    private final ForkJoinPool pdfExtractionPool;
+
     /**
      * 파일에서 텍스트 추출
      */
@@ -31,13 +48,203 @@ public class DocumentParser {
         };
     }
 
+    /**
+     * 파일에서 텍스트를 조각 단위로 스트리밍 추출
+     * PDF는 페이지 단위, Word는 문단 단위, 텍스트 파일은 일정 크기 단위로 전달하며
+     * 전체 텍스트를 한 번에 메모리에 올리지 않습니다.
+     */
+    public void streamText(File file, String fileType, TextConsumer consumer) throws IOException {
+        switch (fileType.toLowerCase()) {
+            case "pdf" -> streamFromPdf(file, consumer);
+            case "txt" -> streamFromTxt(file, consumer);
+            case "doc", "docx" -> streamFromWord(file, consumer);
+            case "hwp" -> {
+                log.warn("HWP 파일 형식은 제한적으로 지원됩니다. 전문적인 HWP 파서 라이브러리 사용을 권장합니다.");
+                streamFromTxt(file, consumer);
+            }
+            default -> throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + fileType);
+        }
+    }
+
+    /**
+     * PDF 페이지 단위 스트리밍 추출
+     * 파싱 중 생성되는 스트림 캐시는 임시 파일에 두어 힙 사용량을 몇 페이지 분량으로 제한합니다.
+     * 열린 문서는 한 번 파싱한 페이지 객체를 닫을 때까지 보관하므로, 대용량 PDF는 페이지 구간마다 문서를 다시 엽니다.
+     */
+    private void streamFromPdf(File file, TextConsumer consumer) throws IOException {
+        int pageCount;
+        try (PDDocument document = Loader.loadPDF(file, IOUtils.createTempFileOnlyStreamCache())) {
+            pageCount = document.getNumberOfPages();
+            if (pageCount < ingestionConfig.getPdfParallelMinPages()) {
+                streamPages(document, 1, pageCount, consumer);
+                return;
+            }
+        }
+
+        if (!isParallelExtraction(pageCount)) {
+            int window = ingestionConfig.getPdfPagesPerTask();
+            for (int startPage = 1; startPage <= pageCount; startPage += window) {
+                int endPage = Math.min(pageCount, startPage + window - 1);
+                try (PDDocument document = Loader.loadPDF(file, IOUtils.createTempFileOnlyStreamCache())) {
+                    streamPages(document, startPage, endPage, consumer);
+                }
+            }
+            return;
+        }
+
+        // 대용량 PDF는 스레드 수만큼의 페이지 구간을 한 묶음으로 병렬 추출하여 페이지 순서대로 전달
+        int window = pdfPagesPerWindow();
+        for (int startPage = 1; startPage <= pageCount; startPage += window) {
+            int endPage = Math.min(pageCount, startPage + window - 1);
+            consumer.accept(extractPdfPagesInParallel(file, startPage, endPage));
+        }
+    }
+
+    /**
+     * 열린 PDF 문서의 페이지 구간 [startPage, endPage]를 한 페이지씩 추출하여 전달
+     */
+    private void streamPages(PDDocument document, int startPage, int endPage, TextConsumer consumer)
+            throws IOException {
+        StringWriter pageText = new StringWriter();
+        PDFTextStripper stripper = new PDFTextStripper() {
+            @Override
+            protected void endPage(PDPage page) throws IOException {
+                super.endPage(page);
+                consumer.accept(pageText.toString());
+                pageText.getBuffer().setLength(0);
+            }
+        };
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        stripper.writeText(document, pageText);
+    }
+
+    /**
+     * 텍스트 파일 블록 단위 스트리밍 추출
+     */
+    private void streamFromTxt(File file, TextConsumer consumer) throws IOException {
+        StringBuilder block = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                block.append(line).append("\n");
+                if (block.length() >= TEXT_BLOCK_SIZE) {
+                    consumer.accept(block.toString());
+                    block.setLength(0);
+                }
+            }
+        }
+        if (block.length() > 0) {
+            consumer.accept(block.toString());
+        }
+    }
+
+    /**
+     * Word 문서 문단 단위 스트리밍 추출
+     */
+    private void streamFromWord(File file, TextConsumer consumer) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file);
+             XWPFDocument document = new XWPFDocument(fis)) {
+            for (XWPFParagraph paragraph : document.getParagraphs()) {
+                consumer.accept(paragraph.getText() + "\n");
+            }
+        }
+    }
+
     /**
      * PDF에서 텍스트 추출
      */
     private String extractFromPdf(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        int pageCount;
+        try (PDDocument document = Loader.loadPDF(file)) {
+            pageCount = document.getNumberOfPages();
+            if (!isParallelExtraction(pageCount)) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                return stripper.getText(document);
+            }
+        }
+        return extractPdfPagesInParallel(file, 1, pageCount);
+    }
+
+    /**
+     * 병렬 추출 대상 여부 (설정된 최소 페이지 수 이상이고 스레드가 2개 이상인 경우)
+     */
+    private boolean isParallelExtraction(int pageCount) {
+        return ingestionConfig.getEffectivePdfParallelism() > 1
+                && pageCount >= ingestionConfig.getPdfParallelMinPages();
+    }
+
+    /**
+     * 스트리밍 추출 시 한 번에 병렬 처리하는 페이지 수
+     */
+    private int pdfPagesPerWindow() {
+        return ingestionConfig.getEffectivePdfParallelism() * ingestionConfig.getPdfPagesPerTask();
+    }
+
+    /**
+     * 페이지 구간을 Fork-Join 풀에서 나누어 추출한 뒤 페이지 순서대로 합침
+     */
+    private String extractPdfPagesInParallel(File file, int startPage, int endPage) throws IOException {
+        int pageCount = endPage - startPage + 1;
+        int parallelism = ingestionConfig.getEffectivePdfParallelism();
+        int pagesPerTask = Math.max(ingestionConfig.getPdfPagesPerTask(), (pageCount + parallelism - 1) / parallelism);
+        try {
+            return pdfExtractionPool.invoke(new PdfPageRangeTask(file, startPage, endPage, pagesPerTask));
+        } catch (RuntimeException e) {
+            // Fork-Join 풀은 예외를 감싸서 다시 던지므로 원인이 된 IOException을 찾아 전달
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * PDF 페이지 구간 추출 작업
+     * PDDocument는 스레드 안전하지 않으므로 작업마다 문서를 따로 열고 자체 PDFTextStripper를 사용합니다.
+     */
+    private static class PdfPageRangeTask extends RecursiveTask<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File file;
+        private final int startPage;
+        private final int endPage;
+        private final int pagesPerTask;
+
+        PdfPageRangeTask(File file, int startPage, int endPage, int pagesPerTask) {
+            this.file = file;
+            this.startPage = startPage;
+            this.endPage = endPage;
+            this.pagesPerTask = pagesPerTask;
+        }
+
+        @Override
+        protected String compute() {
+            if (endPage - startPage + 1 <= pagesPerTask) {
+                return extractRange();
+            }
+
+            int middle = startPage + (endPage - startPage) / 2;
+            PdfPageRangeTask left = new PdfPageRangeTask(file, startPage, middle, pagesPerTask);
+            PdfPageRangeTask right = new PdfPageRangeTask(file, middle + 1, endPage, pagesPerTask);
+            left.fork();
+            String rightText = right.compute();
+            return left.join() + rightText;
+        }
+
+        private String extractRange() {
+            try (PDDocument document = Loader.loadPDF(file, IOUtils.createTempFileOnlyStreamCache())) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(startPage);
+                stripper.setEndPage(endPage);
+                return stripper.getText(document);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
 
@@ -86,26 +293,24 @@ public class DocumentParser {
     /**
      * 텍스트를 청크로 분할
      */
-    public List<String> chunkText(String text, int chunkSize, int overlap) {
-        java.util.List<String> chunks = new java.util.ArrayList<>();
-        int textLength = text.length();
-        int start = 0;
-
-        while (start < textLength) {
-            int end = Math.min(start + chunkSize, textLength);
-
-            // 문장 단위로 끊기 위해 마지막 마침표 찾기
-            if (end < textLength) {
-                int lastPeriod = text.lastIndexOf('.', end);
-                if (lastPeriod > start) {
-                    end = lastPeriod + 1;
-                }
-            }
-
-            chunks.add(text.substring(start, end).trim());
-            start = end - overlap;
+    public List<String> chunkText(String text) {
+        List<String> chunks = new ArrayList<>();
+        TextChunker chunker = newChunker(chunks::add);
+        try {
+            chunker.append(text);
+            chunker.finish();
+        } catch (IOException e) {
+            // 리스트에 담기만 하므로 발생하지 않음
+            throw new UncheckedIOException(e);
         }
-
         return chunks;
     }
+
+    /**
+     * 설정된 토큰 한도로 점진적 청크 분할기 생성
+     */
+    public TextChunker newChunker(TextConsumer chunkConsumer) {
+        return new TextChunker(tokenEstimator, chunkingConfig.getMaxTokens(),
+                chunkingConfig.getOverlapTokens(), chunkConsumer);
+    }
 }
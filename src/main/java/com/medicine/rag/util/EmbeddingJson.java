@@ -0,0 +1,147 @@
+package com.medicine.rag.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 임베딩 JSON 스트리밍 변환 유틸리티
+ * 트리 노드나 중간 맵을 만들지 않고 float 배열을 바로 읽고 씁니다.
+ */
+public final class EmbeddingJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private EmbeddingJson() {
+    }
+
+    public static JsonFactory factory() {
+        return JSON_FACTORY;
+    }
+
+    /**
+     * 최상위 객체에서 단일 임베딩 배열 필드 읽기 (예: {"embedding": [...]})
+     */
+    public static float[] readEmbedding(InputStream in, String fieldName) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (moveToField(parser, fieldName)) {
+                return readFloatArray(parser);
+            }
+        }
+        throw new IOException("응답에 " + fieldName + " 필드가 없습니다.");
+    }
+
+    /**
+     * 최상위 객체에서 임베딩 배열의 배열 필드 읽기 (예: {"embeddings": [[...], [...]]})
+     */
+    public static List<float[]> readEmbeddings(InputStream in, String fieldName) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (moveToField(parser, fieldName)) {
+                if (parser.currentToken() != JsonToken.START_ARRAY) {
+                    throw new IOException(fieldName + " 필드가 배열이 아닙니다.");
+                }
+                List<float[]> embeddings = new ArrayList<>();
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    embeddings.add(readFloatArray(parser));
+                }
+                return embeddings;
+            }
+        }
+        throw new IOException("응답에 " + fieldName + " 필드가 없습니다.");
+    }
+
+    /**
+     * float 배열 쓰기
+     */
+    public static void writeFloatArray(JsonGenerator generator, float[] values) throws IOException {
+        generator.writeStartArray(values, values.length);
+        for (float value : values) {
+            generator.writeNumber(value);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * 최상위 객체에서 ID 배열과 임베딩 배열의 배열 필드를 함께 읽기
+     * (예: Chroma /get 응답 {"ids": [...], "embeddings": [[...], ...], ...})
+     * 두 필드의 순서는 상관없으며 다른 필드의 값은 건너뜁니다. 없는 필드는 빈 목록으로 반환합니다.
+     */
+    public static EmbeddingPage readEmbeddingPage(InputStream in, String idsField, String embeddingsField)
+            throws IOException {
+        List<String> ids = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("응답이 JSON 객체가 아닙니다.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == JsonToken.START_ARRAY && idsField.equals(name)) {
+                    while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        ids.add(parser.getText());
+                    }
+                } else if (valueToken == JsonToken.START_ARRAY && embeddingsField.equals(name)) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        // 임베딩이 없는 항목은 null로 유지하여 ID와 순서를 맞춤
+                        embeddings.add(token == JsonToken.START_ARRAY ? readFloatArray(parser) : null);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new EmbeddingPage(ids, embeddings);
+    }
+
+    /**
+     * ID와 임베딩 목록 (같은 위치끼리 대응)
+     */
+    public record EmbeddingPage(List<String> ids, List<float[]> embeddings) {
+    }
+
+    /**
+     * 최상위 필드의 값 위치로 이동 (다른 필드의 값은 건너뜀)
+     */
+    private static boolean moveToField(JsonParser parser, String fieldName) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            if (fieldName.equals(name)) {
+                return valueToken != JsonToken.VALUE_NULL;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * 현재 START_ARRAY 위치에서 숫자 배열을 float 배열로 읽기
+     */
+    private static float[] readFloatArray(JsonParser parser) throws IOException {
+        float[] values = new float[1024];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null || !token.isNumeric()) {
+                throw new IOException("임베딩 배열에 숫자가 아닌 값이 있습니다.");
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getFloatValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,56 @@
+package com.medicine.rag.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 외부 HTTP 클라이언트 연결 풀 메트릭
+ * 클라이언트 종류와 관계없이 같은 이름으로 등록하고 client 태그로 구분합니다.
+ * - http.client.connections{state=active|idle}: 사용 중/유휴 연결 수
+ * - http.client.connections.max: 동시 요청(연결) 상한
+ * - http.client.requests.pending: 연결 또는 허가를 기다리는 요청 수
+ */
+public final class HttpClientMetrics {
+
+    private HttpClientMetrics() {
+    }
+
+    /**
+     * OkHttp 클라이언트 메트릭 등록
+     */
+    public static void bind(MeterRegistry registry, String client, OkHttpClient httpClient,
+                            ConcurrencyLimitInterceptor limiter) {
+        ConnectionPool pool = httpClient.connectionPool();
+        gauge(registry, "http.client.connections", client, "active", pool,
+                p -> p.connectionCount() - p.idleConnectionCount());
+        gauge(registry, "http.client.connections", client, "idle", pool, ConnectionPool::idleConnectionCount);
+        gauge(registry, "http.client.connections.max", client, null, limiter, ConcurrencyLimitInterceptor::getLimit);
+        gauge(registry, "http.client.requests.pending", client, null, limiter, ConcurrencyLimitInterceptor::getWaiting);
+    }
+
+    /**
+     * Apache 비동기 클라이언트(OpenSearch) 메트릭 등록
+     */
+    public static void bind(MeterRegistry registry, String client, PoolingNHttpClientConnectionManager manager) {
+        gauge(registry, "http.client.connections", client, "active", manager, m -> m.getTotalStats().getLeased());
+        gauge(registry, "http.client.connections", client, "idle", manager, m -> m.getTotalStats().getAvailable());
+        gauge(registry, "http.client.connections.max", client, null, manager, m -> m.getTotalStats().getMax());
+        gauge(registry, "http.client.requests.pending", client, null, manager, m -> m.getTotalStats().getPending());
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String client, String state,
+                                  T target, ToDoubleFunction<T> value) {
+        Gauge.Builder<T> builder = Gauge.builder(name, target, value)
+                .tag("client", client)
+                .strongReference(true);
+        if (state != null) {
+            builder.tag("state", state);
+        }
+        builder.register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.medicine.rag.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RAG 파이프라인 단계별 소요 시간 메트릭
+ * 질문 처리는 rag.query.stage, 문서 수집은 rag.ingestion.stage 타이머에 stage 태그로 기록합니다.
+ * 백분위수/히스토그램 설정은 application.yml의 management.metrics.distribution에서 관리합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public static final String QUERY = "rag.query.stage";
+    public static final String INGESTION = "rag.ingestion.stage";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * 단계 실행 시간 기록 (예외가 발생해도 기록)
+     */
+    public <T, E extends Exception> T time(String pipeline, String stage, Step<T, E> step) throws E {
+        long start = System.nanoTime();
+        try {
+            return step.run();
+        } finally {
+            record(pipeline, stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 직접 측정한 단계 소요 시간 기록
+     */
+    public void record(String pipeline, String stage, long nanos) {
+        timer(pipeline, stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String pipeline, String stage) {
+        return timers.computeIfAbsent(pipeline + ":" + stage, key -> Timer.builder(pipeline)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+
+    @FunctionalInterface
+    public interface Step<T, E extends Exception> {
+        T run() throws E;
+    }
+}
@@ -1,14 +1,23 @@
 package com.medicine.rag.util;
 
+import com.medicine.rag.config.PromptConfig;
 import com.medicine.rag.model.QueryHistory.PromptType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 프롬프트 빌더 유틸리티
  */
 @Component
+@RequiredArgsConstructor
 public class PromptBuilder {
 
+    private final PromptConfig promptConfig;
+    private final TokenEstimator tokenEstimator;
+
     /**
      * 프롬프트 방식에 따라 프롬프트 생성
      */
@@ -25,6 +34,76 @@ public class PromptBuilder {
         return basePrompt + getPromptInstruction(promptType);
     }
 
+    /**
+     * 토큰 예산 안에서 프롬프트 생성
+     * 질문과 지시문을 제외한 예산만큼 발췌문을 순위대로 넣으며, 남은 예산보다 긴 발췌문은
+     * 잘라서 넣거나(남은 예산이 최소 길이 이상인 경우) 제외합니다.
+     * 발췌문의 연속된 공백과 빈 줄은 하나로 줄여 넣습니다.
+     */
+    public BudgetedPrompt buildBudgetedPrompt(PromptType promptType, String question, List<String> passages) {
+        int budget = getTokenBudget(promptType);
+        int remaining = budget - tokenEstimator.estimate(buildPrompt(promptType, question, ""));
+
+        StringBuilder context = new StringBuilder();
+        List<Integer> includedPassages = new ArrayList<>();
+        for (int i = 0; i < passages.size(); i++) {
+            String text = compress(passages.get(i));
+            String label = String.format("[%d] ", includedPassages.size() + 1);
+            int tokens = tokenEstimator.estimate(label) + tokenEstimator.estimate(text);
+
+            if (tokens > remaining) {
+                int available = remaining - tokenEstimator.estimate(label);
+                if (available < promptConfig.getMinPassageTokens()) {
+                    continue;
+                }
+                text = tokenEstimator.truncate(text, available - 1) + "…";
+                tokens = tokenEstimator.estimate(label) + tokenEstimator.estimate(text);
+            }
+
+            context.append(label).append(text).append("\n\n");
+            includedPassages.add(i);
+            remaining -= tokens;
+        }
+
+        String contextText = context.toString();
+        return new BudgetedPrompt(buildPrompt(promptType, question, contextText), contextText,
+                includedPassages, budget - remaining, budget);
+    }
+
+    /**
+     * 프롬프트 방식별 토큰 예산 (모델 컨텍스트 길이 - 답변용 예약 토큰)
+     */
+    public int getTokenBudget(PromptType promptType) {
+        return promptConfig.getContextWindow() - getAnswerReserve(promptType);
+    }
+
+    /**
+     * 프롬프트 방식별 답변 예약 토큰 수
+     */
+    public int getAnswerReserve(PromptType promptType) {
+        return switch (promptType) {
+            case SIMPLE -> 256;
+            case FACT_CHECK -> 384;
+            case BASIC, POINTS -> 512;
+            case STRUCTURED -> 768;
+            case DETAILED, STEP_BY_STEP -> 1024;
+        };
+    }
+
+    private String compress(String passage) {
+        return passage.replaceAll("[ \\t\\x0B\\f\\r]+", " ")
+                .replaceAll(" ?\\n\\s*", "\n")
+                .trim();
+    }
+
+    /**
+     * 토큰 예산을 적용한 프롬프트
+     * includedPassages는 컨텍스트에 들어간 발췌문의 입력 순번입니다.
+     */
+    public record BudgetedPrompt(String prompt, String context, List<Integer> includedPassages,
+                                 int usedTokens, int budgetTokens) {
+    }
+
     /**
      * 프롬프트 방식별 지시문
      */
@@ -0,0 +1,244 @@
+package com.medicine.rag.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 문장/토큰 기반 점진적 텍스트 청크 분할기
+ * 텍스트를 조각 단위로 받아 한 번의 선형 순회로 문장(세그먼트) 경계를 찾고,
+ * 추정 토큰 수가 한도에 이를 때까지 문장을 채워 청크를 완성하는 즉시 전달합니다.
+ *
+ * 세그먼트 경계는 두 종류입니다.
+ * - 문장 끝: 마침표/물음표/느낌표 등(한국어 "다.", "요." 포함) 뒤에 공백이 오는 위치, 빈 줄
+ * - 줄바꿈: 문장 중간일 수 있으므로 문장 끝이 너무 앞쪽에 있을 때만 분할 지점으로 사용
+ */
+public class TextChunker {
+
+    private final TokenEstimator tokenEstimator;
+    private final int maxTokens;
+    private final int overlapTokens;
+    private final TextConsumer chunkConsumer;
+
+    // 현재 청크에 담긴 세그먼트 (앞쪽 carriedCount개는 이전 청크에서 넘어온 오버랩)
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private int chunkTokens = 0;
+    private int carriedCount = 0;
+
+    // 작성 중인 세그먼트
+    private final StringBuilder current = new StringBuilder();
+    private double currentTokens = 0;
+    private boolean afterTerminal = false;
+    private boolean afterNewline = false;
+
+    public TextChunker(TokenEstimator tokenEstimator, int maxTokens, int overlapTokens, TextConsumer chunkConsumer) {
+        if (maxTokens <= 0 || overlapTokens < 0 || overlapTokens >= maxTokens) {
+            throw new IllegalArgumentException("청크 토큰 설정이 올바르지 않습니다: max=" + maxTokens + ", overlap=" + overlapTokens);
+        }
+        this.tokenEstimator = tokenEstimator;
+        this.maxTokens = maxTokens;
+        this.overlapTokens = overlapTokens;
+        this.chunkConsumer = chunkConsumer;
+    }
+
+    /**
+     * 텍스트 추가 (완성된 청크는 바로 전달)
+     */
+    public void append(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '\n') {
+                if (afterNewline) {
+                    // 빈 줄은 문단 경계
+                    closeSegment(true);
+                } else {
+                    afterNewline = true;
+                }
+                current.append(c);
+                continue;
+            }
+
+            if (Character.isWhitespace(c)) {
+                current.append(c);
+                continue;
+            }
+
+            // 공백 뒤에 새 글자가 시작되면 직전까지를 세그먼트로 확정
+            if (afterTerminal && isWhitespaceEnding()) {
+                closeSegment(true);
+            } else if (afterNewline) {
+                closeSegment(false);
+            }
+
+            // 문장 부호 없이 매우 긴 세그먼트는 강제로 분할
+            double weight = tokenEstimator.weightOf(c);
+            if (currentTokens + weight > maxTokens) {
+                splitOversizedSegment();
+            }
+
+            current.append(c);
+            currentTokens += weight;
+            afterTerminal = isTerminal(c) || (afterTerminal && isCloser(c));
+        }
+    }
+
+    /**
+     * 남은 텍스트를 마지막 청크로 전달
+     */
+    public void finish() throws IOException {
+        closeSegment(true);
+        if (hasNewText()) {
+            emitChunk(segments.size());
+        }
+        segments.clear();
+        chunkTokens = 0;
+        carriedCount = 0;
+    }
+
+    private boolean hasNewText() {
+        return segments.size() > carriedCount;
+    }
+
+    private boolean isWhitespaceEnding() {
+        return current.length() > 0 && Character.isWhitespace(current.charAt(current.length() - 1));
+    }
+
+    private boolean isTerminal(char c) {
+        return c == '.' || c == '?' || c == '!' || c == '。' || c == '？' || c == '！' || c == '…';
+    }
+
+    private boolean isCloser(char c) {
+        return c == '"' || c == '\'' || c == ')' || c == ']' || c == '”' || c == '’' || c == '」' || c == '』';
+    }
+
+    /**
+     * 작성 중인 세그먼트를 확정하여 현재 청크에 추가
+     */
+    private void closeSegment(boolean sentenceEnd) throws IOException {
+        afterTerminal = false;
+        afterNewline = false;
+        if (current.length() == 0) {
+            return;
+        }
+
+        int tokens = (int) Math.ceil(currentTokens);
+        String text = current.toString();
+        current.setLength(0);
+        currentTokens = 0;
+
+        if (tokens == 0) {
+            // 공백만 있는 세그먼트는 앞 세그먼트에 붙임
+            if (!segments.isEmpty()) {
+                Segment last = segments.pollLast();
+                segments.addLast(new Segment(last.text() + text, last.tokens(), last.sentenceEnd() || sentenceEnd));
+            }
+            return;
+        }
+
+        // 새 세그먼트가 들어갈 자리가 생길 때까지 청크를 내보냄 (오버랩만 남았으면 오버랩을 버림)
+        while (chunkTokens + tokens > maxTokens && !segments.isEmpty()) {
+            if (hasNewText()) {
+                emitAndCarryOverlap();
+            } else {
+                segments.clear();
+                chunkTokens = 0;
+                carriedCount = 0;
+            }
+        }
+
+        segments.addLast(new Segment(text, tokens, sentenceEnd));
+        chunkTokens += tokens;
+    }
+
+    /**
+     * 현재 청크를 전달하고 오버랩 분량의 마지막 세그먼트만 다음 청크로 넘김
+     * 문장 끝 경계가 청크의 절반 이후에 있으면 그 위치에서 자르고, 뒤따르는 세그먼트는 다음 청크로 넘깁니다.
+     */
+    private void emitAndCarryOverlap() throws IOException {
+        int cut = segments.size();
+        if (!segments.peekLast().sentenceEnd()) {
+            int index = 0;
+            int tokens = 0;
+            int lastSentenceEnd = -1;
+            for (Segment segment : segments) {
+                tokens += segment.tokens();
+                index++;
+                if (index > carriedCount && segment.sentenceEnd() && tokens * 2 >= chunkTokens) {
+                    lastSentenceEnd = index;
+                }
+            }
+            if (lastSentenceEnd > 0) {
+                cut = lastSentenceEnd;
+            }
+        }
+
+        emitChunk(cut);
+
+        // 잘린 지점 이후의 세그먼트는 그대로 남기고, 그 앞쪽에서 오버랩 분량만큼 되살림
+        Deque<Segment> remaining = new ArrayDeque<>();
+        Deque<Segment> emitted = new ArrayDeque<>();
+        int index = 0;
+        for (Segment segment : segments) {
+            (index++ < cut ? emitted : remaining).addLast(segment);
+        }
+
+        int carriedTokens = remaining.stream().mapToInt(Segment::tokens).sum();
+        int carriedFromEmitted = 0;
+        while (!emitted.isEmpty()
+                && carriedFromEmitted + 1 < cut
+                && carriedTokens + emitted.peekLast().tokens() <= overlapTokens) {
+            Segment segment = emitted.pollLast();
+            remaining.addFirst(segment);
+            carriedTokens += segment.tokens();
+            carriedFromEmitted++;
+        }
+
+        segments.clear();
+        segments.addAll(remaining);
+        chunkTokens = carriedTokens;
+        carriedCount = carriedFromEmitted;
+    }
+
+    /**
+     * 앞쪽 세그먼트 count개를 하나의 청크로 전달
+     */
+    private void emitChunk(int count) throws IOException {
+        StringBuilder chunk = new StringBuilder();
+        int index = 0;
+        for (Segment segment : segments) {
+            if (index++ >= count) {
+                break;
+            }
+            chunk.append(segment.text());
+        }
+        String text = chunk.toString().trim();
+        if (!text.isEmpty()) {
+            chunkConsumer.accept(text);
+        }
+    }
+
+    /**
+     * 토큰 한도에 이른 세그먼트를 뒤쪽 절반의 마지막 공백 위치(없으면 현재 위치)에서 분할
+     */
+    private void splitOversizedSegment() throws IOException {
+        int splitAt = current.length();
+        for (int i = current.length() - 1; i > current.length() / 2; i--) {
+            if (Character.isWhitespace(current.charAt(i))) {
+                splitAt = i + 1;
+                break;
+            }
+        }
+
+        String tail = current.substring(splitAt);
+        current.setLength(splitAt);
+        currentTokens = tokenEstimator.estimate(current);
+        closeSegment(false);
+
+        current.append(tail);
+        currentTokens = tokenEstimator.estimate(tail);
+    }
+
+    private record Segment(String text, int tokens, boolean sentenceEnd) {
+    }
+}
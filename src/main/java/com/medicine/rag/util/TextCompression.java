@@ -0,0 +1,27 @@
+package com.medicine.rag.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 텍스트 gzip 압축 유틸리티
+ * 새 추출 텍스트는 {@link com.medicine.rag.service.BlobStore}에 저장되며,
+ * 이 클래스는 DB에 압축 저장된 이전 텍스트를 읽을 때 사용합니다.
+ */
+public final class TextCompression {
+
+    private TextCompression() {
+    }
+
+    /**
+     * gzip 바이트를 문자열로 복원
+     */
+    public static String decompress(byte[] compressed) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed), 8192)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.medicine.rag.util;
+
+import java.io.IOException;
+
+/**
+ * 텍스트 조각 소비자 (페이지/청크 스트리밍용)
+ */
+@FunctionalInterface
+public interface TextConsumer {
+
+    void accept(String text) throws IOException;
+}
@@ -0,0 +1,86 @@
+package com.medicine.rag.util;
+
+import com.medicine.rag.config.ChunkingConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 토큰 수 추정기
+ * 토크나이저를 실행하지 않고 문자 종류별 가중치로 토큰 수를 근사합니다.
+ * 영문/숫자는 토큰당 평균 문자 수로, 한글 음절과 한자는 글자당 토큰 수로 계산하며
+ * 공백은 토큰으로 세지 않고 그 외 기호는 한 글자를 한 토큰으로 봅니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenEstimator {
+
+    private final ChunkingConfig chunkingConfig;
+
+    /**
+     * 텍스트의 토큰 수 추정
+     */
+    public int estimate(CharSequence text) {
+        return estimate(text, 0, text.length());
+    }
+
+    /**
+     * 텍스트 구간 [start, end)의 토큰 수 추정
+     */
+    public int estimate(CharSequence text, int start, int end) {
+        double tokens = 0;
+        for (int i = start; i < end; i++) {
+            tokens += weightOf(text.charAt(i));
+        }
+        return (int) Math.ceil(tokens);
+    }
+
+    /**
+     * 추정 토큰 수가 maxTokens 이하가 되도록 텍스트 앞부분을 자름
+     * 뒤쪽 절반 안에 문장 끝(마침표, 물음표, 느낌표, 줄바꿈)이 있으면 그 위치에서 자릅니다.
+     */
+    public String truncate(String text, int maxTokens) {
+        double tokens = 0;
+        int end = 0;
+        while (end < text.length()) {
+            double weight = weightOf(text.charAt(end));
+            if (tokens + weight > maxTokens) {
+                break;
+            }
+            tokens += weight;
+            end++;
+        }
+        if (end == text.length()) {
+            return text;
+        }
+
+        for (int i = end - 1; i > end / 2; i--) {
+            char c = text.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '\n') {
+                return text.substring(0, i + 1).trim();
+            }
+        }
+        return text.substring(0, end).trim();
+    }
+
+    /**
+     * 문자 하나의 토큰 가중치
+     */
+    public double weightOf(char c) {
+        if (Character.isWhitespace(c)) {
+            return 0;
+        }
+        if (c < 0x80) {
+            return Character.isLetterOrDigit(c) ? 1.0 / chunkingConfig.getCharsPerToken() : 1.0;
+        }
+        if (isHangul(c) || Character.isIdeographic(c)) {
+            return chunkingConfig.getTokensPerHangul();
+        }
+        return Character.isLetterOrDigit(c) ? 1.0 / chunkingConfig.getCharsPerToken() : 1.0;
+    }
+
+    private boolean isHangul(char c) {
+        return (c >= 0xAC00 && c <= 0xD7A3) // 완성형 음절
+                || (c >= 0x1100 && c <= 0x11FF) // 자모
+                || (c >= 0x3130 && c <= 0x318F); // 호환용 자모
+    }
+}
@@ -0,0 +1,57 @@
+package com.medicine.rag.util;
+
+/**
+ * 임베딩 벡터 연산 유틸리티
+ */
+public final class VectorMath {
+
+    private static final double UNIT_TOLERANCE = 1e-3; // 단위 벡터로 볼 길이 오차
+
+    private VectorMath() {
+    }
+
+    /**
+     * 벡터 길이 (L2 norm)
+     */
+    public static double norm(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * 내적 (단위 벡터끼리는 코사인 유사도)
+     */
+    public static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 길이가 1인 벡터로 변환 (영벡터는 그대로 0)
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = norm(vector);
+
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    /**
+     * 이미 단위 벡터인지 여부
+     */
+    public static boolean isUnit(float[] vector) {
+        return Math.abs(norm(vector) - 1) <= UNIT_TOLERANCE;
+    }
+}
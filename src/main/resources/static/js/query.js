@@ -26,18 +26,21 @@ document.getElementById('queryForm').addEventListener('submit', async (e) => {
     hideAnswer();
 
     try {
-        const response = await fetch(`${API_BASE_URL}/queries`, {
+        const response = await fetch(`${API_BASE_URL}/queries/stream`, {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Accept': 'text/event-stream'
             },
             body: JSON.stringify(requestData)
         });
 
         if (response.ok) {
-            const result = await response.json();
-            displayAnswer(result);
-            showAlert('답변이 생성되었습니다.', 'success');
+            await readAnswerStream(response, question, promptType);
+        } else if (response.status === 429) {
+            const retryAfter = response.headers.get('Retry-After');
+            const wait = retryAfter ? `${retryAfter}초` : '잠시';
+            showAlert(`요청이 많아 대기열이 가득 찼습니다. ${wait} 후 다시 시도해주세요.`, 'error');
         } else {
             showAlert('답변 생성에 실패했습니다.', 'error');
         }
@@ -49,13 +52,75 @@ document.getElementById('queryForm').addEventListener('submit', async (e) => {
     }
 });
 
+// 스트리밍 답변 수신 (Server-Sent Events)
+async function readAnswerStream(response, question, promptType) {
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder('utf-8');
+    let buffer = '';
+    let answer = '';
+    let started = false;
+
+    while (true) {
+        const { value, done } = await reader.read();
+        if (done) {
+            break;
+        }
+
+        buffer += decoder.decode(value, { stream: true });
+        const events = buffer.split(/\r?\n\r?\n/);
+        buffer = events.pop();
+
+        for (const rawEvent of events) {
+            const event = parseSseEvent(rawEvent);
+
+            if (event.name === 'token') {
+                if (!started) {
+                    // 첫 토큰 도착 시 로딩을 숨기고 답변 영역 표시
+                    started = true;
+                    showLoading(false);
+                    displayAnswer({ question: question, answer: '', promptType: promptType });
+                }
+                answer += JSON.parse(event.data).token;
+                document.getElementById('answerText').textContent = answer;
+            } else if (event.name === 'done') {
+                const result = JSON.parse(event.data);
+                displayAnswer(result);
+                showAlert(result.cached ? '이전 답변을 재사용했습니다. (캐시)' : '답변이 생성되었습니다.', 'success');
+                return;
+            } else if (event.name === 'error') {
+                const error = JSON.parse(event.data);
+                const retry = error.retryAfterSeconds ? ` ${error.retryAfterSeconds}초 후 다시 시도해주세요.` : '';
+                showAlert(error.message + retry, 'error');
+                return;
+            }
+        }
+    }
+}
+
+// SSE 이벤트 파싱
+function parseSseEvent(rawEvent) {
+    const event = { name: 'message', data: '' };
+    const dataLines = [];
+
+    rawEvent.split(/\r?\n/).forEach(line => {
+        if (line.startsWith('event:')) {
+            event.name = line.substring(6).trim();
+        } else if (line.startsWith('data:')) {
+            dataLines.push(line.substring(5).replace(/^ /, ''));
+        }
+    });
+
+    event.data = dataLines.join('\n');
+    return event;
+}
+
 // 답변 표시
 function displayAnswer(result) {
     document.getElementById('answerQuestion').textContent = result.question;
     document.getElementById('answerText').textContent = result.answer;
     document.getElementById('answerPromptType').textContent = getPromptTypeDescription(result.promptType);
-    document.getElementById('answerResponseTime').textContent = result.responseTime;
-    document.getElementById('answerRelevantDocs').textContent = result.relevantDocuments;
+    document.getElementById('answerResponseTime').textContent = result.responseTime ?? '-';
+    document.getElementById('answerRelevantDocs').textContent = result.relevantDocuments ?? '-';
 
     // 출처 표시
     if (result.sources && result.sources.length > 0) {
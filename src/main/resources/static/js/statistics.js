@@ -18,6 +18,9 @@ async function loadStatistics() {
 
         // 프롬프트 사용 통계
         displayPromptUsageStats(data.promptUsageStats);
+
+        // 캐시 통계
+        displayCacheStats(data.cacheStats);
     } catch (error) {
         console.error('Error:', error);
         alert('통계를 불러오는 중 오류가 발생했습니다.');
@@ -73,3 +76,19 @@ function displayPromptUsageStats(stats) {
         tbody.appendChild(row);
     }
 }
+
+// 캐시 통계 표시
+function displayCacheStats(stats) {
+    if (!stats) {
+        return;
+    }
+
+    document.getElementById('embeddingCacheHitRate').textContent =
+        Math.round((stats.embeddingCacheHitRate || 0) * 1000) / 10 + '%';
+    document.getElementById('embeddingCacheHits').textContent = stats.embeddingCacheHits || 0;
+    document.getElementById('embeddingCacheMisses').textContent = stats.embeddingCacheMisses || 0;
+    document.getElementById('embeddingCacheEntries').textContent = stats.embeddingCacheEntries || 0;
+    document.getElementById('answerCacheHitRate').textContent =
+        Math.round((stats.answerCacheHitRate || 0) * 1000) / 10 + '%';
+    document.getElementById('answerCacheHits').textContent = stats.answerCacheHits || 0;
+}
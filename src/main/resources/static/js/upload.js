@@ -1,6 +1,9 @@
 // 문서 업로드 JavaScript
 
 const API_BASE_URL = '/api';
+let currentPage = 0;
+let totalPages = 0;
+const pageSize = 20;
 
 // 페이지 로드 시 문서 목록 조회
 document.addEventListener('DOMContentLoaded', () => {
@@ -32,10 +35,11 @@ document.getElementById('uploadForm').addEventListener('submit', async (e) => {
         });
 
         if (response.ok) {
-            const result = await response.json();
-            showAlert(`문서가 성공적으로 업로드되었습니다. (청크: ${result.chunkCount}개)`, 'success');
+            const job = await response.json();
             fileInput.value = '';
-            loadDocuments();
+            await waitForJob(job.jobId);
+        } else if (response.status === 503) {
+            showAlert('처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.', 'error');
         } else {
             showAlert('문서 업로드에 실패했습니다.', 'error');
         }
@@ -47,21 +51,74 @@ document.getElementById('uploadForm').addEventListener('submit', async (e) => {
     }
 });
 
-// 문서 목록 조회
-async function loadDocuments() {
+// 문서 수집 작업 완료 대기 (상태 폴링)
+async function waitForJob(jobId) {
+    while (true) {
+        const response = await fetch(`${API_BASE_URL}/documents/jobs/${jobId}`);
+        if (!response.ok) {
+            showAlert('작업 상태를 확인할 수 없습니다.', 'error');
+            return;
+        }
+
+        const job = await response.json();
+        if (job.status === 'COMPLETED' && job.duplicateOfDocumentId) {
+            showAlert('같은 내용의 문서가 이미 있어 기존 처리 결과를 재사용했습니다.', 'success');
+            loadDocuments();
+            return;
+        }
+        if (job.status === 'COMPLETED') {
+            showAlert(`문서 처리가 완료되었습니다. (청크: ${job.totalChunks}개)`, 'success');
+            loadDocuments();
+            return;
+        }
+        if (job.status === 'FAILED') {
+            showAlert(`문서 처리에 실패했습니다: ${job.errorMessage || ''}`, 'error');
+            return;
+        }
+
+        showAlert(formatJobProgress(job), 'success');
+        await new Promise(resolve => setTimeout(resolve, 1000));
+    }
+}
+
+// 작업 진행 상황 포맷팅
+function formatJobProgress(job) {
+    if (!job.stage) {
+        return '처리 대기 중입니다...';
+    }
+    if (job.stage === 'EMBEDDING' && job.totalChunks) {
+        return `${job.stageDescription} 중... (${job.processedChunks}/${job.totalChunks})`;
+    }
+    if (job.stage === 'EMBEDDING') {
+        return `${job.stageDescription} 중... (${job.processedChunks}개 완료)`;
+    }
+    return `${job.stageDescription} 중...`;
+}
+
+// 문서 목록 조회 (페이지를 지정하지 않으면 현재 페이지 새로고침)
+async function loadDocuments(page = currentPage) {
     try {
-        const response = await fetch(`${API_BASE_URL}/documents`);
-        const documents = await response.json();
+        const response = await fetch(`${API_BASE_URL}/documents?page=${page}&size=${pageSize}`);
+        const data = await response.json();
+
+        // 마지막 페이지의 문서를 모두 삭제한 경우 이전 페이지로 이동
+        if (data.content.length === 0 && data.number > 0) {
+            return loadDocuments(data.totalPages > 0 ? data.totalPages - 1 : 0);
+        }
+
+        currentPage = data.number;
+        totalPages = data.totalPages;
+        updatePagination();
 
         const tbody = document.getElementById('documentsBody');
         tbody.innerHTML = '';
 
-        if (documents.length === 0) {
+        if (data.content.length === 0) {
             tbody.innerHTML = '<tr><td colspan="7" style="text-align: center;">업로드된 문서가 없습니다.</td></tr>';
             return;
         }
 
-        documents.forEach(doc => {
+        data.content.forEach(doc => {
             const row = document.createElement('tr');
             row.innerHTML = `
                 <td>${doc.id}</td>
@@ -71,6 +128,7 @@ async function loadDocuments() {
                 <td>${doc.chunkCount}</td>
                 <td>${formatDate(doc.createdAt)}</td>
                 <td>
+                    <button class="btn btn-primary" onclick="selectRevision(${doc.id})">갱신</button>
                     <button class="btn btn-danger" onclick="deleteDocument(${doc.id})">삭제</button>
                 </td>
             `;
@@ -82,6 +140,72 @@ async function loadDocuments() {
     }
 }
 
+// 페이지네이션 업데이트
+function updatePagination() {
+    document.getElementById('pageInfo').textContent = `${currentPage + 1} / ${totalPages || 1}`;
+}
+
+// 이전 페이지
+function previousPage() {
+    if (currentPage > 0) {
+        loadDocuments(currentPage - 1);
+    }
+}
+
+// 다음 페이지
+function nextPage() {
+    if (currentPage < totalPages - 1) {
+        loadDocuments(currentPage + 1);
+    }
+}
+
+// 새 버전 파일 선택
+let revisionTargetId = null;
+
+function selectRevision(id) {
+    revisionTargetId = id;
+    document.getElementById('revisionFile').click();
+}
+
+// 문서 갱신 (새 버전 업로드, 바뀐 청크만 다시 임베딩)
+document.getElementById('revisionFile').addEventListener('change', async (e) => {
+    const file = e.target.files[0];
+    e.target.value = '';
+    if (!file || revisionTargetId === null) {
+        return;
+    }
+
+    const formData = new FormData();
+    formData.append('file', file);
+
+    showLoading(true);
+    clearAlert();
+
+    try {
+        const response = await fetch(`${API_BASE_URL}/documents/${revisionTargetId}`, {
+            method: 'PUT',
+            body: formData
+        });
+
+        if (response.ok) {
+            const job = await response.json();
+            await waitForJob(job.jobId);
+        } else if (response.status === 409) {
+            showAlert('이 문서의 갱신 작업이 이미 진행 중입니다.', 'error');
+        } else if (response.status === 503) {
+            showAlert('처리 대기열이 가득 찼습니다. 잠시 후 다시 시도해주세요.', 'error');
+        } else {
+            showAlert('문서 갱신에 실패했습니다.', 'error');
+        }
+    } catch (error) {
+        console.error('Error:', error);
+        showAlert('문서 갱신 중 오류가 발생했습니다.', 'error');
+    } finally {
+        showLoading(false);
+        revisionTargetId = null;
+    }
+});
+
 // 문서 삭제
 async function deleteDocument(id) {
     if (!confirm('정말로 이 문서를 삭제하시겠습니까?')) {
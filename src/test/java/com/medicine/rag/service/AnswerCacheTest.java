@@ -0,0 +1,62 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.AnswerCacheConfig;
+import com.medicine.rag.model.QueryHistory.PromptType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 의미 기반 답변 캐시 테스트
+ */
+class AnswerCacheTest {
+
+    private static final float[] QUESTION = {3, 4, 0};
+    private static final float[] SIMILAR_QUESTION = {0.6f, 0.8f, 0.01f};
+    private static final PromptType PROMPT_TYPE = PromptType.values()[0];
+
+    private AnswerCache answerCache;
+
+    @BeforeEach
+    void setUp() {
+        AnswerCacheConfig answerCacheConfig = new AnswerCacheConfig();
+        ReflectionTestUtils.setField(answerCacheConfig, "enabled", true);
+        ReflectionTestUtils.setField(answerCacheConfig, "similarityThreshold", 0.95);
+        ReflectionTestUtils.setField(answerCacheConfig, "maxEntries", 10);
+        answerCache = new AnswerCache(answerCacheConfig);
+    }
+
+    @Test
+    @DisplayName("정규화된 질문 임베딩의 코사인 유사도로 캐시된 답변을 조회")
+    void lookupMatchesSimilarQuestion() {
+        put("문서-1", answerCache.currentEpoch());
+
+        assertThat(answerCache.lookup(PROMPT_TYPE, SIMILAR_QUESTION))
+                .hasValueSatisfying(entry -> assertThat(entry.answer()).isEqualTo("식후 30분에 복용합니다."));
+        assertThat(answerCache.lookup(PROMPT_TYPE, new float[]{0, 0, 1})).isEmpty();
+    }
+
+    @Test
+    @DisplayName("검색 시작 후 문서가 무효화되었으면 생성된 답변을 저장하지 않음")
+    void answerStartedBeforeInvalidationIsNotCached() {
+        long startEpoch = answerCache.currentEpoch();
+        answerCache.invalidateDocument("문서-2");
+
+        put("문서-1", startEpoch);
+        assertThat(answerCache.size()).isZero();
+
+        put("문서-1", answerCache.currentEpoch());
+        assertThat(answerCache.size()).isEqualTo(1);
+    }
+
+    private void put(String documentKey, long startEpoch) {
+        answerCache.put(PROMPT_TYPE, QUESTION, "식후 30분에 복용합니다.", "컨텍스트", List.of("label.txt"), 1,
+                Set.of(documentKey), startEpoch);
+    }
+}
@@ -0,0 +1,99 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.FileStorageConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내용 주소 기반 파일 저장소 테스트
+ */
+class BlobStoreTest {
+
+    private static final byte[] CONTENT = "이 약은 식후 30분에 복용합니다.".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageConfig fileStorageConfig = new FileStorageConfig();
+        ReflectionTestUtils.setField(fileStorageConfig, "blobDir", tempDir.toString());
+        blobStore = new BlobStore(fileStorageConfig);
+        blobStore.init();
+    }
+
+    @Test
+    @DisplayName("같은 내용은 한 번만 저장하고 기존 파일을 재사용")
+    void identicalContentIsStoredOnce() throws IOException {
+        BlobStore.StoredBlob first = blobStore.storeOriginal(new ByteArrayInputStream(CONTENT), blob -> blob);
+        BlobStore.StoredBlob second = blobStore.storeOriginal(new ByteArrayInputStream(CONTENT), blob -> blob);
+
+        assertThat(first.existed()).isFalse();
+        assertThat(second.existed()).isTrue();
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(Files.readAllBytes(first.path())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("기존 파일을 재사용해 참조를 등록하는 동안에는 참조 없음으로 삭제되지 않음")
+    void releaseWaitsForRegistrationOfReusedFile() throws Exception {
+        Path path = blobStore.storeOriginal(new ByteArrayInputStream(CONTENT), BlobStore.StoredBlob::path);
+        AtomicBoolean referenced = new AtomicBoolean(false);
+        CountDownLatch registering = new CountDownLatch(1);
+        CountDownLatch registered = new CountDownLatch(1);
+
+        CompletableFuture<BlobStore.StoredBlob> store = CompletableFuture.supplyAsync(() -> {
+            try {
+                return blobStore.storeOriginal(new ByteArrayInputStream(CONTENT), blob -> {
+                    registering.countDown();
+                    awaitQuietly(registered);
+                    referenced.set(true);
+                    return blob;
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(registering.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Boolean> release = CompletableFuture.supplyAsync(() -> {
+            try {
+                return blobStore.deleteOriginal(path, referenced::get);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertThat(release).isNotDone();
+
+        registered.countDown();
+        assertThat(store.get(5, TimeUnit.SECONDS).existed()).isTrue();
+        assertThat(release.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(path).exists();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
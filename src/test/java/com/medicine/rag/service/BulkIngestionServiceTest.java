@@ -0,0 +1,142 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.IngestionConfig;
+import com.medicine.rag.model.IngestionBatch;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.repository.IngestionBatchRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 일괄 문서 수집 테스트
+ * 파일 저장과 작업 등록은 대역으로 대체하고, 어떤 파일이 등록되거나 건너뛰어지는지 확인합니다.
+ */
+class BulkIngestionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final IngestionBatchRepository ingestionBatchRepository = mock(IngestionBatchRepository.class);
+    private final IngestionJobRepository ingestionJobRepository = mock(IngestionJobRepository.class);
+    private final ExecutorService bulkImportExecutor = mock(ExecutorService.class);
+
+    private BulkIngestionService bulkIngestionService;
+    private Path importRoot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        importRoot = Files.createDirectory(tempDir.resolve("import"));
+
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ReflectionTestUtils.setField(ingestionConfig, "bulkImportRoot", importRoot.toString());
+        ReflectionTestUtils.setField(ingestionConfig, "bulkMaxEntryBytes", 1024L);
+        ReflectionTestUtils.setField(ingestionConfig, "bulkMaxEntries", 3);
+        ReflectionTestUtils.setField(ingestionConfig, "bulkMaxTotalBytes", 4096L);
+
+        bulkIngestionService = new BulkIngestionService(documentService, mock(IngestionPipeline.class),
+                ingestionBatchRepository, ingestionJobRepository, ingestionConfig, bulkImportExecutor);
+
+        // 백그라운드 작업을 호출한 스레드에서 바로 실행
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(bulkImportExecutor).execute(any(Runnable.class));
+        when(ingestionBatchRepository.save(any(IngestionBatch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentService.isSupportedFileType(anyString())).thenReturn(true);
+        when(documentService.storeBatchFile(anyString(), any(), any())).thenReturn(
+                IngestionJob.builder().status(IngestionJob.Status.COMPLETED).build());
+    }
+
+    @Test
+    @DisplayName("디렉토리 가져오기는 가져오기 경로 밖을 가리키는 심볼릭 링크를 따라가지 않음")
+    void directoryImportSkipsSymbolicLinks() throws IOException {
+        Path outside = Files.createDirectory(tempDir.resolve("outside"));
+        Files.writeString(outside.resolve("secret.txt"), "가져오기 경로 밖의 파일");
+
+        Path labels = Files.createDirectory(importRoot.resolve("labels"));
+        Files.writeString(labels.resolve("label.txt"), "이 약은 식후 30분에 복용합니다.");
+        Files.createSymbolicLink(labels.resolve("linked.txt"), outside.resolve("secret.txt"));
+        Files.createSymbolicLink(labels.resolve("linked-dir"), outside);
+
+        bulkIngestionService.submitDirectory("labels");
+
+        verify(documentService).storeBatchFile(eq("label.txt"), any(), any());
+        verify(documentService, never()).storeBatchFile(eq("linked.txt"), any(), any());
+        verify(documentService, never()).storeBatchFile(eq("secret.txt"), any(), any());
+    }
+
+    @Test
+    @DisplayName("압축 파일 항목 수가 제한을 넘으면 일괄 작업을 중단하고 등록한 작업을 실패 처리")
+    void zipWithTooManyEntriesAbortsBatch() throws IOException {
+        List<IngestionJob> stored = new ArrayList<>();
+        when(documentService.storeBatchFile(anyString(), any(), any())).thenAnswer(invocation -> {
+            IngestionJob job = IngestionJob.builder()
+                    .status(IngestionJob.Status.QUEUED)
+                    .filePath("blob-" + stored.size())
+                    .build();
+            stored.add(job);
+            return job;
+        });
+
+        MockMultipartFile archive = zip(List.of("a.txt", "b.txt", "c.txt", "d.txt"), 10);
+
+        assertThatThrownBy(() -> bulkIngestionService.submitZip(archive))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stored).hasSize(3);
+        assertThat(stored).allMatch(job -> job.getStatus() == IngestionJob.Status.FAILED);
+        for (IngestionJob job : stored) {
+            verify(documentService).releaseFile(job.getFilePath());
+        }
+        verify(bulkImportExecutor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("건너뛰는 항목을 포함해 압축을 푼 전체 크기가 제한을 넘으면 일괄 작업을 중단")
+    void zipExceedingTotalSizeAbortsBatch() throws IOException {
+        when(documentService.isSupportedFileType(anyString())).thenReturn(false);
+
+        MockMultipartFile archive = zip(List.of("a.bin", "b.bin", "c.bin"), 2000);
+
+        assertThatThrownBy(() -> bulkIngestionService.submitZip(archive))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("전체 크기");
+        verify(ingestionBatchRepository, atLeastOnce()).save(argThat(batch -> batch.getErrorMessage() != null));
+    }
+
+    private static MockMultipartFile zip(List<String> names, int entryBytes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (String name : names) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write("가".repeat(entryBytes / 3).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", "labels.zip", "application/zip", bytes.toByteArray());
+    }
+}
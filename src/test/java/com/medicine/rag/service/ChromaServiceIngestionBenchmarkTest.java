@@ -0,0 +1,221 @@
+package com.medicine.rag.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicine.rag.config.ChromaConfig;
+import com.medicine.rag.config.EmbeddingCacheConfig;
+import com.medicine.rag.config.OllamaConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.util.VectorMath;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 배치 임베딩/저장 수집 경로 벤치마크
+ * 요청마다 고정 지연을 두는 로컬 Ollama/Chroma 대역 서버에 청크를 저장하며,
+ * 배치 크기 1(청크마다 임베딩 1회 + 저장 1회, 기존 방식)과 기본 배치 크기의 요청 수와 처리량을 비교합니다.
+ * 처리량 비교는 실행 환경의 속도에 따라 달라지므로 benchmark 태그로 분리합니다 (mvn test -Pbenchmark).
+ */
+class ChromaServiceIngestionBenchmarkTest {
+
+    private static final int CHUNK_COUNT = 256;
+    private static final int BATCH_SIZE = 32;
+    private static final int DIMENSION = 8;
+    private static final long ROUND_TRIP_MILLIS = 3;
+    private static final String COLLECTION = "medicine";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final List<float[]> storedEmbeddings = new CopyOnWriteArrayList<>();
+    private volatile boolean batchEmbedAvailable = true;
+    private HttpServer server;
+    private String baseUrl;
+
+    static {
+        // 응답 헤더와 본문이 따로 전송되어 지연 ACK(약 40ms)에 걸리지 않도록 Nagle 알고리즘 해제
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("배치 수집은 왕복 횟수가 배치 크기만큼 줄어듦")
+    void batchedIngestionReducesRoundTrips() throws IOException {
+        ingest(1, "single");
+        int perChunkRequests = totalRequests();
+        requestCounts.clear();
+
+        ingest(BATCH_SIZE, "batched");
+        int batchedRequests = totalRequests();
+
+        assertThat(perChunkRequests).isEqualTo(2 * CHUNK_COUNT);
+        assertThat(batchedRequests).isEqualTo(2 * CHUNK_COUNT / BATCH_SIZE);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("배치 수집은 청크 단위 수집보다 처리량이 크게 증가")
+    void batchedIngestionOutperformsPerChunkIngestion() throws IOException {
+        List<String> texts = chunkTexts("warmup");
+        newChromaService(BATCH_SIZE).addDocuments(ids(texts), texts, metadatas(texts));
+
+        double perChunkRate = ingest(1, "single");
+        double batchedRate = ingest(BATCH_SIZE, "batched");
+
+        System.out.printf("청크 %d개 수집: 청크 단위 %.0f chunks/s, 배치 %d개 단위 %.0f chunks/s%n",
+                CHUNK_COUNT, perChunkRate, BATCH_SIZE, batchedRate);
+
+        assertThat(batchedRate).isGreaterThan(perChunkRate * 5);
+    }
+
+    @Test
+    @DisplayName("다중 입력 API 유무와 관계없이 저장되는 벡터는 길이 1로 정규화")
+    void storedEmbeddingsAreNormalizedOnBothEmbeddingPaths() throws IOException {
+        List<String> texts = chunkTexts("batch");
+        newChromaService(BATCH_SIZE).addDocuments(ids(texts), texts, metadatas(texts));
+
+        batchEmbedAvailable = false;
+        texts = chunkTexts("fallback");
+        newChromaService(BATCH_SIZE).addDocuments(ids(texts), texts, metadatas(texts));
+
+        assertThat(requestCounts.get("/api/embeddings")).hasValue(CHUNK_COUNT);
+        assertThat(storedEmbeddings).hasSize(2 * CHUNK_COUNT);
+        assertThat(storedEmbeddings).allMatch(VectorMath::isUnit);
+    }
+
+    private double ingest(int batchSize, String prefix) throws IOException {
+        ChromaService chromaService = newChromaService(batchSize);
+        List<String> texts = chunkTexts(prefix);
+
+        long start = System.nanoTime();
+        chromaService.addDocuments(ids(texts), texts, metadatas(texts));
+        long elapsed = System.nanoTime() - start;
+        return CHUNK_COUNT / (elapsed / 1e9);
+    }
+
+    private ChromaService newChromaService(int batchSize) {
+        OllamaConfig ollamaConfig = new OllamaConfig();
+        ReflectionTestUtils.setField(ollamaConfig, "model", "stub-embed");
+
+        EmbeddingCacheConfig embeddingCacheConfig = new EmbeddingCacheConfig();
+        ReflectionTestUtils.setField(embeddingCacheConfig, "enabled", false);
+        ReflectionTestUtils.setField(embeddingCacheConfig, "diskEnabled", false);
+
+        OkHttpClient httpClient = new OkHttpClient.Builder().callTimeout(10, TimeUnit.SECONDS).build();
+        OllamaEndpointPool pool = new OllamaEndpointPool("embedding", List.of(baseUrl), 3, 30000);
+        OllamaService ollamaService = new OllamaService(ollamaConfig, httpClient, httpClient, pool, pool,
+                null, new EmbeddingCache(embeddingCacheConfig));
+
+        ChromaConfig chromaConfig = new ChromaConfig();
+        ReflectionTestUtils.setField(chromaConfig, "baseUrl", baseUrl);
+        ReflectionTestUtils.setField(chromaConfig, "collectionName", COLLECTION);
+
+        VectorStoreConfig vectorStoreConfig = new VectorStoreConfig();
+        ReflectionTestUtils.setField(vectorStoreConfig, "batchSize", batchSize);
+
+        return new ChromaService(chromaConfig, vectorStoreConfig, httpClient, ollamaService);
+    }
+
+    /**
+     * 대역 서버 요청 처리 (요청마다 네트워크 왕복 및 처리 시간을 흉내 내는 고정 지연)
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        try {
+            Thread.sleep(ROUND_TRIP_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Object response;
+        if (path.equals("/api/embed") && batchEmbedAvailable) {
+            List<float[]> embeddings = new ArrayList<>();
+            request.get("input").forEach(input -> embeddings.add(VectorMath.normalize(embed(input.asText()))));
+            response = Map.of("embeddings", embeddings);
+        } else if (path.equals("/api/embeddings")) {
+            response = Map.of("embedding", embed(request.get("prompt").asText()));
+        } else if (path.equals("/api/v1/collections/" + COLLECTION + "/upsert")) {
+            request.get("embeddings").forEach(node -> {
+                float[] embedding = new float[node.size()];
+                for (int i = 0; i < embedding.length; i++) {
+                    embedding[i] = (float) node.get(i).asDouble();
+                }
+                storedEmbeddings.add(embedding);
+            });
+            response = Map.of();
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    /**
+     * 텍스트마다 고정된 정규화되지 않은 벡터 (/api/embeddings 응답 형태)
+     */
+    private static float[] embed(String text) {
+        Random random = new Random(text.hashCode());
+        float[] embedding = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            embedding[i] = (float) (random.nextGaussian() * 10);
+        }
+        return embedding;
+    }
+
+    private int totalRequests() {
+        return requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private static List<String> chunkTexts(String prefix) {
+        List<String> texts = new ArrayList<>(CHUNK_COUNT);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            texts.add(prefix + " 청크 " + i + ": 이 약은 식후 30분에 복용합니다.");
+        }
+        return texts;
+    }
+
+    private static List<String> ids(List<String> texts) {
+        return IntStream.range(0, texts.size()).mapToObj(i -> "doc" + VectorStore.CHUNK_ID_SEPARATOR + i).toList();
+    }
+
+    private static List<Map<String, String>> metadatas(List<String> texts) {
+        return texts.stream().map(text -> Map.of("vectorId", "doc")).toList();
+    }
+}
@@ -0,0 +1,176 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.FileStorageConfig;
+import com.medicine.rag.config.IngestionConfig;
+import com.medicine.rag.config.OllamaConfig;
+import com.medicine.rag.config.OpenSearchConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.model.Document;
+import com.medicine.rag.model.DocumentChunk;
+import com.medicine.rag.model.IngestionJob;
+import com.medicine.rag.repository.DocumentChunkRepository;
+import com.medicine.rag.repository.DocumentRepository;
+import com.medicine.rag.repository.DocumentTextRepository;
+import com.medicine.rag.repository.IngestionJobRepository;
+import com.medicine.rag.util.DocumentParser;
+import com.medicine.rag.util.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 문서 수집/갱신 테스트
+ * 저장소와 외부 서비스는 모두 대역으로 대체하고, 수집 작업이 어떤 청크를 저장/삭제하는지 확인합니다.
+ */
+class DocumentServiceTest {
+
+    private static final String VECTOR_ID = "vector-1";
+    private static final String SEARCH_INDEX_ID = "search-1";
+    private static final int LEGACY_CHUNK_COUNT = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentChunkRepository documentChunkRepository = mock(DocumentChunkRepository.class);
+    private final DocumentTextRepository documentTextRepository = mock(DocumentTextRepository.class);
+    private final DocumentParser documentParser = mock(DocumentParser.class);
+    private final VectorStore vectorStore = mock(VectorStore.class);
+    private final OpenSearchService openSearchService = mock(OpenSearchService.class);
+    private final OpenSearchConfig openSearchConfig = mock(OpenSearchConfig.class);
+    private final VectorStoreConfig vectorStoreConfig = mock(VectorStoreConfig.class);
+    private final IngestionConfig ingestionConfig = mock(IngestionConfig.class);
+    private final OllamaConfig ollamaConfig = mock(OllamaConfig.class);
+    private final IngestionJobRepository ingestionJobRepository = mock(IngestionJobRepository.class);
+    private final BlobStore blobStore = mock(BlobStore.class);
+
+    private DocumentService documentService;
+    private Document legacyDocument;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        documentService = new DocumentService(documentRepository, documentChunkRepository, documentTextRepository,
+                documentParser, vectorStore, openSearchService, openSearchConfig, new FileStorageConfig(),
+                vectorStoreConfig, ingestionConfig, ollamaConfig, ingestionJobRepository, mock(AnswerCache.class),
+                new PipelineMetrics(new SimpleMeterRegistry()), blobStore, mock(StoreOutbox.class));
+
+        // 청크 지문 기록 없이 순번 청크 ID로 저장된 이전 방식 문서
+        legacyDocument = Document.builder()
+                .id(1L)
+                .fileName("old-hash")
+                .originalFileName("label.txt")
+                .fileType("txt")
+                .fileSize(10L)
+                .filePath(tempDir.resolve("old-hash").toString())
+                .vectorId(VECTOR_ID)
+                .searchIndexId(SEARCH_INDEX_ID)
+                .chunkCount(LEGACY_CHUNK_COUNT)
+                .build();
+
+        when(documentRepository.findById(1L)).thenReturn(Optional.of(legacyDocument));
+        when(documentRepository.countByVectorId(VECTOR_ID)).thenReturn(1L);
+        when(documentRepository.existsByFilePath(anyString())).thenReturn(true);
+        when(documentRepository.save(any(Document.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentTextRepository.findById(1L)).thenReturn(Optional.empty());
+        when(documentChunkRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ingestionJobRepository.save(any(IngestionJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(ingestionConfig.getStreamingExtraction()).thenReturn(false);
+        when(ingestionConfig.getDeduplicateUploads()).thenReturn(true);
+        when(vectorStoreConfig.getBatchSize()).thenReturn(32);
+        when(openSearchConfig.getBulkSize()).thenReturn(200);
+        when(ollamaConfig.getModel()).thenReturn("embed-model");
+        BlobStore.StoredBlob blob = new BlobStore.StoredBlob("new-hash", tempDir.resolve("new-hash"), 10L, false);
+        when(blobStore.storeOriginal(any(), any())).thenAnswer(
+                invocation -> invocation.<BlobStore.Registration<?>>getArgument(1).register(blob));
+        when(blobStore.storeText(anyString())).thenReturn("text-hash");
+    }
+
+    @Test
+    @DisplayName("지문 기록이 없는 문서의 갱신 작업은 생성 시 이전 방식 청크 수를 기록")
+    void revisionOfLegacyDocumentRecordsLegacyChunkCount() throws IOException {
+        when(documentChunkRepository.existsByVectorId(VECTOR_ID)).thenReturn(false);
+        IngestionJob job = documentService.storeRevision(1L, upload()).orElseThrow();
+        assertThat(job.getLegacyChunkCount()).isEqualTo(LEGACY_CHUNK_COUNT);
+
+        when(documentChunkRepository.existsByVectorId(VECTOR_ID)).thenReturn(true);
+        job = documentService.storeRevision(1L, upload()).orElseThrow();
+        assertThat(job.getLegacyChunkCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("중단 후 재개된 이전 방식 문서의 갱신도 순번 청크와 문서 전체 인덱스 항목을 삭제")
+    void resumedRevisionOfLegacyDocumentRemovesLegacyEntries() throws IOException {
+        when(documentChunkRepository.existsByVectorId(VECTOR_ID)).thenReturn(false);
+        IngestionJob job = documentService.storeRevision(1L, upload()).orElseThrow();
+
+        // 첫 실행이 첫 번째 청크를 인덱싱하고 지문을 기록한 뒤 중단된 상태
+        List<String> chunks = List.of("첫 번째 문장입니다.", "두 번째 문장입니다.", "세 번째 문장입니다.");
+        DocumentChunk indexed = DocumentChunk.builder()
+                .id(10L)
+                .vectorId(VECTOR_ID)
+                .chunkId(VECTOR_ID + VectorStore.CHUNK_ID_SEPARATOR + sha256(chunks.get(0)))
+                .fingerprint(sha256(chunks.get(0)))
+                .chunkIndex(0)
+                .build();
+        when(documentChunkRepository.findByVectorId(VECTOR_ID)).thenReturn(List.of(indexed));
+        when(documentParser.extractText(any(File.class), eq("txt"))).thenReturn(String.join(" ", chunks));
+        when(documentParser.chunkText(anyString())).thenReturn(chunks);
+        // 배치 목록은 저장 후 비워지므로 호출 시점에 복사
+        List<String> embeddedTexts = new ArrayList<>();
+        doAnswer(invocation -> embeddedTexts.addAll(invocation.getArgument(1)))
+                .when(vectorStore).addDocuments(anyList(), anyList(), anyList());
+
+        documentService.ingest(job);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> deletedVectors = ArgumentCaptor.forClass(List.class);
+        verify(vectorStore).deleteDocuments(deletedVectors.capture());
+        assertThat(deletedVectors.getValue()).containsExactlyInAnyOrder(
+                VECTOR_ID + "_chunk_0", VECTOR_ID + "_chunk_1", VECTOR_ID + "_chunk_2", VECTOR_ID + "_chunk_3");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> deletedSearchIds = ArgumentCaptor.forClass(List.class);
+        verify(openSearchService).bulkDelete(deletedSearchIds.capture());
+        assertThat(deletedSearchIds.getValue()).contains(SEARCH_INDEX_ID);
+
+        // 이미 저장된 첫 번째 청크는 다시 임베딩하지 않음
+        assertThat(embeddedTexts).containsExactly(chunks.get(1), chunks.get(2));
+    }
+
+    private MockMultipartFile upload() {
+        return new MockMultipartFile("file", "label.txt", "text/plain",
+                "새 버전".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
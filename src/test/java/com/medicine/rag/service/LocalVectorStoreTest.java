@@ -0,0 +1,369 @@
+package com.medicine.rag.service;
+
+import com.medicine.rag.config.FileStorageConfig;
+import com.medicine.rag.config.VectorStoreConfig;
+import com.medicine.rag.util.VectorMath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 내장 HNSW 벡터 저장소 테스트
+ * 임베딩 서버 대신 텍스트별로 미리 만든 벡터를 돌려주는 OllamaService를 사용합니다.
+ */
+class LocalVectorStoreTest {
+
+    private static final int DIMENSION = 32;
+    private static final int TOP_K = 10;
+
+    @TempDir
+    Path uploadDir;
+
+    private final Map<String, float[]> embeddings = new HashMap<>();
+    private final Random random = new Random(7);
+    private final List<LocalVectorStore> openStores = new ArrayList<>();
+    private OllamaService ollamaService;
+    private int graphSnapshotInterval = 10000;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ollamaService = mock(OllamaService.class);
+        when(ollamaService.generateEmbedding(anyString()))
+                .thenAnswer(invocation -> embeddings.get(invocation.<String>getArgument(0)));
+        when(ollamaService.generateEmbeddings(anyList()))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                        .map(embeddings::get)
+                        .toList());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (LocalVectorStore store : openStores) {
+            store.close();
+        }
+    }
+
+    @Test
+    @DisplayName("무작위 벡터에서 recall@10이 전수 탐색 대비 0.95 이상")
+    void recallAgainstBruteForce() throws IOException {
+        LocalVectorStore store = open();
+        Map<String, float[]> normalized = normalized(addRandom(store, "doc", 2000));
+
+        int queries = 100;
+        double recallSum = 0;
+        for (int q = 0; q < queries; q++) {
+            String queryText = "query-" + q;
+            embeddings.put(queryText, randomVector());
+
+            Set<String> found = search(store, queryText);
+            found.retainAll(bruteForce(embeddings.get(queryText), normalized, TOP_K));
+            recallSum += (double) found.size() / TOP_K;
+        }
+
+        assertThat(recallSum / queries).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("HNSW 검색과 전수 탐색의 평균 지연 비교")
+    void searchLatencyAgainstBruteForce() throws IOException {
+        LocalVectorStore store = open();
+        Map<String, float[]> normalized = normalized(addRandom(store, "doc", 2000));
+
+        int queries = 100;
+        long hnswNanos = 0;
+        long bruteNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            String queryText = "query-" + q;
+            embeddings.put(queryText, randomVector());
+
+            long start = System.nanoTime();
+            search(store, queryText);
+            hnswNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            bruteForce(embeddings.get(queryText), normalized, TOP_K);
+            bruteNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("노드 %d개, HNSW 평균 %.3fms, 전수 탐색 평균 %.3fms%n",
+                normalized.size(), hnswNanos / 1e6 / queries, bruteNanos / 1e6 / queries);
+    }
+
+    @Test
+    @DisplayName("같은 ID를 다시 추가하면 이전 벡터는 검색되지 않고 재시작 후에도 유지")
+    void readdingIdSupersedesPreviousNode() throws IOException {
+        LocalVectorStore store = open();
+        addRandom(store, "other", 50);
+
+        float[] original = randomVector();
+        float[] replacement = randomVector();
+        add(store, "target", "original", original);
+        add(store, "target", "replacement", replacement);
+
+        assertSuperseded(store, original, replacement);
+
+        store.close();
+        openStores.remove(store);
+        assertSuperseded(open(), original, replacement);
+    }
+
+    @Test
+    @DisplayName("불완전한 마지막 레코드는 재시작 시 잘라내고 이후 추가가 정상 동작")
+    void truncatedLastRecordIsDiscarded() throws IOException {
+        LocalVectorStore store = open();
+        List<String> ids = addRandom(store, "doc", 100);
+        store.close();
+        openStores.remove(store);
+
+        Path records = indexDir().resolve("records.jsonl");
+        long validSize = Files.size(records);
+        Files.writeString(records, "{\"node\":100,\"id\":\"partial\",\"metad", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        LocalVectorStore reopened = open();
+        assertThat(Files.size(records)).isEqualTo(validSize);
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(100L);
+
+        List<String> added = addRandom(reopened, "more", 20);
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(120L);
+        assertFindsItself(reopened, ids);
+        assertFindsItself(reopened, added);
+    }
+
+    @Test
+    @DisplayName("그래프 스냅샷 이후 추가된 노드는 재시작 시 그래프에 다시 연결")
+    void staleGraphSnapshotIsExtended() throws IOException {
+        LocalVectorStore store = open();
+        List<String> ids = new ArrayList<>(addRandom(store, "doc", 300));
+        store.close();
+        openStores.remove(store);
+
+        // 그래프 스냅샷(300개) 저장 후 노드를 더 추가하고 종료 처리 없이 중단된 상황
+        LocalVectorStore crashed = open();
+        openStores.remove(crashed);
+        ids.addAll(addRandom(crashed, "late", 200));
+
+        LocalVectorStore reopened = open();
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(500L);
+        assertFindsItself(reopened, ids);
+    }
+
+    @Test
+    @DisplayName("레코드보다 노드가 많은 그래프 스냅샷은 버리고 벡터로부터 재구성")
+    void graphSnapshotAheadOfRecordsIsRebuilt() throws IOException {
+        LocalVectorStore store = open();
+        List<String> ids = addRandom(store, "doc", 200);
+        store.close();
+        openStores.remove(store);
+
+        // 마지막 레코드 줄 중간에서 잘린 로그 (그래프 스냅샷은 200개 노드 기준)
+        Path records = indexDir().resolve("records.jsonl");
+        try (var channel = Files.newByteChannel(records, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(records) - 10);
+        }
+
+        LocalVectorStore reopened = open();
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(199L);
+        assertFindsItself(reopened, ids.subList(0, 199));
+    }
+
+    @Test
+    @DisplayName("삭제된 노드 비율이 기준을 넘으면 정리하고 남은 노드는 재시작 후에도 검색")
+    void deletedNodesAreCompacted() throws IOException {
+        LocalVectorStore store = open();
+        List<String> removed = addRandom(store, "removed", 200);
+        List<String> kept = addRandom(store, "kept", 300);
+        Path records = indexDir().resolve("records.jsonl");
+        long sizeBeforeDelete = Files.size(records);
+
+        // 삭제 비율 0.4 (기준 0.3)
+        store.deleteDocuments(removed);
+
+        assertThat(store.getStatistics().get("count")).isEqualTo(300L);
+        assertThat(Files.size(records)).isLessThan(sizeBeforeDelete);
+        try (var lines = Files.lines(records)) {
+            assertThat(lines.count()).isEqualTo(300L);
+        }
+        assertThat(Files.exists(indexDir().resolve("compact.done"))).isFalse();
+        assertFindsItself(store, kept);
+
+        List<String> added = addRandom(store, "added", 50);
+        assertFindsItself(store, added);
+
+        store.close();
+        openStores.remove(store);
+        LocalVectorStore reopened = open();
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(350L);
+        assertFindsItself(reopened, kept);
+        assertFindsItself(reopened, added);
+    }
+
+    @Test
+    @DisplayName("교체 도중 중단된 정리는 재시작 시 마무리")
+    void interruptedCompactionIsFinishedOnRestart() throws IOException {
+        LocalVectorStore store = open();
+        List<String> removed = addRandom(store, "removed", 200);
+        List<String> kept = addRandom(store, "kept", 300);
+        store.deleteDocuments(removed);
+        store.close();
+        openStores.remove(store);
+
+        // 정리 파일을 모두 기록하고 표시 파일을 남긴 뒤, 일부만 교체된 상태
+        Path indexDir = indexDir();
+        Files.copy(indexDir.resolve("records.jsonl"), indexDir.resolve("records.jsonl.compact"));
+        Files.copy(indexDir.resolve("graph.bin"), indexDir.resolve("graph.bin.compact"));
+        Files.createFile(indexDir.resolve("compact.done"));
+
+        LocalVectorStore reopened = open();
+        assertThat(Files.exists(indexDir.resolve("compact.done"))).isFalse();
+        assertThat(Files.exists(indexDir.resolve("records.jsonl.compact"))).isFalse();
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(300L);
+        assertFindsItself(reopened, kept);
+    }
+
+    @Test
+    @DisplayName("그래프 스냅샷은 정해진 노드 수마다 저장되어 중단 후 재연결할 노드가 제한됨")
+    void graphIsSnapshottedPeriodically() throws IOException {
+        graphSnapshotInterval = 100;
+        LocalVectorStore store = open();
+        openStores.remove(store);
+        List<String> ids = addRandom(store, "doc", 250);
+
+        // 종료 처리 없이 중단되어도 마지막 스냅샷이 남아 있음
+        Path graph = indexDir().resolve("graph.bin");
+        assertThat(Files.exists(graph)).isTrue();
+        try (var in = new DataInputStream(Files.newInputStream(graph))) {
+            assertThat(in.readInt()).isGreaterThanOrEqualTo(200);
+        }
+
+        LocalVectorStore reopened = open();
+        assertThat(reopened.getStatistics().get("count")).isEqualTo(250L);
+        assertFindsItself(reopened, ids);
+    }
+
+    private LocalVectorStore open() {
+        VectorStoreConfig vectorStoreConfig = new VectorStoreConfig();
+        ReflectionTestUtils.setField(vectorStoreConfig, "batchSize", 32);
+        ReflectionTestUtils.setField(vectorStoreConfig, "localDir", "vector-index");
+        ReflectionTestUtils.setField(vectorStoreConfig, "m", 16);
+        ReflectionTestUtils.setField(vectorStoreConfig, "efConstruction", 200);
+        ReflectionTestUtils.setField(vectorStoreConfig, "efSearch", 64);
+        ReflectionTestUtils.setField(vectorStoreConfig, "compactDeletedRatio", 0.3);
+        ReflectionTestUtils.setField(vectorStoreConfig, "compactMinDeleted", 100);
+        ReflectionTestUtils.setField(vectorStoreConfig, "graphSnapshotInterval", graphSnapshotInterval);
+
+        FileStorageConfig fileStorageConfig = new FileStorageConfig();
+        ReflectionTestUtils.setField(fileStorageConfig, "uploadDir", uploadDir.toString());
+
+        LocalVectorStore store = new LocalVectorStore(vectorStoreConfig, fileStorageConfig, ollamaService);
+        store.init();
+        openStores.add(store);
+        return store;
+    }
+
+    private Path indexDir() {
+        return uploadDir.resolve("vector-index");
+    }
+
+    private List<String> addRandom(LocalVectorStore store, String prefix, int count) throws IOException {
+        List<String> ids = new ArrayList<>(count);
+        List<String> texts = new ArrayList<>(count);
+        List<Map<String, String>> metadatas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = prefix + VectorStore.CHUNK_ID_SEPARATOR + i;
+            String text = "text-" + id;
+            embeddings.put(text, randomVector());
+            ids.add(id);
+            texts.add(text);
+            metadatas.add(Map.of("vectorId", prefix));
+        }
+        store.addDocuments(ids, texts, metadatas);
+        return ids;
+    }
+
+    private void add(LocalVectorStore store, String id, String text, float[] vector) throws IOException {
+        embeddings.put(text, vector);
+        store.addDocuments(List.of(id), List.of(text), List.of(Map.of("vectorId", id)));
+    }
+
+    private void assertSuperseded(LocalVectorStore store, float[] original, float[] replacement)
+            throws IOException {
+        embeddings.put("near-original", original);
+        embeddings.put("near-replacement", replacement);
+
+        List<Map<String, Object>> nearOriginal = store.query("near-original", TOP_K);
+        assertThat(nearOriginal).noneMatch(result -> "original".equals(result.get("document")));
+
+        List<Map<String, Object>> nearReplacement = store.query("near-replacement", 1);
+        assertThat(nearReplacement).hasSize(1);
+        assertThat(nearReplacement.get(0).get("id")).isEqualTo("target");
+        assertThat(nearReplacement.get(0).get("document")).isEqualTo("replacement");
+        assertThat(store.getStatistics().get("count")).isEqualTo(51L);
+    }
+
+    /**
+     * 저장된 벡터로 검색하면 자기 자신이 가장 가까운 결과로 나와야 함 (그래프 연결 확인)
+     */
+    private void assertFindsItself(LocalVectorStore store, List<String> ids) throws IOException {
+        for (String id : ids) {
+            List<Map<String, Object>> results = store.query("text-" + id, 1);
+            assertThat(results).as(id).hasSize(1);
+            assertThat(results.get(0).get("id")).as(id).isEqualTo(id);
+        }
+    }
+
+    private Map<String, float[]> normalized(List<String> ids) {
+        return ids.stream().collect(Collectors.toMap(
+                id -> id, id -> VectorMath.normalize(embeddings.get("text-" + id))));
+    }
+
+    private Set<String> search(LocalVectorStore store, String queryText) throws IOException {
+        return store.query(queryText, TOP_K).stream()
+                .map(result -> (String) result.get("id"))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> bruteForce(float[] query, Map<String, float[]> normalized, int topK) {
+        float[] normalizedQuery = VectorMath.normalize(query);
+        return normalized.entrySet().stream()
+                .sorted(Comparator.comparingDouble(entry -> -dot(normalizedQuery, entry.getValue())))
+                .limit(topK)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSION];
+        IntStream.range(0, DIMENSION).forEach(i -> vector[i] = (float) random.nextGaussian());
+        return vector;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
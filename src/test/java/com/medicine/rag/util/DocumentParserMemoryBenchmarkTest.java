@@ -0,0 +1,171 @@
+package com.medicine.rag.util;
+
+import com.medicine.rag.config.ChunkingConfig;
+import com.medicine.rag.config.IngestionConfig;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대용량 PDF 스트리밍 추출 메모리 벤치마크
+ * 합성 PDF를 전체 텍스트 추출과 페이지 스트리밍 추출(청크 분할 포함)로 처리하면서
+ * 추출 진행 중 일정 간격으로 GC 후 힙 사용량을 측정하여, 처리한 페이지 수에 비례해 힙이 늘지 않는지 확인합니다.
+ * 측정값이 GC와 실행 환경에 따라 달라지므로 기본 빌드에서는 제외합니다 (mvn test -Pbenchmark).
+ */
+@Tag("benchmark")
+class DocumentParserMemoryBenchmarkTest {
+
+    private static final int PAGE_COUNT = 1000;
+    private static final int LINES_PER_PAGE = 50;
+    private static final int SAMPLES = 20;
+
+    @TempDir
+    static Path tempDir;
+
+    private static File pdf;
+    private static long generatedLength;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private ForkJoinPool pdfExtractionPool;
+
+    @BeforeAll
+    static void createPdf() throws IOException {
+        pdf = tempDir.resolve("synthetic.pdf").toFile();
+        Random random = new Random(3);
+        String[] words = {"tablet", "dose", "daily", "patient", "renal", "hepatic", "mg", "take", "after",
+                "meals", "adverse", "reaction", "consult", "physician", "store", "below", "degrees"};
+
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int p = 0; p < PAGE_COUNT; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 8);
+                    content.setLeading(14);
+                    content.newLineAtOffset(36, 750);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        StringBuilder text = new StringBuilder();
+                        while (text.length() < 100) {
+                            text.append(words[random.nextInt(words.length)]).append(' ');
+                        }
+                        text.setCharAt(text.length() - 1, '.');
+                        content.showText(text.toString());
+                        generatedLength += text.length();
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(pdf);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pdfExtractionPool != null) {
+            pdfExtractionPool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("페이지 스트리밍 추출의 힙 증가량이 전체 텍스트 크기의 1/20 미만")
+    void sequentialStreamingKeepsHeapBounded() throws IOException {
+        measure(newParser(1), "순차");
+    }
+
+    @Test
+    @DisplayName("병렬 구간 스트리밍 추출의 힙 증가량이 전체 텍스트 크기의 1/20 미만")
+    void windowedParallelStreamingKeepsHeapBounded() throws IOException {
+        measure(newParser(2), "병렬 구간");
+    }
+
+    private void measure(DocumentParser parser, String mode) throws IOException {
+        long sampleStep = generatedLength / SAMPLES;
+        List<Long> samples = new ArrayList<>();
+        AtomicInteger blocks = new AtomicInteger();
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicLong streamedLength = new AtomicLong();
+        TextChunker chunker = parser.newChunker(chunk -> chunks.incrementAndGet());
+        parser.streamText(pdf, "pdf", block -> {
+            blocks.incrementAndGet();
+            chunker.append(block);
+            long streamed = streamedLength.addAndGet(block.length());
+            // 추출 진행률 약 5%마다 측정
+            if (streamed / sampleStep > (streamed - block.length()) / sampleStep) {
+                samples.add(usedHeapAfterGc());
+            }
+        });
+        chunker.finish();
+
+        long baseline = usedHeapAfterGc();
+        String wholeText = parser.extractText(pdf, "pdf");
+        long wholeRetained = usedHeapAfterGc() - baseline;
+        int textLength = wholeText.length();
+
+        // 첫 측정값에는 PDFBox 폰트/문자표 초기화 등 문서 크기와 무관한 고정 비용이 포함되고,
+        // 명시적 GC 후에도 간혹 덜 회수된 값이 섞이므로 앞/뒤 1/4 구간의 최솟값 차이를 증가량으로 봄
+        int quarter = samples.size() / 4;
+        long growth = Collections.min(samples.subList(samples.size() - quarter, samples.size()))
+                - Collections.min(samples.subList(0, quarter));
+
+        System.out.printf("%s: PDF %d페이지 %.1fMB, 텍스트 %d자, 전체 추출 보유 힙 %.1fMB, "
+                        + "스트리밍 중 힙 증가 %.2fMB (블록 %d개, 청크 %d개)%n",
+                mode, PAGE_COUNT, pdf.length() / 1e6, textLength, wholeRetained / 1e6, growth / 1e6,
+                blocks.get(), chunks.get());
+
+        assertThat(streamedLength.get()).isGreaterThanOrEqualTo(textLength - PAGE_COUNT);
+        assertThat(chunks.get()).isGreaterThan(PAGE_COUNT);
+        // 라틴 문자 텍스트는 문자당 1바이트로 저장되므로 텍스트 길이가 전체 텍스트가 차지하는 힙의 하한
+        assertThat(growth).isLessThan(textLength / 20);
+    }
+
+    private DocumentParser newParser(int parallelism) {
+        IngestionConfig ingestionConfig = new IngestionConfig();
+        ReflectionTestUtils.setField(ingestionConfig, "pdfParallelism", parallelism);
+        ReflectionTestUtils.setField(ingestionConfig, "pdfParallelMinPages", 64);
+        ReflectionTestUtils.setField(ingestionConfig, "pdfPagesPerTask", 16);
+        pdfExtractionPool = new ForkJoinPool(parallelism);
+
+        ChunkingConfig chunkingConfig = new ChunkingConfig();
+        ReflectionTestUtils.setField(chunkingConfig, "maxTokens", 512);
+        ReflectionTestUtils.setField(chunkingConfig, "overlapTokens", 64);
+        ReflectionTestUtils.setField(chunkingConfig, "charsPerToken", 4.0);
+        ReflectionTestUtils.setField(chunkingConfig, "tokensPerHangul", 1.5);
+
+        return new DocumentParser(ingestionConfig, chunkingConfig, new TokenEstimator(chunkingConfig),
+                pdfExtractionPool);
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,145 @@
+package com.medicine.rag.util;
+
+import com.medicine.rag.config.ChunkingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * 문장/토큰 기반 청크 분할기 테스트
+ */
+class TextChunkerTest {
+
+    private static final int MAX_TOKENS = 64;
+    private static final int OVERLAP_TOKENS = 16;
+    private static final Pattern SENTENCE_END = Pattern.compile("[.?!。？！…][\"')\\]”’」』]*$");
+
+    private static final List<String> KOREAN_SENTENCES = List.of(
+            "이 약은 식후 30분에 복용합니다.",
+            "1회 3.5mg씩 하루 두 번 드세요.",
+            "졸음이 올 수 있으므로 복용 중에는 운전이나 기계 조작을 피하는 것이 좋습니다.",
+            "임부 또는 임신하고 있을 가능성이 있는 여성은 복용 전 의사와 상담하십니까?",
+            "증상이 개선되지 않으면 즉시 복용을 중지하세요!",
+            "어린이의 손이 닿지 않는 곳에 보관하고, 직사광선을 피해 서늘한 곳에 두어야 해요.",
+            "\"정해진 용량을 지키세요.\"");
+
+    private static final List<String> ENGLISH_SENTENCES = List.of(
+            "Take one tablet after meals.",
+            "The usual dose is 2.5 mg twice daily.",
+            "Do not drive or operate machinery if you feel drowsy while taking this medicine.",
+            "Have you consulted a doctor before use during pregnancy?",
+            "Stop use immediately if a rash appears!",
+            "Keep out of reach of children and store below 25 degrees in a dry place.",
+            "(Read the leaflet carefully.)");
+
+    private TokenEstimator tokenEstimator;
+    private final Random random = new Random(11);
+
+    @BeforeEach
+    void setUp() {
+        ChunkingConfig chunkingConfig = new ChunkingConfig();
+        ReflectionTestUtils.setField(chunkingConfig, "charsPerToken", 4.0);
+        ReflectionTestUtils.setField(chunkingConfig, "tokensPerHangul", 1.5);
+        tokenEstimator = new TokenEstimator(chunkingConfig);
+    }
+
+    @Test
+    @DisplayName("모든 청크의 추정 토큰 수가 최대 토큰 수 이하")
+    void chunksStayWithinMaxTokens() throws IOException {
+        String text = paragraph(KOREAN_SENTENCES, 200) + "\n\n" + paragraph(ENGLISH_SENTENCES, 200);
+
+        List<String> chunks = chunk(text);
+
+        assertThat(chunks).hasSizeGreaterThan(10);
+        assertThat(chunks).allSatisfy(chunk ->
+                assertThat(tokenEstimator.estimate(chunk)).as(chunk).isLessThanOrEqualTo(MAX_TOKENS));
+    }
+
+    @Test
+    @DisplayName("한국어 문장은 문장 끝에서 분할하고 소수점에서는 자르지 않음")
+    void koreanChunksEndOnSentenceBoundary() throws IOException {
+        assertSentenceBoundaries(chunk(paragraph(KOREAN_SENTENCES, 200)));
+    }
+
+    @Test
+    @DisplayName("영어 문장은 문장 끝에서 분할하고 소수점에서는 자르지 않음")
+    void englishChunksEndOnSentenceBoundary() throws IOException {
+        assertSentenceBoundaries(chunk(paragraph(ENGLISH_SENTENCES, 200)));
+    }
+
+    @Test
+    @DisplayName("조각으로 나누어 입력해도 전체를 한 번에 입력한 결과와 같음")
+    void streamedInputMatchesWholeText() throws IOException {
+        String text = paragraph(KOREAN_SENTENCES, 150) + "\n줄바꿈으로 이어지는 문장\n"
+                + paragraph(ENGLISH_SENTENCES, 150) + "\n\n" + "가".repeat(300);
+        List<String> whole = chunk(text);
+
+        for (int round = 0; round < 20; round++) {
+            List<String> streamed = new ArrayList<>();
+            TextChunker chunker = new TextChunker(tokenEstimator, MAX_TOKENS, OVERLAP_TOKENS, streamed::add);
+            int position = 0;
+            while (position < text.length()) {
+                int end = Math.min(text.length(), position + 1 + random.nextInt(40));
+                chunker.append(text.substring(position, end));
+                position = end;
+            }
+            chunker.finish();
+
+            assertThat(streamed).isEqualTo(whole);
+        }
+    }
+
+    @Test
+    @DisplayName("경계가 없는 긴 텍스트는 무한 반복 없이 강제 분할하고 내용을 잃지 않음")
+    void runsWithoutBoundaryAreHardSplit() {
+        String korean = "가나다라마바사아자차".repeat(2000);
+        String english = "abcdefghij".repeat(20000);
+
+        for (String text : List.of(korean, english)) {
+            List<String> chunks = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> chunk(text));
+
+            assertThat(chunks).hasSizeGreaterThan(1);
+            assertThat(chunks).allSatisfy(chunk ->
+                    assertThat(tokenEstimator.estimate(chunk)).isBetween(1, MAX_TOKENS));
+            assertThat(String.join("", chunks)).isEqualTo(text);
+        }
+    }
+
+    private List<String> chunk(String text) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        TextChunker chunker = new TextChunker(tokenEstimator, MAX_TOKENS, OVERLAP_TOKENS, chunks::add);
+        chunker.append(text);
+        chunker.finish();
+        return chunks;
+    }
+
+    private String paragraph(List<String> sentences, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(sentences.get(random.nextInt(sentences.size())));
+        }
+        return text.toString();
+    }
+
+    private void assertSentenceBoundaries(List<String> chunks) {
+        assertThat(chunks).hasSizeGreaterThan(10);
+        assertThat(chunks).allSatisfy(chunk -> {
+            assertThat(SENTENCE_END.matcher(chunk).find()).as("문장 끝: %s", chunk).isTrue();
+            assertThat(chunk).doesNotStartWith("5");
+        });
+    }
+}